@@ -16,9 +16,16 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // 曝光上报的线上地址；debug 包改为上报到本机的替身服务端（LocalExposureServer）
+        buildConfigField("String", "EXPOSURE_ENDPOINT", "\"https://api.feedapp.example.com/v1/exposure\"")
+        buildConfigField("boolean", "LOCAL_EXPOSURE_SERVER", "false")
     }
 
     buildTypes {
+        debug {
+            buildConfigField("boolean", "LOCAL_EXPOSURE_SERVER", "true")
+        }
         release {
             isMinifyEnabled = false
             proguardFiles(
@@ -27,6 +34,10 @@ android {
             )
         }
     }
+    buildFeatures {
+        // 调试开关（比如曝光调试浮层）依赖 BuildConfig.DEBUG
+        buildConfig = true
+    }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
@@ -47,6 +58,7 @@ dependencies {
     implementation("androidx.constraintlayout:constraintlayout:2.1.4")
     implementation("androidx.recyclerview:recyclerview:1.3.1")
     implementation("androidx.swiperefreshlayout:swiperefreshlayout:1.1.0")
+    implementation("androidx.lifecycle:lifecycle-viewmodel-savedstate:2.6.2")
     implementation("com.google.code.gson:gson:2.10.1")
     implementation("com.google.android.exoplayer:exoplayer:2.19.1")
 }
\ No newline at end of file
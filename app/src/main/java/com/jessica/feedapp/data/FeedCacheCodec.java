@@ -0,0 +1,36 @@
+package com.jessica.feedapp.data;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.jessica.feedapp.model.FeedItem;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Feed 列表缓存的编解码（纯 Java，不依赖 Android）：
+ * - FeedCacheManager 负责存取，这里只负责 List<FeedItem> <-> JSON
+ * - MediaInfo 作为 FeedItem 的嵌套对象（media 字段）一起编码
+ * - 单独拆出来，方便在 JVM 上做基准测试
+ */
+public class FeedCacheCodec {
+
+    private static final Type LIST_TYPE = new TypeToken<List<FeedItem>>() {}.getType();
+
+    private final Gson gson = new Gson();
+
+    public String encode(List<FeedItem> feedList) {
+        return gson.toJson(feedList, LIST_TYPE);
+    }
+
+    /**
+     * @return 解析结果；json 为 "null" 时返回空列表
+     * @throws JsonParseException json 格式错误
+     */
+    public List<FeedItem> decode(String json) {
+        List<FeedItem> list = gson.fromJson(json, LIST_TYPE);
+        return list == null ? Collections.emptyList() : list;
+    }
+}
@@ -4,51 +4,61 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.util.Log;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.work.FeedWorkScheduler;
+import com.jessica.feedapp.work.WorkLane;
 
-import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 负责 Feed 列表的本地缓存：
- * - 使用 SharedPreferences 存一份 JSON 字符串快照
+ * - 使用 SharedPreferences 存一份 JSON 字符串快照（编解码见 FeedCacheCodec）
+ * - 快照格式变化时换 key（v2 起带 MediaInfo），旧格式的快照不再读取，下次写盘时顺带删掉
  * - 提供 save / load / clear / hasCache 接口
+ * - save / clear 只在调用线程拷贝一份列表，JSON 编码和写盘都在调度器的 CACHE_PERSIST 通道串行执行；
+ *   写盘前连续多次保存只写最后一份
+ * - 列表和它的分页游标（顶部刷新插入的行数、接着加载更多的 offset）在同一次 commit 里写，读到的总是配套的一份
  */
 public class FeedCacheManager {
 
     private static final String TAG = "FeedCacheManager";
     private static final String PREF_NAME = "feed_cache";
-    private static final String KEY_FEED_LIST = "key_feed_list";
+    private static final String KEY_FEED_LIST = "key_feed_list_v2";
+    // v1：只有 imageUrl，没有媒体宽高
+    private static final String KEY_FEED_LIST_V1 = "key_feed_list";
+    private static final String KEY_REFRESHED_ROWS = "key_feed_refreshed_rows";
+    private static final String KEY_PAGING_OFFSET = "key_feed_paging_offset";
 
     private final SharedPreferences sharedPreferences;
-    private final Gson gson = new Gson();
+    private final FeedCacheCodec codec = new FeedCacheCodec();
+    private final FeedWorkScheduler.SerialQueue persistQueue;
 
-    public FeedCacheManager(Context context) {
+    // 还没写盘的最新一份，列表为空表示清空缓存；为 null 表示没有待写的内容
+    private final AtomicReference<Snapshot> pendingWrite = new AtomicReference<>();
+
+    public FeedCacheManager(Context context, FeedWorkScheduler scheduler) {
         this.sharedPreferences = context.getApplicationContext()
                 .getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.persistQueue = scheduler.newSerialQueue(WorkLane.CACHE_PERSIST, null);
     }
 
     /**
-     * 保存当前列表到本地缓存
+     * 保存当前列表到本地缓存（异步）
+     *
+     * @param refreshedRows 列表顶部有几行是刷新插入的（不属于分页）
+     * @param pagingOffset  恢复这份列表后加载更多从哪个 offset 接着取
      */
-    public void saveFeedList(List<FeedItem> feedList) {
+    public void saveFeedList(List<FeedItem> feedList, int refreshedRows, int pagingOffset) {
         if (feedList == null || feedList.isEmpty()) {
             Log.d(TAG, "saveFeedList: empty list, clear cache");
             clear();
             return;
         }
-        try {
-            String json = gson.toJson(feedList);
-            sharedPreferences.edit()
-                    .putString(KEY_FEED_LIST, json)
-                    .apply(); // apply 异步写盘
-            Log.d(TAG, "saveFeedList: cache saved, size=" + feedList.size());
-        } catch (Exception e) {
-            Log.e(TAG, "saveFeedList: error", e);
-        }
+        // FeedItem 不可变，拷一份列表即可
+        enqueueWrite(new Snapshot(new ArrayList<>(feedList), refreshedRows, pagingOffset));
     }
 
     /**
@@ -61,11 +71,7 @@ public class FeedCacheManager {
             return Collections.emptyList();
         }
         try {
-            Type type = new TypeToken<List<FeedItem>>() {}.getType();
-            List<FeedItem> list = gson.fromJson(json, type);
-            if (list == null) {
-                return Collections.emptyList();
-            }
+            List<FeedItem> list = codec.decode(json);
             Log.d(TAG, "loadFeedList: loaded cache, size=" + list.size());
             return list;
         } catch (Exception e) {
@@ -75,14 +81,76 @@ public class FeedCacheManager {
         }
     }
 
+    /**
+     * 缓存列表顶部刷新插入的行数；旧版本写的缓存没有这一项，按 0 处理
+     */
+    public int loadRefreshedRows() {
+        return sharedPreferences.getInt(KEY_REFRESHED_ROWS, 0);
+    }
+
+    /**
+     * 缓存列表对应的加载更多 offset；旧版本写的缓存没有这一项时返回 fallback
+     */
+    public int loadPagingOffset(int fallback) {
+        return sharedPreferences.getInt(KEY_PAGING_OFFSET, fallback);
+    }
+
     public boolean hasCache() {
         String json = sharedPreferences.getString(KEY_FEED_LIST, null);
         return json != null && !json.isEmpty();
     }
 
     public void clear() {
-        sharedPreferences.edit()
-                .remove(KEY_FEED_LIST)
-                .apply();
+        enqueueWrite(new Snapshot(Collections.emptyList(), 0, 0));
+    }
+
+    private void enqueueWrite(Snapshot snapshot) {
+        // 已经有写盘任务在排队时只替换内容，不再多排一个
+        if (pendingWrite.getAndSet(snapshot) == null) {
+            persistQueue.execute(this::writePending);
+        }
+    }
+
+    // ===== CACHE_PERSIST 通道 =====
+
+    private void writePending() {
+        Snapshot snapshot = pendingWrite.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+        List<FeedItem> feedList = snapshot.items;
+        if (feedList.isEmpty()) {
+            sharedPreferences.edit()
+                    .remove(KEY_FEED_LIST)
+                    .remove(KEY_FEED_LIST_V1)
+                    .remove(KEY_REFRESHED_ROWS)
+                    .remove(KEY_PAGING_OFFSET)
+                    .commit(); // 已经在后台线程，直接同步写盘
+            return;
+        }
+        try {
+            String json = codec.encode(feedList);
+            sharedPreferences.edit()
+                    .putString(KEY_FEED_LIST, json)
+                    .putInt(KEY_REFRESHED_ROWS, snapshot.refreshedRows)
+                    .putInt(KEY_PAGING_OFFSET, snapshot.pagingOffset)
+                    .remove(KEY_FEED_LIST_V1)
+                    .commit();
+            Log.d(TAG, "saveFeedList: cache saved, size=" + feedList.size());
+        } catch (Exception e) {
+            Log.e(TAG, "saveFeedList: error", e);
+        }
+    }
+
+    private static final class Snapshot {
+        final List<FeedItem> items;
+        final int refreshedRows;
+        final int pagingOffset;
+
+        Snapshot(List<FeedItem> items, int refreshedRows, int pagingOffset) {
+            this.items = items;
+            this.refreshedRows = refreshedRows;
+            this.pagingOffset = pagingOffset;
+        }
     }
 }
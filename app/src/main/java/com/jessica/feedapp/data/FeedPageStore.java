@@ -0,0 +1,194 @@
+package com.jessica.feedapp.data;
+
+import com.jessica.feedapp.work.CancellationToken;
+import com.jessica.feedapp.work.FeedWorkScheduler;
+import com.jessica.feedapp.work.WorkLane;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * FeedStore 被回收文本页的磁盘换出区（进程内临时文件，不做持久缓存）：
+ * - 每页一个文件：g{generation}_p{page}.bin，内容是页文本块的原始 char
+ * - 写盘在 PREFETCH 通道串行执行；还没写完的页留在 pending 里，读的时候直接返回内存里的那份。
+ *   不走 CACHE_PERSIST：换出主要发生在快速滑动时，而拖动 / fling 期间 WorkGovernor 会暂停 CACHE_PERSIST，
+ *   写任务排着不执行，pending 里的文本块就一直释放不掉
+ * - 读盘走 VISIBLE_FETCH 通道（马上要滑进屏幕的内容），结果通过 callbackExecutor（通常是主线程）回调
+ * - 同一 generation 的页内容不会变，已经写过的页再次回收时不重复写
+ * - 写盘失败（磁盘满等）时把文本块和异常通过 WriteCallback 交回调用方，由它放回内存、记录原因，之后再重试换出
+ * 构造时清掉上次进程留下的文件；release 时删掉全部文件。
+ */
+public class FeedPageStore {
+
+    /**
+     * 读取结果，在 callbackExecutor 上回调；text 为 null 表示读取失败
+     */
+    public interface Callback {
+        void onPageLoaded(int generation, int page, char[] text);
+    }
+
+    /**
+     * 写盘失败，在 callbackExecutor 上回调；text 是 write 时交进来的那份文本块
+     */
+    public interface WriteCallback {
+        void onPageWriteFailed(int generation, int page, char[] text, IOException error);
+    }
+
+    private final File dir;
+    private final FeedWorkScheduler scheduler;
+    private final Executor callbackExecutor;
+    private final FeedWorkScheduler.SerialQueue writeQueue;
+    // 只用于读：release 后不再回调
+    private final CancellationToken readToken = new CancellationToken();
+
+    // 已提交但还没落盘的页
+    private final Map<Long, char[]> pending = new ConcurrentHashMap<>();
+    // 已经落盘的页
+    private final Set<Long> saved = ConcurrentHashMap.newKeySet();
+
+    public FeedPageStore(File dir, FeedWorkScheduler scheduler, Executor callbackExecutor) {
+        this.dir = dir;
+        this.scheduler = scheduler;
+        this.callbackExecutor = callbackExecutor;
+        this.writeQueue = scheduler.newSerialQueue(WorkLane.PREFETCH, null);
+        writeQueue.execute(() -> deleteFiles(null));
+    }
+
+    /**
+     * 换出一页（异步写盘）；text 交给这里之后调用方不能再修改
+     *
+     * @param callback 写盘失败时回调，调用方应把 text 放回内存
+     */
+    public void write(int generation, int page, char[] text, WriteCallback callback) {
+        long key = key(generation, page);
+        if (saved.contains(key) || pending.putIfAbsent(key, text) != null) {
+            return;
+        }
+        writeQueue.execute(() -> {
+            File file = fileOf(generation, page);
+            try {
+                writeFile(file, text);
+                saved.add(key);
+            } catch (IOException e) {
+                // 写了一半的文件不能留着被读回去
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+                callbackExecutor.execute(() -> {
+                    if (!readToken.isCancelled()) {
+                        callback.onPageWriteFailed(generation, page, text, e);
+                    }
+                });
+            } finally {
+                pending.remove(key);
+            }
+        });
+    }
+
+    /**
+     * 换入一页（异步读盘）
+     */
+    public void read(int generation, int page, Callback callback) {
+        long key = key(generation, page);
+        char[] inMemory = pending.get(key);
+        if (inMemory != null) {
+            callbackExecutor.execute(() -> deliver(generation, page, inMemory, callback));
+            return;
+        }
+        scheduler.submit(WorkLane.VISIBLE_FETCH, readToken, () -> {
+            // 先查 pending 再读文件：写任务是落盘之后才从 pending 移除的
+            char[] text = pending.get(key);
+            if (text == null) {
+                try {
+                    text = readFile(fileOf(generation, page));
+                } catch (IOException e) {
+                    text = null;
+                }
+            }
+            char[] result = text;
+            callbackExecutor.execute(() -> deliver(generation, page, result, callback));
+        });
+    }
+
+    /**
+     * 丢弃某个 generation 的全部页（列表整体替换之后，旧内容不会再换入）
+     */
+    public void discard(int generation) {
+        long prefix = (long) generation << 32;
+        pending.keySet().removeIf(key -> (key & 0xFFFFFFFF00000000L) == prefix);
+        saved.removeIf(key -> (key & 0xFFFFFFFF00000000L) == prefix);
+        writeQueue.execute(() -> deleteFiles("g" + generation + "_"));
+    }
+
+    public void release() {
+        readToken.cancel();
+        pending.clear();
+        saved.clear();
+        writeQueue.execute(() -> deleteFiles(null));
+    }
+
+    // ===== 后台线程 =====
+
+    private void deliver(int generation, int page, char[] text, Callback callback) {
+        if (!readToken.isCancelled()) {
+            callback.onPageLoaded(generation, page, text);
+        }
+    }
+
+    private File fileOf(int generation, int page) {
+        return new File(dir, "g" + generation + "_p" + page + ".bin");
+    }
+
+    private static long key(int generation, int page) {
+        return ((long) generation << 32) | (page & 0xFFFFFFFFL);
+    }
+
+    private void writeFile(File file, char[] text) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("cannot create " + dir);
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(text.length);
+            for (char c : text) {
+                out.writeChar(c);
+            }
+        }
+    }
+
+    private static char[] readFile(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            char[] text = new char[in.readInt()];
+            for (int i = 0; i < text.length; i++) {
+                text[i] = in.readChar();
+            }
+            return text;
+        }
+    }
+
+    /**
+     * @param prefix 只删文件名以它开头的文件；null 表示全部删除
+     */
+    private void deleteFiles(String prefix) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (prefix == null || file.getName().startsWith(prefix)) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.jessica.feedapp.data;
+
+import android.os.SystemClock;
+
+import com.jessica.feedapp.model.FeedStore;
+
+import java.io.IOException;
+import java.util.BitSet;
+
+/**
+ * FeedStore 的滑动窗口：只有可见区域前后 keepPages * PAGE_ROWS 行用到的文本页留在内存里，
+ * 其余的页换出到 FeedPageStore，滑回窗口范围内时再异步换入。
+ * 窗口按行号计算、再映射到这些行所在的页，所以插到顶部的行（合并刷新）和原来的页混在一起也没关系。
+ * - 被回收的页只丢文本块，行数、cardType、span 都不变，滚动位置和网格布局不受影响
+ * - 换入在页进入窗口（离屏幕还有 keepPages 页）时就开始，正常滑动时看不到空文本占位；
+ *   快速跳转（比如回到顶部）时会先绑定空文本，换入完成后通过 Listener 刷新对应行
+ * - 列表整体替换（store.clear）后旧 generation 的换出页全部作废
+ * - 写盘失败的页放回内存（不会变成读不回来的空文本），EVICT_RETRY_DELAY_MS 内不再换出任何页，之后窗口移动时重试；
+ *   最近一次失败的原因见 dumpStats
+ * 这样内存里的文本页数最多是 2 * keepPages + 可见页数，和总共刷了多少无关；
+ * 但 FeedStore 每行的固定列（约 33 字节）不会换出，总内存仍随行数线性增长，实测数字见 FeedStore。
+ *
+ * 只在主线程使用。
+ */
+public class FeedPageWindow {
+
+    /**
+     * 换入完成，[start, start + count) 行的文本恢复了，需要重新绑定
+     */
+    public interface Listener {
+        void onRowsRestored(int start, int count);
+    }
+
+    /**
+     * 换出重试计时用的时钟（毫秒，单调递增）；默认 SystemClock.uptimeMillis，本地单测里换成假时钟
+     */
+    public interface Clock {
+        long uptimeMillis();
+    }
+
+    private final FeedStore store;
+    private final FeedPageStore pageStore;
+    private final int keepPages;  // 可见区域前后各保留的行数 = keepPages * PAGE_ROWS
+    private final Clock clock;
+    // 写盘失败后暂停换出的时长（磁盘满时不要每次滑动都重写一遍）
+    private static final long EVICT_RETRY_DELAY_MS = 10_000L;
+
+    private final FeedPageStore.Callback onPageLoaded = this::onPageLoaded;
+    private final FeedPageStore.WriteCallback onPageWriteFailed = this::onPageWriteFailed;
+
+    private Listener listener;
+    private int generation;
+    // 已经发出读盘请求、还没回来的页
+    private final BitSet loading = new BitSet();
+    // 窗口内的行用到的页
+    private final BitSet windowPages = new BitSet();
+    // 窗口行范围 [windowStart, windowEnd]，以及计算时 store 的 modCount（增删改之后要重新算）
+    private int windowStart = -1;
+    private int windowEnd = -1;
+    private int windowModCount = -1;
+    // 在这个时间（clock.uptimeMillis）之前不换出
+    private long evictAllowedAtMs;
+    // 最近一次写盘失败的原因，dumpStats 用
+    private String lastWriteError;
+
+    // ===== 统计 =====
+    private int evictedCount;
+    private int restoredCount;
+    private int missedCount;
+    private int writeFailedCount;
+
+    public FeedPageWindow(FeedStore store, FeedPageStore pageStore, int keepPages) {
+        this(store, pageStore, keepPages, SystemClock::uptimeMillis);
+    }
+
+    public FeedPageWindow(FeedStore store, FeedPageStore pageStore, int keepPages, Clock clock) {
+        this.store = store;
+        this.pageStore = pageStore;
+        this.keepPages = keepPages;
+        this.clock = clock;
+        this.generation = store.getGeneration();
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 可见区域变化时调用（滑动、列表插入 / 替换后）；窗口行范围和 store 内容都没变时直接返回
+     */
+    public void onViewportChanged(int firstVisible, int lastVisible) {
+        syncGeneration();
+        int size = store.size();
+        if (size == 0 || firstVisible < 0 || lastVisible < firstVisible) {
+            return;
+        }
+        int margin = keepPages * FeedStore.PAGE_ROWS;
+        int start = Math.max(0, firstVisible - margin);
+        int end = Math.min(size - 1, lastVisible + margin);
+        if (start == windowStart && end == windowEnd && store.getModCount() == windowModCount) {
+            return;
+        }
+        windowStart = start;
+        windowEnd = end;
+        windowModCount = store.getModCount();
+        windowPages.clear();
+        for (int position = start; position <= end; position++) {
+            windowPages.set(store.getPageOf(position));
+        }
+
+        // 窗口外在内存里的页换出（最后一页还在追加，store 会拒绝回收）
+        if (clock.uptimeMillis() >= evictAllowedAtMs) {
+            for (int page = store.nextResidentPage(0); page >= 0; page = store.nextResidentPage(page + 1)) {
+                if (windowPages.get(page)) {
+                    continue;
+                }
+                char[] text = store.evictPage(page);
+                if (text != null) {
+                    pageStore.write(generation, page, text, onPageWriteFailed);
+                    evictedCount++;
+                }
+            }
+        }
+        // 窗口内不在内存里的页换入
+        for (int page = windowPages.nextSetBit(0); page >= 0; page = windowPages.nextSetBit(page + 1)) {
+            if (!store.isPageResident(page) && !loading.get(page)) {
+                loading.set(page);
+                pageStore.read(generation, page, onPageLoaded);
+            }
+        }
+    }
+
+    /**
+     * 换出 / 换入次数、当前在内存里的页数
+     */
+    public String dumpStats() {
+        return "pages=" + store.getPageCount()
+                + " resident=" + store.getResidentPageCount()
+                + " evicted=" + evictedCount
+                + " restored=" + restoredCount
+                + " missed=" + missedCount
+                + " writeFailed=" + writeFailedCount
+                + (lastWriteError != null ? " lastWriteError=" + lastWriteError : "");
+    }
+
+    private void onPageLoaded(int loadedGeneration, int page, char[] text) {
+        if (loadedGeneration != generation || loadedGeneration != store.getGeneration()) {
+            return;
+        }
+        loading.clear(page);
+        if (text == null) {
+            // 读不回来的页保持空文本占位，窗口范围变化时会再试
+            missedCount++;
+            return;
+        }
+        if (!windowPages.get(page)) {
+            // 读回来之前已经滑出窗口，不再放回（磁盘上那份还在）
+            return;
+        }
+        if (store.restorePage(page, text)) {
+            restoredCount++;
+            notifyRestored(page);
+        }
+    }
+
+    private void onPageWriteFailed(int failedGeneration, int page, char[] text, IOException error) {
+        if (failedGeneration != generation || failedGeneration != store.getGeneration()) {
+            return;
+        }
+        writeFailedCount++;
+        lastWriteError = error.toString();
+        evictAllowedAtMs = clock.uptimeMillis() + EVICT_RETRY_DELAY_MS;
+        // 换出后还没人读过这一页时它仍是空文本占位，放回去；已经从 pending 读回来的不用再放
+        loading.clear(page);
+        if (store.restorePage(page, text)) {
+            notifyRestored(page);
+        }
+        // 窗口没动时 onViewportChanged 会直接返回，清掉缓存的范围，下次调用重新计算并重试换出
+        windowModCount = -1;
+    }
+
+    /**
+     * 只通知窗口内用到这一页的行（窗口外的行之后绑定时自然读到恢复的文本）
+     */
+    private void notifyRestored(int page) {
+        if (listener == null || windowStart < 0) {
+            return;
+        }
+        // 窗口算完之后行可能又变了（插入 / 删除 / 替换），按当前的行重新找
+        int end = Math.min(windowEnd, store.size() - 1);
+        int first = -1;
+        int last = -1;
+        for (int position = windowStart; position <= end; position++) {
+            if (store.getPageOf(position) == page) {
+                if (first < 0) {
+                    first = position;
+                }
+                last = position;
+            }
+        }
+        if (first >= 0) {
+            listener.onRowsRestored(first, last - first + 1);
+        }
+    }
+
+    private void syncGeneration() {
+        int current = store.getGeneration();
+        if (current == generation) {
+            return;
+        }
+        pageStore.discard(generation);
+        generation = current;
+        loading.clear();
+        windowPages.clear();
+        windowStart = -1;
+        windowEnd = -1;
+        windowModCount = -1;
+    }
+}
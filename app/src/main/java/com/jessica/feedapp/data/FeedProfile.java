@@ -0,0 +1,323 @@
+package com.jessica.feedapp.data;
+
+import com.jessica.feedapp.model.FeedItem;
+
+/**
+ * 模拟数据的配置（不可变）：SyntheticFeedGenerator 造什么样的卡片、FeedRepository 模拟什么样的网络。
+ * - 随机种子：同一个 profile 生成的 feed、网络延迟和失败序列完全一样，压测 / 长时间滑动测试可复现
+ * - 卡片类型、单双列、标题 / 正文长度、图片 / 视频尺寸和时长的分布
+ * - 首屏 / 加载更多的分页大小
+ * - 网络延迟（基础 + 抖动 + 慢请求长尾）和各接口的失败率
+ *
+ * 几个预设：demo（App 里用，和原来的写死逻辑一致）、benchmark（零延迟、不失败）、soak（接近线上的数据分布）；
+ * 需要微调时用 Builder 从预设改起。
+ */
+public final class FeedProfile {
+
+    public static final long DEFAULT_SEED = 20240601L;
+
+    private static final String DEMO_VIDEO_URL =
+            "https://test-videos.co.uk/vids/bigbuckbunny/mp4/h264/360/Big_Buck_Bunny_360_10s_10MB.mp4";
+
+    // ===== 数据分布 =====
+    final long seed;
+    final int[] cardTypeWeights;    // 下标是 FeedItem.CARD_TYPE_xxx
+    final float[] doubleSpanRates;  // 各卡片类型占两列的概率
+    final int titleMinLength;
+    final int titleMaxLength;
+    final int contentMinLength;
+    final int contentMaxLength;
+    final int[][] imageSizes;       // {宽, 高}
+    final int[] imageSizeWeights;
+    final String videoUrl;
+    final int[][] videoSizes;
+    final int[] videoSizeWeights;
+    final long videoMinDurationMs;
+    final long videoMaxDurationMs;
+
+    // ===== 分页 =====
+    final int initialPageSize;
+    final int loadMorePageSize;
+
+    // ===== 网络 =====
+    final long baseLatencyMs;
+    final long latencyJitterMs;     // 在 [0, jitter] 里均匀分布
+    final float slowRequestRate;    // 慢请求比例
+    final long slowLatencyMs;       // 慢请求额外延迟
+    final float initialFailureRate;
+    final float refreshFailureRate;
+    final float loadMoreFailureRate;
+
+    private FeedProfile(Builder b) {
+        this.seed = b.seed;
+        this.cardTypeWeights = b.cardTypeWeights.clone();
+        this.doubleSpanRates = b.doubleSpanRates.clone();
+        this.titleMinLength = b.titleMinLength;
+        this.titleMaxLength = b.titleMaxLength;
+        this.contentMinLength = b.contentMinLength;
+        this.contentMaxLength = b.contentMaxLength;
+        this.imageSizes = b.imageSizes.clone();
+        this.imageSizeWeights = b.imageSizeWeights.clone();
+        this.videoUrl = b.videoUrl;
+        this.videoSizes = b.videoSizes.clone();
+        this.videoSizeWeights = b.videoSizeWeights.clone();
+        this.videoMinDurationMs = b.videoMinDurationMs;
+        this.videoMaxDurationMs = b.videoMaxDurationMs;
+        this.initialPageSize = b.initialPageSize;
+        this.loadMorePageSize = b.loadMorePageSize;
+        this.baseLatencyMs = b.baseLatencyMs;
+        this.latencyJitterMs = b.latencyJitterMs;
+        this.slowRequestRate = b.slowRequestRate;
+        this.slowLatencyMs = b.slowLatencyMs;
+        this.initialFailureRate = b.initialFailureRate;
+        this.refreshFailureRate = b.refreshFailureRate;
+        this.loadMoreFailureRate = b.loadMoreFailureRate;
+    }
+
+    /**
+     * App 里的演示数据：文本 / 图文 / 视频 = 4 : 4 : 2，视频整行，其余一半双列；
+     * 固定 800ms 延迟，首屏失败率 15%，刷新 / 加载更多 40%（方便看到错误态和重试）
+     */
+    public static FeedProfile demo() {
+        return new Builder().build();
+    }
+
+    /**
+     * 基准测试用：数据分布同 demo，没有延迟、不失败
+     */
+    public static FeedProfile benchmark(long seed) {
+        return new Builder()
+                .seed(seed)
+                .latency(0L, 0L)
+                .slowRequests(0f, 0L)
+                .failureRates(0f, 0f, 0f)
+                .build();
+    }
+
+    /**
+     * 长时间滑动 / 压测用，接近线上的分布：图文为主、文本长短差异大、竖版视频、
+     * 200~500ms 延迟加 5% 的 3 秒慢请求、2% 失败
+     */
+    public static FeedProfile soak(long seed) {
+        return new Builder()
+                .seed(seed)
+                .cardTypeWeights(30, 50, 20)
+                .doubleSpanRates(0.3f, 0.4f, 1f)
+                .titleLength(6, 40)
+                .contentLength(10, 240)
+                .imageSizes(new int[][]{{1080, 1440}, {1080, 1080}, {1280, 720}, {800, 600}},
+                        new int[]{4, 3, 2, 1})
+                .videoSizes(new int[][]{{720, 1280}, {1280, 720}, {640, 360}},
+                        new int[]{5, 3, 2})
+                .videoDuration(5_000L, 60_000L)
+                .latency(200L, 300L)
+                .slowRequests(0.05f, 3_000L)
+                .failureRates(0.02f, 0.02f, 0.02f)
+                .build();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getInitialPageSize() {
+        return initialPageSize;
+    }
+
+    public int getLoadMorePageSize() {
+        return loadMorePageSize;
+    }
+
+    /**
+     * 从已有 profile 改起
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    public static final class Builder {
+        private long seed = DEFAULT_SEED;
+        private int[] cardTypeWeights = {40, 40, 20};
+        private float[] doubleSpanRates = {0.5f, 0.5f, 1f};
+        private int titleMinLength = 4;
+        private int titleMaxLength = 12;
+        private int contentMinLength = 20;
+        private int contentMaxLength = 40;
+        private int[][] imageSizes = {{800, 600}, {1280, 720}, {720, 720}, {600, 800}};
+        private int[] imageSizeWeights = {1, 1, 1, 1};
+        private String videoUrl = DEMO_VIDEO_URL;
+        private int[][] videoSizes = {{640, 360}};
+        private int[] videoSizeWeights = {1};
+        private long videoMinDurationMs = 10_000L;
+        private long videoMaxDurationMs = 10_000L;
+        private int initialPageSize = 20;
+        private int loadMorePageSize = 10;
+        private long baseLatencyMs = 800L;
+        private long latencyJitterMs = 0L;
+        private float slowRequestRate = 0f;
+        private long slowLatencyMs = 0L;
+        private float initialFailureRate = 0.15f;
+        private float refreshFailureRate = 0.4f;
+        private float loadMoreFailureRate = 0.4f;
+
+        public Builder() {
+        }
+
+        private Builder(FeedProfile p) {
+            seed = p.seed;
+            cardTypeWeights = p.cardTypeWeights.clone();
+            doubleSpanRates = p.doubleSpanRates.clone();
+            titleMinLength = p.titleMinLength;
+            titleMaxLength = p.titleMaxLength;
+            contentMinLength = p.contentMinLength;
+            contentMaxLength = p.contentMaxLength;
+            imageSizes = p.imageSizes.clone();
+            imageSizeWeights = p.imageSizeWeights.clone();
+            videoUrl = p.videoUrl;
+            videoSizes = p.videoSizes.clone();
+            videoSizeWeights = p.videoSizeWeights.clone();
+            videoMinDurationMs = p.videoMinDurationMs;
+            videoMaxDurationMs = p.videoMaxDurationMs;
+            initialPageSize = p.initialPageSize;
+            loadMorePageSize = p.loadMorePageSize;
+            baseLatencyMs = p.baseLatencyMs;
+            latencyJitterMs = p.latencyJitterMs;
+            slowRequestRate = p.slowRequestRate;
+            slowLatencyMs = p.slowLatencyMs;
+            initialFailureRate = p.initialFailureRate;
+            refreshFailureRate = p.refreshFailureRate;
+            loadMoreFailureRate = p.loadMoreFailureRate;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /** 文本 / 图文 / 视频的相对权重 */
+        public Builder cardTypeWeights(int text, int imageText, int video) {
+            this.cardTypeWeights = new int[]{text, imageText, video};
+            return this;
+        }
+
+        /** 文本 / 图文 / 视频卡片占两列的概率 */
+        public Builder doubleSpanRates(float text, float imageText, float video) {
+            this.doubleSpanRates = new float[]{text, imageText, video};
+            return this;
+        }
+
+        /** 标题字数范围（含 “标题 id” 前缀，均匀分布） */
+        public Builder titleLength(int min, int max) {
+            this.titleMinLength = min;
+            this.titleMaxLength = max;
+            return this;
+        }
+
+        /** 正文字数范围（均匀分布） */
+        public Builder contentLength(int min, int max) {
+            this.contentMinLength = min;
+            this.contentMaxLength = max;
+            return this;
+        }
+
+        public Builder imageSizes(int[][] sizes, int[] weights) {
+            this.imageSizes = sizes.clone();
+            this.imageSizeWeights = weights.clone();
+            return this;
+        }
+
+        public Builder videoUrl(String url) {
+            this.videoUrl = url;
+            return this;
+        }
+
+        public Builder videoSizes(int[][] sizes, int[] weights) {
+            this.videoSizes = sizes.clone();
+            this.videoSizeWeights = weights.clone();
+            return this;
+        }
+
+        public Builder videoDuration(long minMs, long maxMs) {
+            this.videoMinDurationMs = minMs;
+            this.videoMaxDurationMs = maxMs;
+            return this;
+        }
+
+        public Builder pageSizes(int initial, int loadMore) {
+            this.initialPageSize = initial;
+            this.loadMorePageSize = loadMore;
+            return this;
+        }
+
+        /** 每个请求的延迟 = base + [0, jitter] 均匀抖动 */
+        public Builder latency(long baseMs, long jitterMs) {
+            this.baseLatencyMs = baseMs;
+            this.latencyJitterMs = jitterMs;
+            return this;
+        }
+
+        /** rate 比例的请求再额外慢 extraMs */
+        public Builder slowRequests(float rate, long extraMs) {
+            this.slowRequestRate = rate;
+            this.slowLatencyMs = extraMs;
+            return this;
+        }
+
+        public Builder failureRates(float initial, float refresh, float loadMore) {
+            this.initialFailureRate = initial;
+            this.refreshFailureRate = refresh;
+            this.loadMoreFailureRate = loadMore;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException 配置不合法（权重全为 0、范围颠倒、尺寸和权重个数不一致等）
+         */
+        public FeedProfile build() {
+            if (cardTypeWeights.length != FeedItem.CARD_TYPE_VIDEO + 1
+                    || doubleSpanRates.length != cardTypeWeights.length) {
+                throw new IllegalArgumentException("need one weight / span rate per card type");
+            }
+            requirePositiveTotal(cardTypeWeights, "cardTypeWeights");
+            requireSizes(imageSizes, imageSizeWeights, "image");
+            requireSizes(videoSizes, videoSizeWeights, "video");
+            if (titleMinLength < 0 || titleMaxLength < titleMinLength
+                    || contentMinLength < 0 || contentMaxLength < contentMinLength
+                    || videoMinDurationMs < 0 || videoMaxDurationMs < videoMinDurationMs) {
+                throw new IllegalArgumentException("invalid length / duration range");
+            }
+            if (initialPageSize <= 0 || loadMorePageSize <= 0) {
+                throw new IllegalArgumentException("page sizes must be positive");
+            }
+            if (baseLatencyMs < 0 || latencyJitterMs < 0 || slowLatencyMs < 0) {
+                throw new IllegalArgumentException("latency must not be negative");
+            }
+            return new FeedProfile(this);
+        }
+
+        private static void requirePositiveTotal(int[] weights, String name) {
+            long total = 0;
+            for (int weight : weights) {
+                if (weight < 0) {
+                    throw new IllegalArgumentException(name + " must not be negative");
+                }
+                total += weight;
+            }
+            if (total == 0) {
+                throw new IllegalArgumentException(name + " must not be all zero");
+            }
+        }
+
+        private static void requireSizes(int[][] sizes, int[] weights, String name) {
+            if (sizes.length == 0 || sizes.length != weights.length) {
+                throw new IllegalArgumentException(name + " sizes and weights must match");
+            }
+            for (int[] size : sizes) {
+                if (size.length != 2 || size[0] <= 0 || size[1] <= 0) {
+                    throw new IllegalArgumentException(name + " size must be {width, height} > 0");
+                }
+            }
+            requirePositiveTotal(weights, name + "SizeWeights");
+        }
+    }
+}
@@ -1,77 +1,323 @@
 package com.jessica.feedapp.data;
 
+import com.jessica.feedapp.model.FeedDelta;
 import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.work.CancellationToken;
+import com.jessica.feedapp.work.FeedWorkScheduler;
+import com.jessica.feedapp.work.WorkLane;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 模拟服务端的 Feed 数据仓库
- * - 生成不同类型、不同列宽的卡片
+ * - 卡片由 SyntheticFeedGenerator 按 FeedProfile 生成（类型 / 列宽 / 文本长度 / 媒体尺寸的分布、分页大小）
  * 当前所有“来自服务器”的列表数据，都从这里产生。
  * UI 层只知道调用 loadInitial/refresh/loadMore，并不知道数据是本地造的。
+ * 异步接口（xxxAsync）模拟网络请求：在 FeedWorkScheduler 上延时执行，按 profile 的延迟和失败率出错，
+ * 结果通过 callbackExecutor（通常是主线程）回调；token 取消后不再回调。
+ * 同一个 profile（seed）下，数据、每个请求的延迟 / 成败、服务端的变化序列都可复现。
+ *
+ * 下拉刷新走增量协议（refreshSince）：客户端带上次拿到的 cursor，服务端只返回这之后的
+ * 新增 / 更新 / 删除（FeedDelta），载荷大小只和实际变化有关。这里用一份变更日志模拟服务端：
+ * 每次刷新先随机产生几条变化（新卡片、编辑、删除），再把 cursor 之后的日志折叠成一个 delta；
+ * 游标为空或已经过期（日志被截断）时退化成首页快照。
  */
 public class FeedRepository {
 
-    private final Random random = new Random();
+    /**
+     * 异步请求结果，在 callbackExecutor 上回调
+     */
+    public interface Callback {
+        void onSuccess(List<FeedItem> items);
 
-    // 首屏数据
+        void onError();
+    }
+
+    /**
+     * 增量刷新结果，在 callbackExecutor 上回调
+     */
+    public interface DeltaCallback {
+        void onSuccess(FeedDelta delta);
+
+        void onError();
+    }
+
+    private interface Request<T> {
+        T load();
+    }
+
+    private interface Delivery<T> {
+        void deliver(T result);
+    }
+
+    /** 服务端变更日志里的一条 */
+    private static final class ChangeEvent {
+        static final int INSERT = 0;
+        static final int UPDATE = 1;
+        static final int DELETE = 2;
+
+        final long version;
+        final int type;
+        final long id;
+        final FeedItem item; // DELETE 时为 null
+
+        ChangeEvent(long version, int type, long id, FeedItem item) {
+            this.version = version;
+            this.type = type;
+            this.id = id;
+            this.item = item;
+        }
+    }
+
+    // ===== 模拟服务端的增量刷新 =====
+    private static final String CURSOR_PREFIX = "v";
+    private static final int HEAD_SIZE = 20;              // 快照返回的首页条数
+    private static final int MAX_CHANGE_LOG = 500;        // 日志只保留最近这么多条，更早的游标视为过期
+    private static final int MAX_NEW_PER_REFRESH = 3;     // 每次刷新最多新出现几条
+    private static final float UPDATE_RATE = 0.5f;        // 每次刷新有一条被编辑的概率
+    private static final float DELETE_RATE = 0.3f;        // 每次刷新有一条被删除的概率
+    private static final int NEW_ITEM_ID_BASE = 1_000_000; // 刷新出来的新卡片 id 从这里开始，不和分页 id 冲突
+
+    private final FeedProfile profile;
+    private final SyntheticFeedGenerator generator;
+    // 模拟服务端变化用，在 serverLock 里使用
+    private final Random random;
+    // 请求序号，决定每个请求的延迟 / 成败
+    private final AtomicLong requestCount = new AtomicLong();
+    private final FeedWorkScheduler scheduler;
+    private final Executor callbackExecutor;
+
+    // 服务端状态：首页上的卡片（最新的在前）+ 变更日志，worker 线程上读写，用 serverLock 保护
+    private final Object serverLock = new Object();
+    private final List<FeedItem> serverHead = new ArrayList<>();
+    private final List<ChangeEvent> changeLog = new ArrayList<>();
+    private long serverVersion;
+    private int nextNewItemId = NEW_ITEM_ID_BASE;
+
+    /**
+     * 只用同步接口时（比如 benchmarks）
+     */
+    public FeedRepository() {
+        this(FeedProfile.demo(), null, null);
+    }
+
+    public FeedRepository(FeedWorkScheduler scheduler, Executor callbackExecutor) {
+        this(FeedProfile.demo(), scheduler, callbackExecutor);
+    }
+
+    public FeedRepository(FeedProfile profile, FeedWorkScheduler scheduler, Executor callbackExecutor) {
+        this.profile = profile;
+        this.generator = new SyntheticFeedGenerator(profile);
+        this.random = new Random(profile.getSeed());
+        this.scheduler = scheduler;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    public SyntheticFeedGenerator getGenerator() {
+        return generator;
+    }
+
+    // 首屏数据（同时作为服务端首页的初始内容）
     public List<FeedItem> loadInitial() {
-        return generateItems(0, 20);
+        List<FeedItem> items = generateItems(0, profile.getInitialPageSize());
+        synchronized (serverLock) {
+            if (serverHead.isEmpty()) {
+                serverHead.addAll(items);
+            }
+        }
+        return items;
     }
 
-    // 下拉刷新数据
-    public List<FeedItem> refresh() {
-        return generateItems(1000, 20);
+    /**
+     * 下拉刷新：cursor 之后的变化
+     *
+     * @param cursor 上次 FeedDelta.getCursor()；没有时传 null（返回首页快照）
+     */
+    public FeedDelta refreshSince(String cursor) {
+        synchronized (serverLock) {
+            simulateServerChanges();
+            long since = parseCursor(cursor);
+            long oldestKnown = changeLog.isEmpty() ? serverVersion : changeLog.get(0).version - 1;
+            if (since < oldestKnown || since > serverVersion) {
+                List<FeedItem> head = new ArrayList<>(
+                        serverHead.subList(0, Math.min(HEAD_SIZE, serverHead.size())));
+                return new FeedDelta(cursorOf(serverVersion), true, head, null, null);
+            }
+            return collapseChangesSince(since);
+        }
     }
 
-    // 加载更多，从 offset 开始往后造 10 条
+    // 加载更多，从 offset 开始往后造一页
     public List<FeedItem> loadMore(int offset) {
-        return generateItems(offset, 10);
-    }
-
-    // 真正造数据 + 决定卡片类型/列宽
-    private List<FeedItem> generateItems(int startId, int count) {
-        List<FeedItem> list = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            long id = startId + i;
-
-            // 每 5 条来一条视频卡片，其余保持原来的文本/图文逻辑
-            int cardType;
-            if (i % 5 == 0) {
-                cardType = FeedItem.CARD_TYPE_VIDEO; // 视频卡片
-            } else if (i % 2 == 0) { // 每隔一条切换卡片类型：0 文本卡，1 图文卡
-                cardType = FeedItem.CARD_TYPE_TEXT;
-            } else {
-                cardType = FeedItem.CARD_TYPE_IMAGE_TEXT;
-            }
+        return generateItems(offset, profile.getLoadMorePageSize());
+    }
+
+    // ===== 异步接口：首屏 / 刷新是可见内容，加载更多是提前预取 =====
+
+    public void loadInitialAsync(CancellationToken token, Callback callback) {
+        fetchAsync(WorkLane.VISIBLE_FETCH, profile.initialFailureRate, this::loadInitial, token,
+                callback::onSuccess, callback::onError);
+    }
+
+    public void refreshSinceAsync(String cursor, CancellationToken token, DeltaCallback callback) {
+        fetchAsync(WorkLane.VISIBLE_FETCH, profile.refreshFailureRate, () -> refreshSince(cursor), token,
+                callback::onSuccess, callback::onError);
+    }
+
+    public void loadMoreAsync(int offset, CancellationToken token, Callback callback) {
+        fetchAsync(WorkLane.PREFETCH, profile.loadMoreFailureRate, () -> loadMore(offset), token,
+                callback::onSuccess, callback::onError);
+    }
 
-            // 视频卡片强制占两列，其余随机
-            int span;
-            if (cardType == FeedItem.CARD_TYPE_VIDEO) {
-                span = FeedItem.SPAN_DOUBLE;
-            } else {
-                // // 随机单列 / 双列
-                span = random.nextBoolean()
-                        ? FeedItem.SPAN_SINGLE
-                        : FeedItem.SPAN_DOUBLE;
+    private <T> void fetchAsync(WorkLane lane,
+                                float failureRate,
+                                Request<T> request,
+                                CancellationToken token,
+                                Delivery<T> onSuccess,
+                                Runnable onError) {
+        if (scheduler == null) {
+            throw new IllegalStateException("FeedRepository created without a scheduler");
+        }
+        // 延迟和成败在发请求时按序号定下来，和 worker 的调度顺序无关
+        long requestIndex = requestCount.getAndIncrement();
+        boolean fails = generator.requestFails(requestIndex, failureRate);
+        long latencyMs = generator.requestLatencyMs(requestIndex);
+        // 延时计时不占 worker，到点后才在对应通道里造数据
+        scheduler.schedule(lane, token, () -> {
+            T result = fails ? null : request.load();
+            callbackExecutor.execute(() -> {
+                if (token != null && token.isCancelled()) {
+                    return;
+                }
+                if (result != null) {
+                    onSuccess.deliver(result);
+                } else {
+                    onError.run();
+                }
+            });
+        }, latencyMs);
+    }
+
+    // ===== 模拟服务端：产生变化、折叠日志（调用方持有 serverLock） =====
+
+    private void simulateServerChanges() {
+        int newCount = random.nextInt(MAX_NEW_PER_REFRESH + 1);
+        if (newCount > 0) {
+            List<FeedItem> fresh = generateItems(nextNewItemId, newCount);
+            nextNewItemId += newCount;
+            // 从下往上插，fresh.get(0) 最后插入、排在最前面
+            for (int i = newCount - 1; i >= 0; i--) {
+                FeedItem item = fresh.get(i);
+                serverHead.add(0, item);
+                appendChange(ChangeEvent.INSERT, item.getId(), item);
             }
+        }
+        if (!serverHead.isEmpty() && random.nextFloat() < UPDATE_RATE) {
+            int index = random.nextInt(serverHead.size());
+            FeedItem edited = withEditedTitle(serverHead.get(index), serverVersion + 1);
+            serverHead.set(index, edited);
+            appendChange(ChangeEvent.UPDATE, edited.getId(), edited);
+        }
+        if (!serverHead.isEmpty() && random.nextFloat() < DELETE_RATE) {
+            FeedItem removed = serverHead.remove(random.nextInt(serverHead.size()));
+            appendChange(ChangeEvent.DELETE, removed.getId(), null);
+        }
+        // 首页只保留有限条，掉出首页的卡片不算删除
+        while (serverHead.size() > HEAD_SIZE * 2) {
+            serverHead.remove(serverHead.size() - 1);
+        }
+    }
 
-            String title = "标题 " + id;
-            String content = "这里是内容摘要（id=" + id + "），用于展示多行文本效果。";
+    private void appendChange(int type, long id, FeedItem item) {
+        serverVersion++;
+        changeLog.add(new ChangeEvent(serverVersion, type, id, item));
+        if (changeLog.size() > MAX_CHANGE_LOG) {
+            changeLog.subList(0, changeLog.size() - MAX_CHANGE_LOG).clear();
+        }
+    }
 
-            String imageUrl;
-            if (cardType == FeedItem.CARD_TYPE_VIDEO) {
-                // 使用一个公开的小视频作为 Demo
-                imageUrl = "https://test-videos.co.uk/vids/bigbuckbunny/mp4/h264/360/Big_Buck_Bunny_360_10s_10MB.mp4";
-            } else {
-                imageUrl = "";
+    /**
+     * 把 since 之后的日志折叠成 delta：同一个 id 只保留最终状态
+     * （插入后又删掉的不下发，插入后被编辑的直接下发编辑后的内容）
+     */
+    private FeedDelta collapseChangesSince(long since) {
+        Map<Long, FeedItem> inserted = new LinkedHashMap<>();
+        Map<Long, FeedItem> updated = new LinkedHashMap<>();
+        Set<Long> deleted = new LinkedHashSet<>();
+        for (int i = 0, n = changeLog.size(); i < n; i++) {
+            ChangeEvent event = changeLog.get(i);
+            if (event.version <= since) {
+                continue;
             }
+            switch (event.type) {
+                case ChangeEvent.INSERT:
+                    inserted.put(event.id, event.item);
+                    break;
+                case ChangeEvent.UPDATE:
+                    if (inserted.containsKey(event.id)) {
+                        inserted.put(event.id, event.item);
+                    } else {
+                        updated.put(event.id, event.item);
+                    }
+                    break;
+                case ChangeEvent.DELETE:
+                default:
+                    if (inserted.remove(event.id) == null) {
+                        updated.remove(event.id);
+                        deleted.add(event.id);
+                    }
+                    break;
+            }
+        }
+        // 日志里是插入顺序（越晚越靠上），下发时最新的在前
+        List<FeedItem> insertedTopFirst = new ArrayList<>(inserted.values());
+        Collections.reverse(insertedTopFirst);
+        long[] deletedIds = new long[deleted.size()];
+        int index = 0;
+        for (Long id : deleted) {
+            deletedIds[index++] = id;
+        }
+        return new FeedDelta(cursorOf(serverVersion), false,
+                insertedTopFirst, new ArrayList<>(updated.values()), deletedIds);
+    }
+
+    private static FeedItem withEditedTitle(FeedItem item, long version) {
+        String title = item.getTitle();
+        int suffix = title.indexOf('（');
+        String base = suffix >= 0 ? title.substring(0, suffix) : title;
+        return new FeedItem(item.getId(), base + "（已更新 v" + version + "）", item.getContent(),
+                item.getMedia(), item.getCardType(), item.getSpanSize());
+    }
 
-            list.add(new FeedItem(id, title, content, imageUrl, cardType, span));
+    private static String cursorOf(long version) {
+        return CURSOR_PREFIX + version;
+    }
 
+    /**
+     * @return 游标对应的版本；无法识别时返回 -1
+     */
+    private static long parseCursor(String cursor) {
+        if (cursor == null || !cursor.startsWith(CURSOR_PREFIX)) {
+            return -1L;
         }
-        return list;
+        try {
+            return Long.parseLong(cursor.substring(CURSOR_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    // 真正造数据（包内可见，供 benchmarks 模块直接压测）
+    List<FeedItem> generateItems(int startId, int count) {
+        return generator.page(startId, count);
     }
 }
@@ -0,0 +1,230 @@
+package com.jessica.feedapp.data;
+
+import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.model.MediaInfo;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 按 FeedProfile 造卡片的确定性生成器：第 id 条卡片只由 (seed, id) 决定。
+ * - 每条卡片用 seed 和 id 混合出自己的随机流，不依赖前面生成过什么，
+ *   所以可以随机访问任意一条、任意一页，同一个 seed 每次造出来的完全一样
+ * - 不缓存任何卡片：asList(100_000) 只是一个按需生成的视图，滑动 / 压测跑多久内存都不涨
+ * - 网络延迟和失败也按请求序号从同一个 seed 推出来，整条请求序列可复现
+ *
+ * 线程安全（没有可变状态）。
+ */
+public final class SyntheticFeedGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    // 同一个 seed 下，卡片和网络请求用不同的随机流
+    private static final long NETWORK_SALT = 0x5DEECE66DL;
+
+    private static final String TITLE_PREFIX = "标题 ";
+    // 正文按目标长度从这段话里循环截取
+    private static final String FILLER =
+            "用于展示多行文本效果。列表里文字长短不一，绑定和测量的开销也跟着变化；"
+                    + "这段话会被循环截取，拼出指定长度的正文，方便复现长文本卡片。";
+
+    private final FeedProfile profile;
+    // 各权重分布的前缀和，pick 时线性查找（只有几档）
+    private final int[] cardTypeCumulative;
+    private final int[] imageSizeCumulative;
+    private final int[] videoSizeCumulative;
+
+    public SyntheticFeedGenerator(FeedProfile profile) {
+        this.profile = profile;
+        this.cardTypeCumulative = cumulative(profile.cardTypeWeights);
+        this.imageSizeCumulative = cumulative(profile.imageSizeWeights);
+        this.videoSizeCumulative = cumulative(profile.videoSizeWeights);
+    }
+
+    public FeedProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * 第 id 条卡片（同一个 seed 和 id 永远得到内容相同的卡片）
+     */
+    public FeedItem itemAt(long id) {
+        Stream random = new Stream(profile.seed ^ mix(id));
+        int cardType = pick(cardTypeCumulative, random);
+        int span = random.nextFloat() < profile.doubleSpanRates[cardType]
+                ? FeedItem.SPAN_DOUBLE
+                : FeedItem.SPAN_SINGLE;
+        String title = buildTitle(id, random);
+        String content = buildContent(id, random);
+
+        // 媒体描述带上像素宽高，卡片绑定时就能按比例占位
+        MediaInfo media;
+        if (cardType == FeedItem.CARD_TYPE_VIDEO) {
+            int[] size = profile.videoSizes[pick(videoSizeCumulative, random)];
+            long duration = profile.videoMinDurationMs
+                    + random.nextLong(profile.videoMaxDurationMs - profile.videoMinDurationMs + 1);
+            media = MediaInfo.video(profile.videoUrl, size[0], size[1], duration);
+        } else if (cardType == FeedItem.CARD_TYPE_IMAGE_TEXT) {
+            int[] size = profile.imageSizes[pick(imageSizeCumulative, random)];
+            media = MediaInfo.image(
+                    "https://picsum.photos/seed/" + id + "/" + size[0] + "/" + size[1],
+                    size[0], size[1]);
+        } else {
+            media = null;
+        }
+        return new FeedItem(id, title, content, media, cardType, span);
+    }
+
+    /**
+     * [startId, startId + count) 这一页
+     */
+    public List<FeedItem> page(long startId, int count) {
+        List<FeedItem> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(itemAt(startId + i));
+        }
+        return list;
+    }
+
+    /**
+     * 前 size 条卡片的只读视图，get(i) 时才生成第 i 条，不占内存（每次 get 都是新对象）
+     */
+    public List<FeedItem> asList(int size) {
+        return new LazyFeedList(this, size);
+    }
+
+    // ===== 模拟网络：第 requestIndex 个请求的延迟 / 是否失败 =====
+
+    long requestLatencyMs(long requestIndex) {
+        Stream random = networkStream(requestIndex);
+        long latency = profile.baseLatencyMs;
+        if (profile.latencyJitterMs > 0) {
+            latency += random.nextLong(profile.latencyJitterMs + 1);
+        }
+        if (random.nextFloat() < profile.slowRequestRate) {
+            latency += profile.slowLatencyMs;
+        }
+        return latency;
+    }
+
+    boolean requestFails(long requestIndex, float failureRate) {
+        // 和延迟用同一个流的不同位置，避免两者相关
+        Stream random = networkStream(requestIndex);
+        random.nextLong();
+        random.nextLong();
+        return random.nextFloat() < failureRate;
+    }
+
+    private Stream networkStream(long requestIndex) {
+        return new Stream((profile.seed + NETWORK_SALT) ^ mix(requestIndex));
+    }
+
+    private String buildTitle(long id, Stream random) {
+        int target = rangeValue(profile.titleMinLength, profile.titleMaxLength, random);
+        StringBuilder sb = new StringBuilder(Math.max(target, 16)).append(TITLE_PREFIX).append(id);
+        // 标题至少保留 “标题 id”，方便对照
+        appendFiller(sb, target, random);
+        return sb.toString();
+    }
+
+    private String buildContent(long id, Stream random) {
+        int target = rangeValue(profile.contentMinLength, profile.contentMaxLength, random);
+        StringBuilder sb = new StringBuilder(Math.max(target, 24))
+                .append("这里是内容摘要（id=").append(id).append("），");
+        appendFiller(sb, target, random);
+        return sb.toString();
+    }
+
+    private static void appendFiller(StringBuilder sb, int target, Stream random) {
+        int offset = random.nextInt(FILLER.length());
+        while (sb.length() < target) {
+            int n = Math.min(target - sb.length(), FILLER.length() - offset);
+            sb.append(FILLER, offset, offset + n);
+            offset = 0;
+        }
+    }
+
+    private static int rangeValue(int min, int max, Stream random) {
+        return min + random.nextInt(max - min + 1);
+    }
+
+    private static int pick(int[] cumulative, Stream random) {
+        int r = random.nextInt(cumulative[cumulative.length - 1]);
+        int i = 0;
+        while (r >= cumulative[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int[] cumulative(int[] weights) {
+        int[] result = new int[weights.length];
+        int sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            result[i] = sum;
+        }
+        return result;
+    }
+
+    /** SplitMix64 的输出混合函数 */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 一条卡片 / 一个请求内部用的小随机流（SplitMix64；minSdk 23 没有 SplittableRandom）
+     */
+    private static final class Stream {
+        private long state;
+
+        Stream(long seed) {
+            this.state = seed;
+        }
+
+        long nextLong() {
+            state += GOLDEN_GAMMA;
+            return mix(state);
+        }
+
+        /** [0, bound)，bound > 0 */
+        long nextLong(long bound) {
+            return (nextLong() >>> 1) % bound;
+        }
+
+        int nextInt(int bound) {
+            return (int) nextLong(bound);
+        }
+
+        /** [0, 1) */
+        float nextFloat() {
+            return (nextLong() >>> 40) * 0x1.0p-24f;
+        }
+    }
+
+    private static final class LazyFeedList extends AbstractList<FeedItem> implements RandomAccess {
+        private final SyntheticFeedGenerator generator;
+        private final int size;
+
+        LazyFeedList(SyntheticFeedGenerator generator, int size) {
+            this.generator = generator;
+            this.size = size;
+        }
+
+        @Override
+        public FeedItem get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("index=" + index + " size=" + size);
+            }
+            return generator.itemAt(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
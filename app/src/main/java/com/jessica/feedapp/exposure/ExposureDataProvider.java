@@ -3,7 +3,26 @@ package com.jessica.feedapp.exposure;
 /**
  * 曝光数据提供接口
  * - 用 position 换取 item 的唯一 id
+ * - 批量接口：一次调用取一段连续 position 的 id，曝光计算每轮只需调用一次
  */
 public interface ExposureDataProvider {
     long getItemIdForPosition(int position); //把 RecyclerView 的 position 映射成一个唯一的 itemId（通常就是 FeedItem.id）
+
+    /**
+     * 批量取 [fromPosition, toPosition] 闭区间内的 itemId，out[i] 对应 fromPosition + i，
+     * 没有 id 的位置（footer / 越界）填 -1。默认实现逐个调用 getItemIdForPosition，数据源可以覆盖成一次遍历。
+     *
+     * @param out 调用方提供的数组，长度至少为 toPosition - fromPosition + 1
+     * @return 填充的个数；区间为空时返回 0
+     */
+    default int getItemIdsForRange(int fromPosition, int toPosition, long[] out) {
+        int count = toPosition - fromPosition + 1;
+        if (count <= 0) {
+            return 0;
+        }
+        for (int i = 0; i < count; i++) {
+            out[i] = getItemIdForPosition(fromPosition + i);
+        }
+        return count;
+    }
 }
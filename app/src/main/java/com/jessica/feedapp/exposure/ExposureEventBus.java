@@ -0,0 +1,356 @@
+package com.jessica.feedapp.exposure;
+
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 曝光事件总线：ExposureTracker 只认一个 ExposureListener，由总线负责分发给多个订阅者
+ * - MAIN：在主线程同步回调（和曝光计算在同一帧），适合自动播放、视频暂停这类必须立刻生效的逻辑，
+ *   回调里只能做很轻的事
+ * - BACKGROUND：事件先进订阅者自己的有界队列，由后台线程异步投递，慢订阅者不会占用帧时间
+ *   队列满时按 OverflowPolicy 丢弃 / 合并，并统计丢弃数、合并数和投递延迟；
+ *   投递线程在第一个 BACKGROUND 订阅者出现时才创建，只有主线程订阅者时不起线程
+ *
+ * subscribe / unsubscribe / onExposureEvent 只能在主线程调用。
+ */
+public class ExposureEventBus implements ExposureTracker.ExposureListener {
+
+    private static final String TAG = "ExposureEventBus";
+
+    private static final ExposureEventType[] TYPES = ExposureEventType.values();
+
+    public enum Delivery {
+        MAIN,
+        BACKGROUND
+    }
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,   // 队列满时丢掉最旧的事件
+        DROP_NEWEST,   // 队列满时丢掉新来的事件
+        COALESCE       // 同一个 item 还没投递的事件直接被新事件覆盖（只关心最新状态）；满了再丢最旧的
+    }
+
+    private final List<Subscription> mainSubscribers = new ArrayList<>();
+    private final List<Subscription> backgroundSubscribers = new ArrayList<>();
+    private final int dispatchThreads;
+    // 后台订阅者共用的投递线程，第一次 BACKGROUND 订阅时创建（只在主线程读写）；同一订阅者的事件始终串行、按序投递
+    private ExecutorService dispatcher;
+    private boolean released = false;
+
+    public ExposureEventBus() {
+        this(1);
+    }
+
+    public ExposureEventBus(int dispatchThreads) {
+        this.dispatchThreads = Math.max(1, dispatchThreads);
+    }
+
+    /**
+     * 主线程同步订阅
+     */
+    @NonNull
+    public Subscription subscribeMain(@NonNull String name,
+                                      @NonNull ExposureTracker.ExposureListener listener) {
+        return subscribe(name, listener, Delivery.MAIN, 0, OverflowPolicy.DROP_NEWEST);
+    }
+
+    /**
+     * @param queueCapacity 仅对 BACKGROUND 有效：队列最多缓存的事件数
+     * @param policy        仅对 BACKGROUND 有效：队列满时的处理方式
+     */
+    @NonNull
+    public Subscription subscribe(@NonNull String name,
+                                  @NonNull ExposureTracker.ExposureListener listener,
+                                  @NonNull Delivery delivery,
+                                  int queueCapacity,
+                                  @NonNull OverflowPolicy policy) {
+        assertMainThread();
+        Subscription s = new Subscription(this, name, listener, delivery,
+                delivery == Delivery.BACKGROUND ? Math.max(1, queueCapacity) : 0, policy);
+        if (delivery == Delivery.MAIN) {
+            mainSubscribers.add(s);
+        } else {
+            ensureDispatcher();
+            backgroundSubscribers.add(s);
+        }
+        return s;
+    }
+
+    public void unsubscribe(@NonNull Subscription subscription) {
+        assertMainThread();
+        subscription.active = false;
+        mainSubscribers.remove(subscription);
+        backgroundSubscribers.remove(subscription);
+    }
+
+    @Override
+    public void onExposureEvent(long itemId, ExposureEventType eventType, float visibleRatio) {
+        // 先把事件交给后台订阅者（只是入队），再执行主线程订阅者
+        for (int i = 0; i < backgroundSubscribers.size(); i++) {
+            backgroundSubscribers.get(i).offer(itemId, eventType, visibleRatio);
+        }
+        for (int i = 0; i < mainSubscribers.size(); i++) {
+            mainSubscribers.get(i).deliverInline(itemId, eventType, visibleRatio);
+        }
+    }
+
+    /**
+     * 所有订阅者的统计，调试用
+     */
+    @NonNull
+    public String dumpStats() {
+        StringBuilder sb = new StringBuilder();
+        for (Subscription s : mainSubscribers) {
+            s.appendStats(sb);
+        }
+        for (Subscription s : backgroundSubscribers) {
+            s.appendStats(sb);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 停止后台投递；尚未投递的事件直接丢弃
+     */
+    public void release() {
+        for (Subscription s : backgroundSubscribers) {
+            s.active = false;
+        }
+        mainSubscribers.clear();
+        backgroundSubscribers.clear();
+        released = true;
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+        }
+    }
+
+    private void ensureDispatcher() {
+        if (dispatcher != null || released) {
+            return;
+        }
+        dispatcher = Executors.newFixedThreadPool(dispatchThreads, r -> {
+            Thread t = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                r.run();
+            }, "exposure-bus");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static void assertMainThread() {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            throw new IllegalStateException("ExposureEventBus must be used on the main thread");
+        }
+    }
+
+    /**
+     * 一个订阅者：BACKGROUND 订阅者自带一个列式环形队列（不为每个事件分配对象）
+     */
+    public static final class Subscription {
+
+        private final ExposureEventBus bus;
+        private final String name;
+        private final ExposureTracker.ExposureListener listener;
+        private final Delivery delivery;
+        private final OverflowPolicy policy;
+        private final Runnable drainTask = this::drain;
+
+        // ===== 环形队列，受 this 锁保护 =====
+        private final long[] itemIds;
+        private final byte[] types;
+        private final float[] ratios;
+        private final long[] enqueueNanos;
+        private int head;
+        private int size;
+        private boolean drainScheduled;
+
+        volatile boolean active = true;
+
+        // ===== 统计 =====
+        private volatile long deliveredCount;
+        private volatile long droppedCount;
+        private volatile long coalescedCount;
+        private volatile int maxQueueDepth;
+        private volatile long lastLagNanos;
+        private volatile long maxLagNanos;
+
+        Subscription(ExposureEventBus bus,
+                     String name,
+                     ExposureTracker.ExposureListener listener,
+                     Delivery delivery,
+                     int capacity,
+                     OverflowPolicy policy) {
+            this.bus = bus;
+            this.name = name;
+            this.listener = listener;
+            this.delivery = delivery;
+            this.policy = policy;
+            this.itemIds = new long[capacity];
+            this.types = new byte[capacity];
+            this.ratios = new float[capacity];
+            this.enqueueNanos = new long[capacity];
+        }
+
+        @NonNull
+        public String getName() {
+            return name;
+        }
+
+        @NonNull
+        public Delivery getDelivery() {
+            return delivery;
+        }
+
+        public synchronized int getQueueDepth() {
+            return size;
+        }
+
+        public int getMaxQueueDepth() {
+            return maxQueueDepth;
+        }
+
+        public long getDeliveredCount() {
+            return deliveredCount;
+        }
+
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+
+        public long getCoalescedCount() {
+            return coalescedCount;
+        }
+
+        /** 最近一次投递的延迟（入队到回调开始），MAIN 订阅者恒为 0 */
+        public long getLastLagMs() {
+            return lastLagNanos / 1_000_000L;
+        }
+
+        public long getMaxLagMs() {
+            return maxLagNanos / 1_000_000L;
+        }
+
+        void deliverInline(long itemId, ExposureEventType eventType, float visibleRatio) {
+            try {
+                listener.onExposureEvent(itemId, eventType, visibleRatio);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "subscriber " + name + " failed", e);
+            }
+            deliveredCount++;
+        }
+
+        /**
+         * 主线程：入队，必要时提交一次投递任务
+         */
+        void offer(long itemId, ExposureEventType eventType, float visibleRatio) {
+            boolean schedule;
+            synchronized (this) {
+                int capacity = itemIds.length;
+                long now = SystemClock.elapsedRealtimeNanos();
+                if (policy == OverflowPolicy.COALESCE && coalesce(itemId, eventType, visibleRatio)) {
+                    return;
+                }
+                if (size == capacity) {
+                    droppedCount++;
+                    if (policy == OverflowPolicy.DROP_NEWEST) {
+                        return;
+                    }
+                    // DROP_OLDEST / COALESCE：丢掉队头
+                    head = (head + 1) % capacity;
+                    size--;
+                }
+                int index = (head + size) % capacity;
+                itemIds[index] = itemId;
+                types[index] = (byte) eventType.ordinal();
+                ratios[index] = visibleRatio;
+                enqueueNanos[index] = now;
+                size++;
+                if (size > maxQueueDepth) {
+                    maxQueueDepth = size;
+                }
+                schedule = !drainScheduled;
+                drainScheduled = true;
+            }
+            // offer 在主线程，读 bus.dispatcher 不用加锁；release 之后为 null 或已关闭
+            ExecutorService dispatcher = bus.dispatcher;
+            if (schedule && dispatcher != null && !dispatcher.isShutdown()) {
+                dispatcher.execute(drainTask);
+            }
+        }
+
+        /**
+         * 队列里已有同一 item 的事件时原地覆盖（保留原入队时间，延迟统计不被低估）
+         */
+        private boolean coalesce(long itemId, ExposureEventType eventType, float visibleRatio) {
+            int capacity = itemIds.length;
+            for (int i = 0; i < size; i++) {
+                int index = (head + i) % capacity;
+                if (itemIds[index] == itemId) {
+                    types[index] = (byte) eventType.ordinal();
+                    ratios[index] = visibleRatio;
+                    coalescedCount++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 后台线程：逐条取出并投递，直到队列为空
+         */
+        private void drain() {
+            while (active) {
+                long itemId;
+                byte type;
+                float ratio;
+                long enqueuedAt;
+                synchronized (this) {
+                    if (size == 0) {
+                        drainScheduled = false;
+                        return;
+                    }
+                    itemId = itemIds[head];
+                    type = types[head];
+                    ratio = ratios[head];
+                    enqueuedAt = enqueueNanos[head];
+                    head = (head + 1) % itemIds.length;
+                    size--;
+                }
+                long lag = SystemClock.elapsedRealtimeNanos() - enqueuedAt;
+                lastLagNanos = lag;
+                if (lag > maxLagNanos) {
+                    maxLagNanos = lag;
+                }
+                try {
+                    listener.onExposureEvent(itemId, TYPES[type], ratio);
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "subscriber " + name + " failed", e);
+                }
+                deliveredCount++;
+            }
+        }
+
+        void appendStats(StringBuilder sb) {
+            sb.append(name).append('[').append(delivery).append("] delivered=").append(deliveredCount);
+            if (delivery == Delivery.BACKGROUND) {
+                sb.append(" depth=").append(getQueueDepth()).append('/').append(itemIds.length)
+                        .append(" maxDepth=").append(maxQueueDepth)
+                        .append(" dropped=").append(droppedCount)
+                        .append(" coalesced=").append(coalescedCount)
+                        .append(" lagMs=").append(getLastLagMs())
+                        .append(" maxLagMs=").append(getMaxLagMs());
+            }
+            sb.append('\n');
+        }
+    }
+}
@@ -8,5 +8,7 @@ public enum ExposureEventType {
     ENTER,          // 卡片露出
     OVER_HALF,      // 卡片露出超过 50%
     FULL_VISIBLE,   // 卡片完整露出
-    DISAPPEAR       // 卡片消失
+    DISAPPEAR,      // 卡片消失
+    VIEWABLE,       // 可见曝光：连续 >= 50% 露出满 1 秒（每次露出最多一次）
+    DWELL           // 停留时长：卡片消失时结算本次露出的时长（只通过 DwellListener / 上报管道出现）
 }
@@ -0,0 +1,60 @@
+package com.jessica.feedapp.exposure;
+
+/**
+ * 曝光状态机（纯 Java，不依赖 Android，方便在 JVM 上做基准测试）：
+ * - 可见比例 -> ExposureState
+ * - prevState -> nowState 时要触发哪些事件，用 ExposureEventType.ordinal 位掩码表示，不分配对象
+ *   按 ordinal 从低到高依次触发即为正确顺序（ENTER -> OVER_HALF -> FULL_VISIBLE / DISAPPEAR）
+ */
+final class ExposureStateMachine {
+
+    static final int EVENT_ENTER = 1 << ExposureEventType.ENTER.ordinal();
+    static final int EVENT_OVER_HALF = 1 << ExposureEventType.OVER_HALF.ordinal();
+    static final int EVENT_FULL_VISIBLE = 1 << ExposureEventType.FULL_VISIBLE.ordinal();
+    static final int EVENT_DISAPPEAR = 1 << ExposureEventType.DISAPPEAR.ordinal();
+
+    private ExposureStateMachine() {
+    }
+
+    static ExposureState stateForRatio(float visibleRatio) {
+        if (visibleRatio <= 0f) {
+            return ExposureState.NONE;
+        } else if (visibleRatio >= 0.99f) {
+            return ExposureState.FULL;
+        } else if (visibleRatio >= 0.5f) {
+            return ExposureState.HALF;
+        } else {
+            return ExposureState.ENTER;
+        }
+    }
+
+    /**
+     * @return 需要触发的事件位掩码（bit = ExposureEventType.ordinal），0 表示不触发
+     */
+    static int transitionEvents(ExposureState prevState, ExposureState nowState) {
+        int events = 0;
+
+        // 1）NONE -> 非 NONE：卡片露出
+        if (prevState == ExposureState.NONE && nowState != ExposureState.NONE) {
+            events |= EVENT_ENTER;
+        }
+
+        // 2）第一次达到 HALF 或以上：露出超过 50%
+        if (prevState.ordinal() < ExposureState.HALF.ordinal()
+                && nowState.ordinal() >= ExposureState.HALF.ordinal()) {
+            events |= EVENT_OVER_HALF;
+        }
+
+        // 3）第一次达到 FULL：卡片完整露出
+        if (prevState.ordinal() < ExposureState.FULL.ordinal()
+                && nowState == ExposureState.FULL) {
+            events |= EVENT_FULL_VISIBLE;
+        }
+
+        // 4）从非 NONE -> NONE：卡片消失（本轮遍历中，如果可见高度变成 0）
+        if (prevState != ExposureState.NONE && nowState == ExposureState.NONE) {
+            events |= EVENT_DISAPPEAR;
+        }
+        return events;
+    }
+}
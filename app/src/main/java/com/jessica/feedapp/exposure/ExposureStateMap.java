@@ -0,0 +1,247 @@
+package com.jessica.feedapp.exposure;
+
+import java.util.Arrays;
+
+/**
+ * ExposureTracker 内部使用的 itemId -> 曝光状态 映射：
+ * - 开放寻址（线性探测），key 为原始 long，value 为 byte 状态，不装箱
+ * - 每个槽位带一个 stamp（第几轮遍历时见过它），代替每轮新建的 seen 集合
+ * - 删除使用 backward-shift，不留墓碑，表里只保留当前视口附近的 item
+ * - 额外两列时间戳（帧时间，纳秒）：本次露出的开始时间、连续 >=50% 的开始时间，外加一列标记位
+ *
+ * 只在主线程使用，非线程安全。
+ */
+final class ExposureStateMap {
+
+    // itemId 小于 0 视为无效 id，不会进表，所以可以用 Long.MIN_VALUE 当空槽
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private byte[] states;
+    private int[] stamps;
+    private long[] enterNanos;
+    private long[] halfNanos;
+    private byte[] flags;
+    private int mask;
+    private int size;
+
+    ExposureStateMap(int expectedSize) {
+        int capacity = tableSizeFor(Math.max(4, expectedSize) * 2);
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    boolean isUsedAt(int slot) {
+        return keys[slot] != EMPTY;
+    }
+
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    byte stateAt(int slot) {
+        return states[slot];
+    }
+
+    int stampAt(int slot) {
+        return stamps[slot];
+    }
+
+    void setAt(int slot, byte state, int stamp) {
+        states[slot] = state;
+        stamps[slot] = stamp;
+    }
+
+    long enterNanosAt(int slot) {
+        return enterNanos[slot];
+    }
+
+    void setEnterNanosAt(int slot, long nanos) {
+        enterNanos[slot] = nanos;
+    }
+
+    long halfNanosAt(int slot) {
+        return halfNanos[slot];
+    }
+
+    void setHalfNanosAt(int slot, long nanos) {
+        halfNanos[slot] = nanos;
+    }
+
+    byte flagsAt(int slot) {
+        return flags[slot];
+    }
+
+    void setFlagsAt(int slot, byte value) {
+        flags[slot] = value;
+    }
+
+    /**
+     * 只读查找 key 所在槽位，不存在返回 -1
+     */
+    int find(long key) {
+        return indexOf(key);
+    }
+
+    /**
+     * 找到 key 所在槽位；不存在则以 defaultState 插入。
+     * 可能触发扩容（仅在可见 item 数超过历史峰值时发生），返回的槽位在下一次插入前有效。
+     */
+    int slotFor(long key, byte defaultState) {
+        int slot = indexOf(key);
+        if (slot >= 0) {
+            return slot;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        slot = insertSlot(key);
+        keys[slot] = key;
+        states[slot] = defaultState;
+        stamps[slot] = 0;
+        enterNanos[slot] = -1L;
+        halfNanos[slot] = -1L;
+        flags[slot] = 0;
+        size++;
+        return slot;
+    }
+
+    /**
+     * 删除槽位上的元素，后续探测链上的元素会前移补洞。
+     * 调用方如果在按槽位遍历，删除后需要重新检查同一个槽位。
+     */
+    void removeAt(int slot) {
+        int hole = slot;
+        int i = (slot + 1) & mask;
+        while (keys[i] != EMPTY) {
+            int home = hash(keys[i]) & mask;
+            // home 不在 (hole, i] 区间内，说明它可以前移到 hole
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                states[hole] = states[i];
+                stamps[hole] = stamps[i];
+                enterNanos[hole] = enterNanos[i];
+                halfNanos[hole] = halfNanos[i];
+                flags[hole] = flags[i];
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        states[hole] = 0;
+        stamps[hole] = 0;
+        enterNanos[hole] = -1L;
+        halfNanos[hole] = -1L;
+        flags[hole] = 0;
+        size--;
+    }
+
+    /**
+     * 所有还在计时的时间戳整体后移 deltaNanos（退到后台的时长不算进停留 / 可见计时）
+     */
+    void shiftTimes(long deltaNanos) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == EMPTY) {
+                continue;
+            }
+            if (enterNanos[i] >= 0) {
+                enterNanos[i] += deltaNanos;
+            }
+            if (halfNanos[i] >= 0) {
+                halfNanos[i] += deltaNanos;
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(states, (byte) 0);
+        Arrays.fill(stamps, 0);
+        Arrays.fill(enterNanos, -1L);
+        Arrays.fill(halfNanos, -1L);
+        Arrays.fill(flags, (byte) 0);
+        size = 0;
+    }
+
+    private int indexOf(long key) {
+        int i = hash(key) & mask;
+        while (true) {
+            long k = keys[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == EMPTY) {
+                return -1;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private int insertSlot(long key) {
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        byte[] oldStates = states;
+        int[] oldStamps = stamps;
+        long[] oldEnterNanos = enterNanos;
+        long[] oldHalfNanos = halfNanos;
+        byte[] oldFlags = flags;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = insertSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                states[slot] = oldStates[i];
+                stamps[slot] = oldStamps[i];
+                enterNanos[slot] = oldEnterNanos[i];
+                halfNanos[slot] = oldHalfNanos[i];
+                flags[slot] = oldFlags[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        states = new byte[capacity];
+        stamps = new int[capacity];
+        enterNanos = new long[capacity];
+        Arrays.fill(enterNanos, -1L);
+        halfNanos = new long[capacity];
+        Arrays.fill(halfNanos, -1L);
+        flags = new byte[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int hash(long key) {
+        // 64 位混淆（murmur3 fmix64），让连续的 itemId 均匀分布
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = 1;
+        while (capacity < n) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -1,32 +1,37 @@
 package com.jessica.feedapp.exposure;
 
-import android.util.Log;
+import android.view.Choreographer;
 import android.view.View;
+import android.view.ViewTreeObserver;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-
 /**
  * 卡片曝光跟踪器：
- * - 监听 RecyclerView 滚动
+ * - 监听 RecyclerView 滚动、全局布局、Adapter 数据变化
+ * - 每一帧最多计算一轮（Choreographer 合帧），同一帧内的多次触发只算一次
  * - 按可见高度比例计算每个 item 的曝光状态
  * - 当状态发生变化时，触发 4 种事件：
  *   - ENTER       （卡片露出）
  *   - OVER_HALF   （卡片露出超过 50%）
  *   - FULL_VISIBLE（卡片完整露出）
  *   - DISAPPEAR   （卡片消失）
+ * - 基于帧时间（Choreographer frameTimeNanos）的时长类事件：
+ *   - VIEWABLE   （连续 >= 50% 露出满 1 秒，每次露出最多一次）
+ *   - 停留时长    （卡片消失时通过 DwellListener 结算本次露出时长；按 id 累加由服务端做，客户端不留表）
+ *   等待 1 秒阈值时全局只挂一个延迟帧回调，不为每个 item 单独 post
+ *   页面不可见期间（pause ~ resume）计时暂停，退到后台的时间不算停留 / 可见时长
+ * - 每一轮计算出的可见比例也通过 VisibilityListener 透出，给自动播放等模块复用
+ * - 稳态下每帧零分配：状态存在 long -> byte 的开放寻址表里，用遍历轮次 stamp 代替 seen 集合，
+ *   离开视口的 item 会被直接移出表，内存只和视口内卡片数有关
  */
 public class ExposureTracker {
 
-    private static final String TAG = "ExposureTracker";
-
     /**
-     * 事件回调接口
+     * 事件回调接口（主线程同步回调；有多个消费者时传入 ExposureEventBus 分发）
      */
     public interface ExposureListener {
         /**
@@ -37,13 +42,115 @@ public class ExposureTracker {
         void onExposureEvent(long itemId, ExposureEventType eventType, float visibleRatio);
     }
 
+    /**
+     * 每一轮可见比例计算的原始结果回调（不经过状态机）
+     * - 一轮计算：onVisibilityPassStart -> 若干次 onItemVisibility -> onVisibilityPassEnd
+     */
+    public interface VisibilityListener {
+        void onVisibilityPassStart();
+
+        /**
+         * @param position     adapter position
+         * @param itemId       卡片唯一 id
+         * @param visibleRatio 当前这一帧的可见比例 [0,1]
+         */
+        void onItemVisibility(int position, long itemId, float visibleRatio);
+
+        void onVisibilityPassEnd();
+    }
+
+    /**
+     * 停留时长回调：卡片消失时结算本次露出（从 ENTER 到 DISAPPEAR，不含在后台的时间）的时长
+     */
+    public interface DwellListener {
+        /**
+         * @param dwellMs 本次露出的停留时长
+         */
+        void onDwell(long itemId, long dwellMs);
+    }
+
+    // 可见曝光标准：>= 50% 露出持续 1 秒
+    private static final long VIEWABLE_NANOS = 1_000_000_000L;
+    private static final byte FLAG_VIEWABLE_FIRED = 1;
+
     private final RecyclerView recyclerView;
     private final ExposureDataProvider dataProvider;
     private final ExposureListener listener;
+    @Nullable
+    private VisibilityListener visibilityListener;
+    @Nullable
+    private DwellListener dwellListener;
+
+    private static final ExposureState[] STATES = ExposureState.values();
+    private static final ExposureEventType[] EVENT_TYPES = ExposureEventType.values();
+    private static final byte STATE_NONE = (byte) ExposureState.NONE.ordinal();
 
-    // 记录每个 item 当前的曝光状态
-    private final Map<Long, ExposureState> stateMap = new HashMap<>();
+    // 记录视口内每个 item 当前的曝光状态（itemId -> ExposureState.ordinal）
+    private final ExposureStateMap stateMap = new ExposureStateMap(32);
+    // 当前是第几轮遍历，写进 stateMap 的 stamp 里，用来判断“这一轮有没有见过”
+    private int passStamp = 0;
+    // 可见区间的 itemId，每轮通过 dataProvider 批量填充一次
+    private long[] rangeIds = new long[16];
 
+    // 页面不可见（onStop）时暂停：不做计算，恢复时把计时起点整体后移
+    private boolean paused = false;
+    private long pausedAtNanos;
+
+    // ===== 合帧调度 =====
+    private final Choreographer choreographer = Choreographer.getInstance();
+    private final Choreographer.FrameCallback frameCallback = this::onFrame;
+    private boolean frameScheduled = false;
+    private long passesRun = 0;
+    private long passesCoalesced = 0;
+
+    // 可见曝光计时：只维护一个“最早到期”的延迟帧回调
+    private final Choreographer.FrameCallback deadlineCallback = this::onDeadlineFrame;
+    private boolean deadlineScheduled = false;
+    private long scheduledDeadlineNanos = Long.MAX_VALUE;
+
+    private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+            super.onScrolled(rv, dx, dy);
+            scheduleCheck();
+        }
+    };
+
+    private final ViewTreeObserver.OnGlobalLayoutListener layoutListener = this::scheduleCheck;
+
+    private final RecyclerView.AdapterDataObserver dataObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            scheduleCheck();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            scheduleCheck();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            scheduleCheck();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            scheduleCheck();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            scheduleCheck();
+        }
+    };
+
+    @Nullable
+    private RecyclerView.Adapter<?> observedAdapter;
+
+    /**
+     * 需要在 recyclerView.setAdapter 之后创建，才能监听到 Adapter 的数据变化
+     */
     public ExposureTracker(@NonNull RecyclerView recyclerView,
                            @NonNull ExposureDataProvider dataProvider,
                            @NonNull ExposureListener listener) {
@@ -51,32 +158,181 @@ public class ExposureTracker {
         this.dataProvider = dataProvider;
         this.listener = listener;
 
-        // 监听滚动
-        this.recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
-            @Override
-            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
-                super.onScrolled(rv, dx, dy);
-                checkExposure();
-            }
-        });
+        // 滚动：onScrolled 一帧内可能回调多次，统一走 scheduleCheck 合帧
+        this.recyclerView.addOnScrollListener(scrollListener);
+        // 布局：插入/删除动画、卡片尺寸变化等不滚动也会改变可见比例
+        this.recyclerView.getViewTreeObserver().addOnGlobalLayoutListener(layoutListener);
+        // 数据：Adapter 增删改
+        this.observedAdapter = recyclerView.getAdapter();
+        if (observedAdapter != null) {
+            observedAdapter.registerAdapterDataObserver(dataObserver);
+        }
 
         // 首次布局后检测一次
-        this.recyclerView.post(this::checkExposure);
+        scheduleCheck();
+    }
+
+    public void setVisibilityListener(@Nullable VisibilityListener visibilityListener) {
+        this.visibilityListener = visibilityListener;
+    }
+
+    public void setDwellListener(@Nullable DwellListener dwellListener) {
+        this.dwellListener = dwellListener;
+    }
+
+    /**
+     * 请求在下一帧重新计算一轮曝光（同一帧内多次请求只算一次）
+     */
+    public void requestCheck() {
+        scheduleCheck();
+    }
+
+    /**
+     * 页面不可见时调用（Activity.onStop）：停止计算，停留 / 可见计时冻结
+     */
+    public void pause() {
+        if (paused) {
+            return;
+        }
+        paused = true;
+        pausedAtNanos = System.nanoTime();
+        if (frameScheduled) {
+            choreographer.removeFrameCallback(frameCallback);
+            frameScheduled = false;
+        }
+        cancelDeadline();
+    }
+
+    /**
+     * 页面重新可见时调用（Activity.onStart）：跳过不可见的这段时间继续计时，并重新算一轮
+     */
+    public void resume() {
+        if (!paused) {
+            return;
+        }
+        paused = false;
+        // Choreographer 的帧时间和 System.nanoTime 是同一个时间基
+        stateMap.shiftTimes(System.nanoTime() - pausedAtNanos);
+        scheduleCheck();
+    }
+
+    /** 实际执行过的曝光计算轮数 */
+    public long getPassesRun() {
+        return passesRun;
+    }
+
+    /** 因为同一帧内已经排过而被合并掉的触发次数 */
+    public long getPassesCoalesced() {
+        return passesCoalesced;
+    }
+
+    /**
+     * Activity.onDestroy 时调用：移除所有监听，取消尚未执行的帧回调
+     */
+    public void release() {
+        recyclerView.removeOnScrollListener(scrollListener);
+        ViewTreeObserver observer = recyclerView.getViewTreeObserver();
+        if (observer.isAlive()) {
+            observer.removeOnGlobalLayoutListener(layoutListener);
+        }
+        if (observedAdapter != null) {
+            observedAdapter.unregisterAdapterDataObserver(dataObserver);
+            observedAdapter = null;
+        }
+        if (frameScheduled) {
+            choreographer.removeFrameCallback(frameCallback);
+            frameScheduled = false;
+        }
+        cancelDeadline();
+    }
+
+    private void scheduleCheck() {
+        if (paused) {
+            return; // resume 时会重新算一轮
+        }
+        if (frameScheduled) {
+            passesCoalesced++;
+            return;
+        }
+        frameScheduled = true;
+        choreographer.postFrameCallback(frameCallback);
+    }
+
+    private void onFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        passesRun++;
+        checkExposure(frameTimeNanos);
+    }
+
+    private void onDeadlineFrame(long frameTimeNanos) {
+        deadlineScheduled = false;
+        scheduledDeadlineNanos = Long.MAX_VALUE;
+        if (frameScheduled) {
+            return; // 这一帧已经有一轮计算排着，会顺带处理到期的 item
+        }
+        passesRun++;
+        checkExposure(frameTimeNanos);
+    }
+
+    private void scheduleDeadline(long deadlineNanos, long frameTimeNanos) {
+        if (deadlineScheduled && scheduledDeadlineNanos <= deadlineNanos) {
+            return;
+        }
+        cancelDeadline();
+        long delayMs = Math.max(0L, (deadlineNanos - frameTimeNanos + 999_999L) / 1_000_000L);
+        choreographer.postFrameCallbackDelayed(deadlineCallback, delayMs);
+        deadlineScheduled = true;
+        scheduledDeadlineNanos = deadlineNanos;
+    }
+
+    private void cancelDeadline() {
+        if (deadlineScheduled) {
+            choreographer.removeFrameCallback(deadlineCallback);
+            deadlineScheduled = false;
+            scheduledDeadlineNanos = Long.MAX_VALUE;
+        }
     }
 
     /**
      * 遍历当前可见区域的所有卡片，根据可见比例驱动状态机并发曝光事件
+     *
+     * @param frameTimeNanos 当前帧时间，用于可见曝光 / 停留时长计时
      */
-    private void checkExposure() {
+    private void checkExposure(long frameTimeNanos) {
         int childCount = recyclerView.getChildCount();
         int rvHeight = recyclerView.getHeight();
 
-        if (childCount == 0 || rvHeight == 0) {
+        if (rvHeight == 0) {
             return;
         }
 
-        // 标记这一次遍历中“出现过”的 itemId
-        Set<Long> seenThisPass = new HashSet<>();
+        VisibilityListener visibility = visibilityListener;
+        if (visibility != null) {
+            visibility.onVisibilityPassStart();
+        }
+
+        // 新的一轮：这一轮见过的 item 会被打上新的 stamp
+        int stamp = ++passStamp;
+        // 本轮还在等待 1 秒可见阈值的 item 中最早的到期时间
+        long nextDeadline = Long.MAX_VALUE;
+
+        // 用 LayoutManager 的首尾可见位置一次批量取出 itemId，不再每个 child 调一次 dataProvider
+        int rangeFirst = RecyclerView.NO_POSITION;
+        int rangeCount = 0;
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager instanceof LinearLayoutManager) {
+            LinearLayoutManager llm = (LinearLayoutManager) layoutManager;
+            int first = llm.findFirstVisibleItemPosition();
+            int last = llm.findLastVisibleItemPosition();
+            if (first != RecyclerView.NO_POSITION && last >= first) {
+                int n = last - first + 1;
+                if (rangeIds.length < n) {
+                    rangeIds = new long[Math.max(n, rangeIds.length * 2)];
+                }
+                rangeCount = dataProvider.getItemIdsForRange(first, last, rangeIds);
+                rangeFirst = first;
+            }
+        }
 
         // 遍历当前所有可见 child view
         for (int i = 0; i < childCount; i++) {
@@ -85,13 +341,15 @@ public class ExposureTracker {
             int position = recyclerView.getChildAdapterPosition(child);
             if (position == RecyclerView.NO_POSITION) continue;
 
-            // 调 dataProvider.getItemIdForPosition(position) 拿到 itemId
-            long itemId = dataProvider.getItemIdForPosition(position);
+            // 优先从批量结果里取 itemId；区间外的 child（比如已完全滑出但还没回收）才单独查一次
+            int offset = position - rangeFirst;
+            long itemId = (rangeFirst != RecyclerView.NO_POSITION && offset >= 0 && offset < rangeCount)
+                    ? rangeIds[offset]
+                    : dataProvider.getItemIdForPosition(position);
             // 无效 id（比如 -1）直接忽略，不算曝光
             if (itemId < 0) {
                 continue;
             }
-            seenThisPass.add(itemId);
 
             // 根据 child 在 RecyclerView 里的可见高度，算出 visibleRatio
             int childTop = child.getTop();
@@ -107,82 +365,137 @@ public class ExposureTracker {
                     ? 0f
                     : (visibleHeight * 1f / childHeight);
 
-            // ExposureState prevState = stateMap.getOrDefault(itemId, ExposureState.NONE); API24及以上才支持
-            // 用一个 stateMap<itemId, ExposureState> 做状态机
-            // 从旧状态 + 当前可见比例 → 决定要不要发事件（ENTER/OVER_HALF/FULL_VISIBLE），并更新状态
-            ExposureState prevState = stateMap.containsKey(itemId)
-                    ? stateMap.get(itemId)
-                    : ExposureState.NONE; // API23支持写法
-            ExposureState nowState;
-
-            if (visibleRatio <= 0f) {
-                nowState = ExposureState.NONE;
-            } else if (visibleRatio >= 0.99f) {
-                nowState = ExposureState.FULL;
-            } else if (visibleRatio >= 0.5f) {
-                nowState = ExposureState.HALF;
-            } else {
-                nowState = ExposureState.ENTER;
+            if (visibility != null) {
+                visibility.onItemVisibility(position, itemId, visibleRatio);
             }
 
+            // 用 stateMap<itemId, state> 做状态机
+            // 从旧状态 + 当前可见比例 → 决定要不要发事件（ENTER/OVER_HALF/FULL_VISIBLE），并更新状态
+            int slot = stateMap.slotFor(itemId, STATE_NONE);
+            ExposureState prevState = STATES[stateMap.stateAt(slot)];
+            ExposureState nowState = ExposureStateMachine.stateForRatio(visibleRatio);
+
             // 根据状态变化触发对应事件
             handleStateTransition(itemId, prevState, nowState, visibleRatio);
+            // 时长类事件：可见曝光 / 停留时长
+            long deadline = updateTiming(slot, itemId, prevState, nowState, visibleRatio, frameTimeNanos);
+            if (deadline < nextDeadline) {
+                nextDeadline = deadline;
+            }
 
-            // 记录最新状态
-            stateMap.put(itemId, nowState);
+            // 记录最新状态 + 本轮 stamp
+            stateMap.setAt(slot, (byte) nowState.ordinal(), stamp);
         }
 
-        // 对于这次没遍历到、但上一次不是 NONE 的 item，视为“消失”
-        // 避免 ConcurrentModification：先拷贝一份 key 集合
-        Set<Long> allIds = new HashSet<>(stateMap.keySet());
-        for (Long id : allIds) {
-            if (!seenThisPass.contains(id)) {
-                ExposureState prev = stateMap.get(id);
-                if (prev != null && prev != ExposureState.NONE) {
-                    fireEvent(id, ExposureEventType.DISAPPEAR, 0f); //
-                    stateMap.put(id, ExposureState.NONE);
-                }
+        // 对于这次没遍历到的 item：上一次不是 NONE 的视为“消失”，然后直接移出表
+        // removeAt 会把后面的元素前移到当前槽位，所以删除后不前进，重新检查同一个槽位
+        int slot = 0;
+        while (slot < stateMap.capacity()) {
+            if (!stateMap.isUsedAt(slot) || stateMap.stampAt(slot) == stamp) {
+                slot++;
+                continue;
             }
+            long id = stateMap.keyAt(slot);
+            byte prev = stateMap.stateAt(slot);
+            long enterNanos = stateMap.enterNanosAt(slot);
+            stateMap.removeAt(slot);
+            if (prev != STATE_NONE) {
+                fireEvent(id, ExposureEventType.DISAPPEAR, 0f);
+                fireDwell(id, enterNanos, frameTimeNanos);
+            }
+        }
+
+        if (nextDeadline != Long.MAX_VALUE) {
+            scheduleDeadline(nextDeadline, frameTimeNanos);
+        } else {
+            cancelDeadline();
+        }
+
+        if (visibility != null) {
+            visibility.onVisibilityPassEnd();
         }
     }
 
     /**
-     * 状态机：从 prevState -> nowState 时触发哪些事件
+     * 状态机：从 prevState -> nowState 时触发哪些事件（规则见 ExposureStateMachine）
      */
     private void handleStateTransition(long itemId,
                                        ExposureState prevState,
                                        ExposureState nowState,
                                        float visibleRatio) {
+        int events = ExposureStateMachine.transitionEvents(prevState, nowState);
+        // 按 ordinal 从低到高触发
+        while (events != 0) {
+            int ordinal = Integer.numberOfTrailingZeros(events);
+            fireEvent(itemId, EVENT_TYPES[ordinal], visibleRatio);
+            events &= events - 1;
+        }
+    }
+
+    /**
+     * 维护本次露出的开始时间、连续 >= 50% 的开始时间，并在满足条件时发 VIEWABLE / 结算停留时长
+     *
+     * @return 该 item 的可见曝光到期时间（帧时间纳秒）；不需要等待则返回 Long.MAX_VALUE
+     */
+    private long updateTiming(int slot,
+                              long itemId,
+                              ExposureState prevState,
+                              ExposureState nowState,
+                              float visibleRatio,
+                              long frameTimeNanos) {
+        if (nowState == ExposureState.NONE) {
+            if (prevState != ExposureState.NONE) {
+                fireDwell(itemId, stateMap.enterNanosAt(slot), frameTimeNanos);
+            }
+            stateMap.setEnterNanosAt(slot, -1L);
+            stateMap.setHalfNanosAt(slot, -1L);
+            return Long.MAX_VALUE;
+        }
 
-        // 1）NONE -> 非 NONE：卡片露出
-        if (prevState == ExposureState.NONE && nowState != ExposureState.NONE) {
-            fireEvent(itemId, ExposureEventType.ENTER, visibleRatio);
+        if (prevState == ExposureState.NONE) {
+            // 新的一次露出：重新计时，可见曝光可以再发一次
+            stateMap.setEnterNanosAt(slot, frameTimeNanos);
+            stateMap.setFlagsAt(slot, (byte) 0);
         }
 
-        // 2）第一次达到 HALF 或以上：露出超过 50%
-        if (prevState.ordinal() < ExposureState.HALF.ordinal()
-                && nowState.ordinal() >= ExposureState.HALF.ordinal()
-                && nowState != ExposureState.NONE) {
-            fireEvent(itemId, ExposureEventType.OVER_HALF, visibleRatio);
+        if (nowState.ordinal() < ExposureState.HALF.ordinal()) {
+            // 跌破 50%：连续计时中断
+            stateMap.setHalfNanosAt(slot, -1L);
+            return Long.MAX_VALUE;
         }
 
-        // 3）第一次达到 FULL：卡片完整露出
-        if (prevState.ordinal() < ExposureState.FULL.ordinal()
-                && nowState == ExposureState.FULL) {
-            fireEvent(itemId, ExposureEventType.FULL_VISIBLE, visibleRatio);
+        byte flags = stateMap.flagsAt(slot);
+        if ((flags & FLAG_VIEWABLE_FIRED) != 0) {
+            return Long.MAX_VALUE;
+        }
+        long halfSince = stateMap.halfNanosAt(slot);
+        if (halfSince < 0) {
+            halfSince = frameTimeNanos;
+            stateMap.setHalfNanosAt(slot, halfSince);
+        }
+        if (frameTimeNanos - halfSince >= VIEWABLE_NANOS) {
+            stateMap.setFlagsAt(slot, (byte) (flags | FLAG_VIEWABLE_FIRED));
+            fireEvent(itemId, ExposureEventType.VIEWABLE, visibleRatio);
+            return Long.MAX_VALUE;
         }
+        return halfSince + VIEWABLE_NANOS;
+    }
 
-        // 4）从非 NONE -> NONE：卡片消失（本轮遍历中，如果可见高度变成 0）
-        if (prevState != ExposureState.NONE && nowState == ExposureState.NONE) {
-            fireEvent(itemId, ExposureEventType.DISAPPEAR, visibleRatio);
+    private void fireDwell(long itemId, long enterNanos, long frameTimeNanos) {
+        if (enterNanos < 0) {
+            return;
+        }
+        long dwellMs = Math.max(0L, (frameTimeNanos - enterNanos) / 1_000_000L);
+        DwellListener l = dwellListener;
+        if (l != null) {
+            l.onDwell(itemId, dwellMs);
         }
     }
 
     private void fireEvent(long itemId,
                            ExposureEventType type,
                            float visibleRatio) {
-        Log.d(TAG, "itemId=" + itemId + ", event=" + type
-                + ", visibleRatio=" + visibleRatio);
+        // 每次状态变化都会走到这里，不打日志（拼字符串也是分配）；调试时看 ExposureDebugOverlay
         listener.onExposureEvent(itemId, type, visibleRatio);
     }
 }
@@ -0,0 +1,101 @@
+package com.jessica.feedapp.exposure.pipeline;
+
+import com.jessica.feedapp.exposure.ExposureEventType;
+
+/**
+ * 一批曝光事件（列式存储，可复用）：
+ * - 后台批处理线程从内存队列 drain 到这里，再写盘 / 上传
+ * - 不为每个事件创建对象
+ */
+public final class ExposureBatch {
+
+    private static final ExposureEventType[] TYPES = ExposureEventType.values();
+
+    private final long[] itemIds;
+    private final byte[] types;
+    private final float[] ratios;
+    private final long[] timestamps;
+    // 附加数值：DWELL 事件为停留时长（毫秒），其它事件为 0
+    private final long[] values;
+    // 对应 ExposureEventLog 中的记录序号，-1 表示不在日志里（比如从磁盘队列读出）
+    private final long[] logSeqs;
+    private int size;
+
+    public ExposureBatch(int capacity) {
+        itemIds = new long[capacity];
+        types = new byte[capacity];
+        ratios = new float[capacity];
+        timestamps = new long[capacity];
+        values = new long[capacity];
+        logSeqs = new long[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return itemIds.length;
+    }
+
+    public boolean isFull() {
+        return size == itemIds.length;
+    }
+
+    public long itemIdAt(int index) {
+        return itemIds[index];
+    }
+
+    public ExposureEventType typeAt(int index) {
+        return TYPES[types[index]];
+    }
+
+    byte typeOrdinalAt(int index) {
+        return types[index];
+    }
+
+    public float ratioAt(int index) {
+        return ratios[index];
+    }
+
+    /** 事件发生时间（System.currentTimeMillis） */
+    public long timestampAt(int index) {
+        return timestamps[index];
+    }
+
+    /** 附加数值：DWELL 事件为停留时长（毫秒），其它事件为 0 */
+    public long valueAt(int index) {
+        return values[index];
+    }
+
+    /** 本批中最大的日志序号，没有则返回 -1 */
+    long maxLogSeq() {
+        long max = -1L;
+        for (int i = 0; i < size; i++) {
+            if (logSeqs[i] > max) {
+                max = logSeqs[i];
+            }
+        }
+        return max;
+    }
+
+    void add(long itemId, byte type, float ratio, long timestamp, long value, long logSeq) {
+        itemIds[size] = itemId;
+        types[size] = type;
+        ratios[size] = ratio;
+        timestamps[size] = timestamp;
+        values[size] = value;
+        logSeqs[size] = logSeq;
+        size++;
+    }
+
+    /** 把 src 的第 index 条事件原样追加到本批 */
+    void addFrom(ExposureBatch src, int index) {
+        add(src.itemIds[index], src.types[index], src.ratios[index], src.timestamps[index],
+                src.values[index], src.logSeqs[index]);
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
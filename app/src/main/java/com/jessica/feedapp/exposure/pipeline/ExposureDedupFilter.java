@@ -0,0 +1,216 @@
+package com.jessica.feedapp.exposure.pipeline;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * 跨会话的“已上报过”集合（Bloom filter + 滚动时间窗口）：
+ * - 两个等大的位图：current / previous，每过 windowMs 轮换一次（previous 丢弃，current 变 previous）
+ *   查询时两个都查，所以一个 key 的去重有效期在 [windowMs, 2 * windowMs) 之间
+ * - 内存固定为 2 * bitCount / 8 字节（默认几十 KB），和上报过的 id 数量无关
+ * - 只会误判“已上报”（假阳性，概率按 expectedKeys / fpp 估算），不会漏判
+ * - 持久化为一个小文件（tmp + rename 原子替换），下次启动继续生效
+ *
+ * 只在后台批处理线程使用，非线程安全。
+ */
+final class ExposureDedupFilter {
+
+    private static final int MAGIC = 0x45584446; // "EXDF"
+    private static final int VERSION = 1;
+    // magic 4B | version 4B | bitCount 4B | hashCount 4B | currentStartMs 8B | previousStartMs 8B
+    private static final int HEADER_BYTES = 32;
+
+    private final File file;
+    private final long windowMs;
+    private final int bitCount;
+    private final int hashCount;
+
+    private long[] current;
+    private long[] previous;
+    private long currentStartMs;
+    private long previousStartMs;
+    private boolean dirty;
+
+    /**
+     * @param expectedKeys 每个窗口预计写入的 key 数
+     * @param fpp          期望的假阳性率
+     */
+    ExposureDedupFilter(File file, long windowMs, int expectedKeys, double fpp) {
+        this.file = file;
+        this.windowMs = windowMs;
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedKeys * Math.log(fpp) / (ln2 * ln2));
+        // 向上取整到 64 的倍数
+        this.bitCount = (int) Math.max(64, (bits + 63) & ~63L);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedKeys * ln2));
+        this.current = new long[bitCount >>> 6];
+        this.previous = new long[bitCount >>> 6];
+    }
+
+    /** 两个窗口合计占用的内存字节数 */
+    int sizeInBytes() {
+        return (current.length + previous.length) * 8;
+    }
+
+    /**
+     * 读取持久化文件；文件不存在、损坏或参数不一致时从空集合开始
+     */
+    void load(long nowMs) {
+        currentStartMs = nowMs;
+        previousStartMs = nowMs;
+        if (!file.exists()) {
+            return;
+        }
+        int words = bitCount >>> 6;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() != HEADER_BYTES + (long) words * 8 * 2) {
+                return;
+            }
+            ByteBuffer buf = ByteBuffer.allocate((int) raf.length());
+            FileChannel channel = raf.getChannel();
+            while (buf.hasRemaining()) {
+                if (channel.read(buf) < 0) {
+                    return;
+                }
+            }
+            buf.flip();
+            if (buf.getInt() != MAGIC
+                    || buf.getInt() != VERSION
+                    || buf.getInt() != bitCount
+                    || buf.getInt() != hashCount) {
+                return;
+            }
+            long curStart = buf.getLong();
+            long prevStart = buf.getLong();
+            for (int i = 0; i < words; i++) {
+                current[i] = buf.getLong();
+            }
+            for (int i = 0; i < words; i++) {
+                previous[i] = buf.getLong();
+            }
+            currentStartMs = curStart;
+            previousStartMs = prevStart;
+        } catch (IOException e) {
+            clear(nowMs);
+            return;
+        }
+        rollIfNeeded(nowMs);
+    }
+
+    /**
+     * 查询并记录：之前（两个窗口内）出现过返回 false，否则写入 current 并返回 true
+     */
+    boolean addIfAbsent(long key, long nowMs) {
+        rollIfNeeded(nowMs);
+        long h = mix(key);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1; // 奇数步长，避免退化
+        boolean present = true;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            if (!isSet(current, bit) && !isSet(previous, bit)) {
+                present = false;
+                break;
+            }
+        }
+        if (present) {
+            return false;
+        }
+        for (int i = 0; i < hashCount; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            current[bit >>> 6] |= 1L << bit;
+        }
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * 有改动时写回文件（tmp + rename，写一半被杀不会留下坏文件）
+     */
+    void saveIfDirty() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("mkdirs failed: " + dir);
+        }
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + sizeInBytes());
+        buf.putInt(MAGIC).putInt(VERSION).putInt(bitCount).putInt(hashCount);
+        buf.putLong(currentStartMs).putLong(previousStartMs);
+        for (long word : current) {
+            buf.putLong(word);
+        }
+        for (long word : previous) {
+            buf.putLong(word);
+        }
+        buf.flip();
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw")) {
+            raf.setLength(0);
+            FileChannel channel = raf.getChannel();
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            channel.force(false);
+        }
+        if (!tmp.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            throw new IOException("rename failed: " + tmp);
+        }
+        dirty = false;
+    }
+
+    private void rollIfNeeded(long nowMs) {
+        if (nowMs < currentStartMs) {
+            // 系统时间被往回调：无法判断窗口，保守地全部清空
+            clear(nowMs);
+            return;
+        }
+        long age = nowMs - currentStartMs;
+        if (age < windowMs) {
+            return;
+        }
+        if (age >= 2 * windowMs) {
+            // 两个窗口都过期了
+            clear(nowMs);
+            return;
+        }
+        long[] recycled = previous;
+        previous = current;
+        previousStartMs = currentStartMs;
+        Arrays.fill(recycled, 0L);
+        current = recycled;
+        currentStartMs = nowMs;
+        dirty = true;
+    }
+
+    private void clear(long nowMs) {
+        Arrays.fill(current, 0L);
+        Arrays.fill(previous, 0L);
+        currentStartMs = nowMs;
+        previousStartMs = nowMs;
+        dirty = true;
+    }
+
+    private static boolean isSet(long[] words, int bit) {
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static long mix(long key) {
+        // murmur3 fmix64
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,249 @@
+package com.jessica.feedapp.exposure.pipeline;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 曝光事件的磁盘持久化队列（进程被杀也不丢）：
+ * - data 文件：定长二进制记录顺序追加（itemId 8B + type 1B + ratio 4B + timestamp 8B + value 8B）
+ * - head 文件：已上传成功的字节偏移，上传成功后才推进
+ * - peek 出去上传的那一批按它在文件里的结束偏移确认（removePeeked），
+ *   上传期间超限丢弃或压缩挪动了记录也不会多删还没上传的记录
+ * - 全部消费完时把 data 截断为 0；离线时一直不消费，head 前面已丢弃的部分不小于剩余记录
+ *   （且超过 COMPACT_MIN_BYTES）时把剩余记录挪到文件开头再截断，文件不超过约 2 × maxBytes
+ * - 超过 maxBytes 时丢弃最旧的记录
+ *
+ * 只在后台批处理线程使用，非线程安全。
+ */
+final class ExposureDiskQueue {
+
+    static final int RECORD_BYTES = 8 + 1 + 4 + 8 + 8;
+
+    // 记录格式变化时换文件名，旧格式文件直接废弃
+    private static final String DATA_FILE = "exposure_queue_v2.bin";
+    private static final String HEAD_FILE = "exposure_queue_v2.head";
+    // head 前面的死区小于这个值时不压缩，避免每次追加都挪一遍
+    private static final long COMPACT_MIN_BYTES = 64 * 1024;
+    private static final int COMPACT_CHUNK_RECORDS = 1024;
+
+    private final File dir;
+    private final long maxBytes;
+
+    private RandomAccessFile dataFile;
+    private FileChannel dataChannel;
+    private RandomAccessFile headFile;
+    private long head;
+    // 最近一次 peek 出去的那一批的结束偏移，-1 表示没有待确认的批次
+    private long peekedEnd = -1L;
+
+    private ByteBuffer ioBuffer;
+
+    ExposureDiskQueue(File dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    boolean isOpen() {
+        return dataFile != null;
+    }
+
+    void open() throws IOException {
+        if (isOpen()) {
+            return;
+        }
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("mkdirs failed: " + dir);
+        }
+        dataFile = new RandomAccessFile(new File(dir, DATA_FILE), "rw");
+        dataChannel = dataFile.getChannel();
+        headFile = new RandomAccessFile(new File(dir, HEAD_FILE), "rw");
+
+        head = headFile.length() >= 8 ? headFile.readLong() : 0L;
+        peekedEnd = -1L;
+
+        // 进程在追加中途被杀时，末尾可能残留半条记录，截掉
+        long length = dataFile.length();
+        long valid = length - (length % RECORD_BYTES);
+        if (valid != length) {
+            dataFile.setLength(valid);
+        }
+        if (head < 0 || head > valid || head % RECORD_BYTES != 0) {
+            head = 0;
+            writeHead();
+        }
+    }
+
+    /** 尚未上传的记录数 */
+    long pendingCount() throws IOException {
+        return (dataFile.length() - head) / RECORD_BYTES;
+    }
+
+    /**
+     * 追加一批记录并 fsync（数据即可视为“已落盘”）
+     */
+    void append(ExposureBatch batch) throws IOException {
+        int n = batch.size();
+        if (n == 0) {
+            return;
+        }
+        ByteBuffer buf = buffer(n);
+        for (int i = 0; i < n; i++) {
+            buf.putLong(batch.itemIdAt(i));
+            buf.put(batch.typeOrdinalAt(i));
+            buf.putFloat(batch.ratioAt(i));
+            buf.putLong(batch.timestampAt(i));
+            buf.putLong(batch.valueAt(i));
+        }
+        buf.flip();
+        long position = dataFile.length();
+        while (buf.hasRemaining()) {
+            position += dataChannel.write(buf, position);
+        }
+        dataChannel.force(false);
+
+        // 超过上限：推进 head 丢掉最旧的记录
+        long pendingBytes = position - head;
+        if (pendingBytes > maxBytes) {
+            long overflow = pendingBytes - maxBytes;
+            long dropBytes = ((overflow + RECORD_BYTES - 1) / RECORD_BYTES) * RECORD_BYTES;
+            head += dropBytes;
+            writeHead();
+        }
+        compactIfNeeded(position);
+    }
+
+    /**
+     * 从队头读取最多 out 剩余容量条记录（不出队），并记下这一批的结束偏移，上传成功后用 removePeeked 确认
+     *
+     * @return 读到的条数
+     */
+    int peek(ExposureBatch out) throws IOException {
+        long available = (dataFile.length() - head) / RECORD_BYTES;
+        int n = (int) Math.min(available, out.capacity() - out.size());
+        if (n <= 0) {
+            return 0;
+        }
+        ByteBuffer buf = buffer(n);
+        buf.limit(n * RECORD_BYTES);
+        long position = head;
+        while (buf.hasRemaining()) {
+            int read = dataChannel.read(buf, position);
+            if (read < 0) {
+                throw new IOException("unexpected EOF, position=" + position);
+            }
+            position += read;
+        }
+        buf.flip();
+        for (int i = 0; i < n; i++) {
+            long itemId = buf.getLong();
+            byte type = buf.get();
+            float ratio = buf.getFloat();
+            long timestamp = buf.getLong();
+            long value = buf.getLong();
+            out.add(itemId, type, ratio, timestamp, value, -1L);
+        }
+        peekedEnd = head + (long) n * RECORD_BYTES;
+        return n;
+    }
+
+    /**
+     * 确认最近一次 peek 出去的那一批已上传成功：head 推进到那一批的结束偏移。
+     * 上传期间超限丢弃已经越过了它的部分不再重复推进
+     */
+    void removePeeked() throws IOException {
+        if (peekedEnd < 0) {
+            return;
+        }
+        long end = peekedEnd;
+        peekedEnd = -1L;
+        if (end <= head) {
+            return;
+        }
+        head = end;
+        if (head >= dataFile.length()) {
+            // 全部消费完：截断文件，head 归零
+            dataFile.setLength(0);
+            head = 0;
+        }
+        writeHead();
+        compactIfNeeded(dataFile.length());
+    }
+
+    void close() {
+        closeQuietly(dataFile);
+        closeQuietly(headFile);
+        dataFile = null;
+        dataChannel = null;
+        headFile = null;
+    }
+
+    /**
+     * 把 [head, length) 挪到文件开头。只在死区不小于剩余记录时做，目标区间和源区间不重叠，
+     * 顺序是 拷贝 + fsync → 截断 → head 归零：
+     * 拷贝中途被杀时 head 没动、源数据完好；截断后、写 head 前被杀时 head 超出文件长度，open() 会把它归零
+     */
+    private void compactIfNeeded(long length) throws IOException {
+        long live = length - head;
+        if (head < COMPACT_MIN_BYTES || head < live) {
+            return;
+        }
+        if (live > 0) {
+            // 分段拷贝，缓冲区不随积压量变大
+            long from = head;
+            long to = 0;
+            while (to < live) {
+                int records = (int) Math.min((live - to) / RECORD_BYTES, COMPACT_CHUNK_RECORDS);
+                ByteBuffer buf = buffer(records);
+                buf.limit(records * RECORD_BYTES);
+                while (buf.hasRemaining()) {
+                    int read = dataChannel.read(buf, from);
+                    if (read < 0) {
+                        throw new IOException("unexpected EOF, position=" + from);
+                    }
+                    from += read;
+                }
+                buf.flip();
+                while (buf.hasRemaining()) {
+                    to += dataChannel.write(buf, to);
+                }
+            }
+            dataChannel.force(false);
+        }
+        dataFile.setLength(live);
+        dataChannel.force(false);
+        if (peekedEnd >= 0) {
+            peekedEnd = Math.max(0L, peekedEnd - head);
+        }
+        head = 0;
+        writeHead();
+    }
+
+    private void writeHead() throws IOException {
+        headFile.seek(0);
+        headFile.writeLong(head);
+        headFile.getChannel().force(false);
+    }
+
+    private ByteBuffer buffer(int records) {
+        int bytes = records * RECORD_BYTES;
+        if (ioBuffer == null || ioBuffer.capacity() < bytes) {
+            ioBuffer = ByteBuffer.allocate(bytes);
+        }
+        ioBuffer.clear();
+        return ioBuffer;
+    }
+
+    private static void closeQuietly(RandomAccessFile file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            file.close();
+        } catch (IOException ignored) {
+            // 关闭失败不影响数据：已落盘的记录下次启动还能读到
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.jessica.feedapp.exposure.pipeline;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 曝光事件的崩溃安全日志（内存映射环形文件）：
+ * - 文件 = 64B 头 + capacity 条定长 40B 记录，整体 mmap 到内存
+ * - 写一条记录只是几次 buffer put，没有任何系统调用；进程崩溃后脏页仍由内核写回文件
+ * - 每条记录最后写入自己的序号作为“提交标记”，写了一半的记录在恢复时会被识别并跳过
+ * - 头部记录 writeSeq（下一个要写的序号）和 ackedSeq（已经安全写入磁盘队列的序号）
+ * - 下次启动时把 [ackedSeq, writeSeq) 之间的记录交给调用方补进磁盘队列（至少一次语义，
+ *   调用方负责和正常入队一样过去重）
+ *
+ * 线程约定：openAndRecover / ack / force 在后台批处理线程；append 只在主线程。
+ */
+final class ExposureEventLog {
+
+    /**
+     * 恢复出的记录按批交给调用方（后台批处理线程上同步调用，batch 在回调返回后会被复用）
+     */
+    interface RecoverySink {
+        void onRecovered(ExposureBatch batch) throws IOException;
+    }
+
+    private static final int MAGIC = 0x45585031; // "EXP1"
+    private static final int VERSION = 2;
+
+    private static final int HEADER_BYTES = 64;
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_CAPACITY = 8;
+    private static final int OFFSET_WRITE_SEQ = 16;
+    private static final int OFFSET_ACKED_SEQ = 24;
+
+    // 记录：seq 8B | itemId 8B | timestamp 8B | ratio 4B | type 1B | padding 3B | value 8B
+    private static final int RECORD_BYTES = 40;
+    private static final int REC_SEQ = 0;
+    private static final int REC_ITEM_ID = 8;
+    private static final int REC_TIMESTAMP = 16;
+    private static final int REC_RATIO = 24;
+    private static final int REC_TYPE = 28;
+    private static final int REC_VALUE = 32;
+
+    private final File file;
+    private final int capacity;
+
+    // open 完成后才发布给主线程；为 null 时 append 直接跳过
+    private volatile MappedByteBuffer buffer;
+    // 只在主线程读写（open 时由后台线程初始化，经 volatile buffer 发布）
+    private long writeSeq;
+    // 只在后台线程读写
+    private long ackedSeq;
+
+    ExposureEventLog(File file, int capacity) {
+        this.file = file;
+        this.capacity = capacity;
+    }
+
+    boolean isOpen() {
+        return buffer != null;
+    }
+
+    /**
+     * 后台线程：映射文件并把上次未确认的记录交给 sink，然后才对主线程开放写入
+     *
+     * @return 恢复出的记录条数
+     */
+    int openAndRecover(RecoverySink sink, ExposureBatch scratch) throws IOException {
+        if (isOpen()) {
+            return 0;
+        }
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("mkdirs failed: " + dir);
+        }
+        long size = HEADER_BYTES + (long) capacity * RECORD_BYTES;
+        MappedByteBuffer mapped;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() != size) {
+                raf.setLength(size);
+            }
+            // 映射建立后即使关闭文件也依然有效
+            mapped = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        int recovered = 0;
+        if (mapped.getInt(OFFSET_MAGIC) != MAGIC
+                || mapped.getInt(OFFSET_VERSION) != VERSION
+                || mapped.getInt(OFFSET_CAPACITY) != capacity) {
+            // 新文件或格式不兼容：重置头部
+            mapped.putInt(OFFSET_MAGIC, MAGIC);
+            mapped.putInt(OFFSET_VERSION, VERSION);
+            mapped.putInt(OFFSET_CAPACITY, capacity);
+            mapped.putLong(OFFSET_WRITE_SEQ, 0L);
+            mapped.putLong(OFFSET_ACKED_SEQ, 0L);
+            writeSeq = 0L;
+        } else {
+            writeSeq = mapped.getLong(OFFSET_WRITE_SEQ);
+            long acked = mapped.getLong(OFFSET_ACKED_SEQ);
+            recovered = recover(mapped, Math.max(acked, writeSeq - capacity), sink, scratch);
+            mapped.putLong(OFFSET_ACKED_SEQ, writeSeq);
+        }
+        ackedSeq = writeSeq;
+
+        buffer = mapped;
+        return recovered;
+    }
+
+    /**
+     * 主线程：追加一条记录
+     *
+     * @return 记录序号；日志尚未打开时返回 -1
+     */
+    long append(long itemId, byte type, float ratio, long timestamp, long value) {
+        MappedByteBuffer b = buffer;
+        if (b == null) {
+            return -1L;
+        }
+        long seq = writeSeq;
+        int offset = HEADER_BYTES + (int) (seq % capacity) * RECORD_BYTES;
+        b.putLong(offset + REC_ITEM_ID, itemId);
+        b.putLong(offset + REC_TIMESTAMP, timestamp);
+        b.putFloat(offset + REC_RATIO, ratio);
+        b.put(offset + REC_TYPE, type);
+        b.putLong(offset + REC_VALUE, value);
+        // 最后写 seq：恢复时 seq 对得上才认为这条记录是完整的
+        b.putLong(offset + REC_SEQ, seq);
+        writeSeq = seq + 1;
+        b.putLong(OFFSET_WRITE_SEQ, writeSeq);
+        return seq;
+    }
+
+    /**
+     * 后台线程：序号小于 seqExclusive 的记录都已写入磁盘队列
+     */
+    void ack(long seqExclusive) {
+        MappedByteBuffer b = buffer;
+        if (b == null || seqExclusive <= ackedSeq) {
+            return;
+        }
+        ackedSeq = seqExclusive;
+        b.putLong(OFFSET_ACKED_SEQ, seqExclusive);
+    }
+
+    /**
+     * 后台线程：把脏页刷到存储（应对断电；进程崩溃本身不需要）
+     */
+    void force() {
+        MappedByteBuffer b = buffer;
+        if (b != null) {
+            b.force();
+        }
+    }
+
+    private int recover(MappedByteBuffer mapped,
+                        long fromSeq,
+                        RecoverySink sink,
+                        ExposureBatch scratch) throws IOException {
+        int recovered = 0;
+        scratch.clear();
+        for (long seq = fromSeq; seq < writeSeq; seq++) {
+            int offset = HEADER_BYTES + (int) (seq % capacity) * RECORD_BYTES;
+            if (mapped.getLong(offset + REC_SEQ) != seq) {
+                continue; // 写了一半的记录
+            }
+            scratch.add(
+                    mapped.getLong(offset + REC_ITEM_ID),
+                    mapped.get(offset + REC_TYPE),
+                    mapped.getFloat(offset + REC_RATIO),
+                    mapped.getLong(offset + REC_TIMESTAMP),
+                    mapped.getLong(offset + REC_VALUE),
+                    seq
+            );
+            recovered++;
+            if (scratch.isFull()) {
+                sink.onRecovered(scratch);
+                scratch.clear();
+            }
+        }
+        if (scratch.size() > 0) {
+            sink.onRecovered(scratch);
+            scratch.clear();
+        }
+        return recovered;
+    }
+}
@@ -0,0 +1,87 @@
+package com.jessica.feedapp.exposure.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UI 线程 -> 后台批处理线程 的无锁环形队列（单生产者 / 单消费者）：
+ * - 生产者只有主线程（曝光回调），消费者只有批处理任务（串行队列，同一时间只有一个）
+ * - 事件按列存进预分配的原始类型数组，入队不分配对象、不加锁
+ * - 队列满时丢弃新事件并计数，绝不阻塞 UI 线程
+ */
+final class ExposureEventQueue {
+
+    private final int mask;
+    private final long[] itemIds;
+    private final byte[] types;
+    private final float[] ratios;
+    private final long[] timestamps;
+    private final long[] values;
+    private final long[] logSeqs;
+
+    // 消费者读到的位置 / 生产者写到的位置（单调递增，取模得到下标）
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    ExposureEventQueue(int capacityPowerOfTwo) {
+        if (Integer.bitCount(capacityPowerOfTwo) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacityPowerOfTwo);
+        }
+        mask = capacityPowerOfTwo - 1;
+        itemIds = new long[capacityPowerOfTwo];
+        types = new byte[capacityPowerOfTwo];
+        ratios = new float[capacityPowerOfTwo];
+        timestamps = new long[capacityPowerOfTwo];
+        values = new long[capacityPowerOfTwo];
+        logSeqs = new long[capacityPowerOfTwo];
+    }
+
+    /**
+     * 只能在生产者线程（主线程）调用
+     *
+     * @return 队列已满被丢弃时返回 false
+     */
+    boolean offer(long itemId, byte type, float ratio, long timestamp, long value, long logSeq) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        int index = (int) (t & mask);
+        itemIds[index] = itemId;
+        types[index] = type;
+        ratios[index] = ratio;
+        timestamps[index] = timestamp;
+        values[index] = value;
+        logSeqs[index] = logSeq;
+        // release 语义：上面的写入对读到新 tail 的消费者可见
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * 只能在消费者线程调用：最多取出 batch 剩余容量个事件
+     *
+     * @return 实际取出的个数
+     */
+    int drainTo(ExposureBatch batch) {
+        long h = head.get();
+        long available = tail.get() - h;
+        int n = (int) Math.min(available, batch.capacity() - batch.size());
+        for (int i = 0; i < n; i++) {
+            int index = (int) ((h + i) & mask);
+            batch.add(itemIds[index], types[index], ratios[index], timestamps[index],
+                    values[index], logSeqs[index]);
+        }
+        head.lazySet(h + n);
+        return n;
+    }
+
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+}
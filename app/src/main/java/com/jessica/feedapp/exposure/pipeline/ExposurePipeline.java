@@ -0,0 +1,353 @@
+package com.jessica.feedapp.exposure.pipeline;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.jessica.feedapp.exposure.ExposureEventType;
+import com.jessica.feedapp.exposure.ExposureTracker;
+import com.jessica.feedapp.work.CancellationToken;
+import com.jessica.feedapp.work.FeedWorkScheduler;
+import com.jessica.feedapp.work.WorkLane;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 曝光事件上报管道：
+ * 1. UI 线程：onExposureEvent 只做一次无锁入队（ExposureEventQueue），不做任何 I/O
+ * 2. 后台批处理（FeedWorkScheduler 的 ANALYTICS 通道上的串行队列，优先级最低）：
+ *    攒够 batchSize 或到达 flushInterval 时，把内存队列写入磁盘队列
+ * 3. 磁盘队列（ExposureDiskQueue）：fsync 落盘，进程被杀后下次启动继续上报
+ * 4. 上报：交给可插拔的 ExposureUploader，失败时指数退避 + 抖动后重试。
+ *    上传是阻塞网络 I/O（最长要等到超时），放在管道自己的上传线程上，不占 FeedWorkScheduler 的 worker：
+ *    双核机器上后台通道只有一个 worker，上传卡住会连带 PREFETCH（加载更多）一起等。
+ *    串行队列取出一批交给上传线程，结果再回到串行队列里删除 / 退避，磁盘队列仍然只在串行队列里访问；
+ *    同一时间最多一批在上传
+ * 另外每个事件入队时同步写一份到内存映射日志（ExposureEventLog，只是 buffer put），
+ * 覆盖“还在内存队列里、没来得及落盘”时进程崩溃的窗口，下次启动时补回磁盘队列。
+ * 首次曝光类事件（ENTER / VIEWABLE）落盘前先查跨会话去重过滤器（ExposureDedupFilter），
+ * 刷新、读缓存、来回滑动产生的重复曝光不会写盘和上报；从崩溃日志补回的事件也走同一个检查。
+ * 停留时长（onDwell）作为 DWELL 事件走同一条管道，value 列放本次露出的时长（服务端按 id 累加）。
+ */
+public class ExposurePipeline implements ExposureTracker.ExposureListener,
+        ExposureTracker.DwellListener {
+
+    private static final String TAG = "ExposurePipeline";
+
+    private static final int MEMORY_QUEUE_CAPACITY = 1024;
+    private static final int BATCH_SIZE = 50;
+    private static final long FLUSH_INTERVAL_MS = 10_000L;
+    private static final long DISK_QUEUE_MAX_BYTES = 2L * 1024 * 1024;
+    private static final long MIN_BACKOFF_MS = 1_000L;
+    private static final long MAX_BACKOFF_MS = 5 * 60_000L;
+    private static final int EVENT_LOG_CAPACITY = 4096;
+    // 上传线程空闲多久后退出（下次上传时再建）
+    private static final long UPLOAD_THREAD_KEEP_ALIVE_MS = 30_000L;
+    // 去重窗口 24h（实际有效期 24~48h），每个窗口约 2 万个 key，假阳性 1%，两个窗口共约 47KB
+    private static final long DEDUP_WINDOW_MS = 24 * 60 * 60_000L;
+    private static final int DEDUP_EXPECTED_KEYS = 20_000;
+    private static final double DEDUP_FPP = 0.01;
+    private static final byte TYPE_ENTER = (byte) ExposureEventType.ENTER.ordinal();
+    private static final byte TYPE_VIEWABLE = (byte) ExposureEventType.VIEWABLE.ordinal();
+
+    private final Context appContext;
+    private final ExposureUploader uploader;
+    private final ExposureEventQueue memoryQueue = new ExposureEventQueue(MEMORY_QUEUE_CAPACITY);
+    private final ExposureEventLog eventLog;
+    private final CancellationToken workToken = new CancellationToken();
+    private final FeedWorkScheduler.SerialQueue serialQueue;
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private final Runnable flushTask = this::flushInBackground;
+    private final ExposureEventLog.RecoverySink recoverySink = this::persistDeduped;
+    private final ThreadPoolExecutor uploadExecutor;
+
+    private volatile boolean shutdown = false;
+
+    // ===== 以下字段只在串行队列的任务里访问（同一时间只有一个任务在执行） =====
+    private ExposureDiskQueue diskQueue;
+    private final ExposureDedupFilter dedupFilter;
+    private boolean dedupLoaded = false;
+    private final ExposureBatch drainBatch = new ExposureBatch(BATCH_SIZE * 2);
+    private final ExposureBatch dedupedBatch = new ExposureBatch(BATCH_SIZE * 2);
+    private final ExposureBatch uploadBatch = new ExposureBatch(BATCH_SIZE);
+    private final Random jitter = new Random();
+    private int consecutiveFailures = 0;
+    private long nextUploadAtMs = 0L;
+    // uploadBatch 正交给上传线程，结果回来之前不再取下一批
+    private boolean uploadInFlight = false;
+
+    // ===== 统计 =====
+    private volatile long persistedCount = 0;
+    private volatile long uploadedCount = 0;
+    private volatile long uploadFailures = 0;
+    private volatile long duplicateCount = 0;
+
+    public ExposurePipeline(@NonNull Context context,
+                            @NonNull ExposureUploader uploader,
+                            @NonNull FeedWorkScheduler scheduler) {
+        this.appContext = context.getApplicationContext();
+        this.uploader = uploader;
+        // 这里只创建 File 对象，真正的映射在后台线程完成
+        this.eventLog = new ExposureEventLog(
+                new File(new File(appContext.getFilesDir(), "exposure"), "exposure_events.log"),
+                EVENT_LOG_CAPACITY);
+        this.dedupFilter = new ExposureDedupFilter(
+                new File(new File(appContext.getFilesDir(), "exposure"), "exposure_dedup.bin"),
+                DEDUP_WINDOW_MS, DEDUP_EXPECTED_KEYS, DEDUP_FPP);
+        this.serialQueue = scheduler.newSerialQueue(WorkLane.ANALYTICS, workToken);
+        this.uploadExecutor = new ThreadPoolExecutor(0, 1,
+                UPLOAD_THREAD_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "exposure-upload");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    /**
+     * 启动定时 flush；启动后会先把上次进程遗留在磁盘队列里的数据补报
+     */
+    public void start() {
+        serialQueue.execute(flushTask);
+        serialQueue.executeDelayed(this::periodicFlush, FLUSH_INTERVAL_MS);
+    }
+
+    @Override
+    public void onExposureEvent(long itemId, ExposureEventType eventType, float visibleRatio) {
+        enqueue(itemId, eventType, visibleRatio, 0L);
+    }
+
+    @Override
+    public void onDwell(long itemId, long dwellMs) {
+        enqueue(itemId, ExposureEventType.DWELL, 0f, dwellMs);
+    }
+
+    /**
+     * UI 线程调用：写崩溃日志 + 无锁入队，攒够一批时唤醒后台线程
+     */
+    public void enqueue(long itemId, ExposureEventType eventType, float visibleRatio, long value) {
+        byte type = (byte) eventType.ordinal();
+        long now = System.currentTimeMillis();
+        long logSeq = eventLog.append(itemId, type, visibleRatio, now, value);
+        memoryQueue.offer(itemId, type, visibleRatio, now, value, logSeq);
+        if (memoryQueue.size() >= BATCH_SIZE) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * 请求尽快 flush（比如 Activity onStop 时），多次请求只会排一个任务
+     */
+    public void requestFlush() {
+        if (flushRequested.compareAndSet(false, true) && !shutdown) {
+            serialQueue.execute(flushTask);
+        }
+    }
+
+    /**
+     * 最后 flush 一次后停止：之后排进来的定时 / 退避任务都会被丢弃
+     */
+    public void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        serialQueue.execute(() -> {
+            flushInBackground();
+            eventLog.force();
+            if (diskQueue != null) {
+                diskQueue.close();
+            }
+            workToken.cancel();
+            // 还在上传的那一批留在磁盘队列里，下次启动重报
+            uploadExecutor.shutdown();
+        });
+    }
+
+    public long getDroppedCount() {
+        return memoryQueue.droppedCount();
+    }
+
+    public long getPersistedCount() {
+        return persistedCount;
+    }
+
+    public long getUploadedCount() {
+        return uploadedCount;
+    }
+
+    public long getUploadFailures() {
+        return uploadFailures;
+    }
+
+    /** 被去重过滤器拦下的重复首次曝光数 */
+    public long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    // ===== 串行队列 =====
+
+    private void periodicFlush() {
+        if (shutdown) {
+            return;
+        }
+        flushInBackground();
+        serialQueue.executeDelayed(this::periodicFlush, FLUSH_INTERVAL_MS);
+    }
+
+    private void flushInBackground() {
+        flushRequested.set(false);
+        try {
+            if (diskQueue == null) {
+                diskQueue = new ExposureDiskQueue(
+                        new File(appContext.getFilesDir(), "exposure"), DISK_QUEUE_MAX_BYTES);
+            }
+            if (!diskQueue.isOpen()) {
+                diskQueue.open();
+            }
+            // 先加载去重过滤器：崩溃日志里补回的事件也要过一遍
+            if (!dedupLoaded) {
+                dedupFilter.load(System.currentTimeMillis());
+                dedupLoaded = true;
+            }
+            if (!eventLog.isOpen()) {
+                drainBatch.clear();
+                int recovered = eventLog.openAndRecover(recoverySink, drainBatch);
+                Log.d(TAG, "flushInBackground: recovered " + recovered + " events from crash log");
+            }
+            persistMemoryQueue();
+            dedupFilter.saveIfDirty();
+            uploadPending();
+        } catch (IOException e) {
+            Log.e(TAG, "flushInBackground: error", e);
+        }
+    }
+
+    private void persistMemoryQueue() throws IOException {
+        while (true) {
+            drainBatch.clear();
+            int n = memoryQueue.drainTo(drainBatch);
+            if (n == 0) {
+                break;
+            }
+            persistDeduped(drainBatch);
+            // 已经 fsync 进磁盘队列的事件，在崩溃日志里标记为已确认
+            long maxSeq = drainBatch.maxLogSeq();
+            if (maxSeq >= 0) {
+                eventLog.ack(maxSeq + 1);
+            }
+        }
+    }
+
+    /**
+     * 过滤掉重复的首次曝光后写入磁盘队列（内存队列和崩溃日志恢复共用）
+     */
+    private void persistDeduped(ExposureBatch batch) throws IOException {
+        int n = batch.size();
+        dedupedBatch.clear();
+        for (int i = 0; i < n; i++) {
+            if (isFirstReport(batch, i)) {
+                dedupedBatch.addFrom(batch, i);
+            }
+        }
+        diskQueue.append(dedupedBatch);
+        persistedCount += dedupedBatch.size();
+        duplicateCount += n - dedupedBatch.size();
+    }
+
+    /**
+     * ENTER / VIEWABLE 每个 item 在去重窗口内只上报一次，其它事件不过滤
+     */
+    private boolean isFirstReport(ExposureBatch batch, int index) {
+        byte type = batch.typeOrdinalAt(index);
+        if (type != TYPE_ENTER && type != TYPE_VIEWABLE) {
+            return true;
+        }
+        // key 同时包含 itemId 和事件类型，ENTER 和 VIEWABLE 分开去重
+        long key = (batch.itemIdAt(index) << 3) ^ type;
+        return dedupFilter.addIfAbsent(key, batch.timestampAt(index));
+    }
+
+    /**
+     * 取出磁盘队列头部的一批交给上传线程（退避中、已有一批在上传或正在关闭时什么都不做）
+     */
+    private void uploadPending() throws IOException {
+        if (uploadInFlight || shutdown) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtime();
+        if (now < nextUploadAtMs) {
+            return; // 退避中
+        }
+        uploadBatch.clear();
+        int n = diskQueue.peek(uploadBatch);
+        if (n == 0) {
+            return;
+        }
+        uploadInFlight = true;
+        try {
+            uploadExecutor.execute(() -> uploadOnUploadThread(n));
+        } catch (RejectedExecutionException e) {
+            uploadInFlight = false;
+        }
+    }
+
+    /**
+     * 上传线程：阻塞上传 uploadBatch，结果交回串行队列处理
+     */
+    private void uploadOnUploadThread(int count) {
+        IOException error = null;
+        try {
+            uploader.upload(uploadBatch);
+        } catch (IOException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            // 出口实现的 bug 也按失败退避，不能让 uploadInFlight 永远卡住
+            error = new IOException(e);
+        }
+        IOException result = error;
+        serialQueue.execute(() -> onUploadFinished(count, result));
+    }
+
+    private void onUploadFinished(int count, @Nullable IOException error) {
+        uploadInFlight = false;
+        if (diskQueue == null || !diskQueue.isOpen()) {
+            return; // 已关闭，这一批下次启动重报
+        }
+        if (error != null) {
+            uploadFailures++;
+            consecutiveFailures++;
+            long backoff = Math.min(MAX_BACKOFF_MS,
+                    MIN_BACKOFF_MS << Math.min(consecutiveFailures - 1, 16));
+            // 加 0~50% 抖动，避免大量客户端同时重试
+            backoff += (long) (backoff * 0.5f * jitter.nextFloat());
+            nextUploadAtMs = SystemClock.elapsedRealtime() + backoff;
+            if (!shutdown) {
+                serialQueue.executeDelayed(flushTask, backoff);
+            }
+            Log.w(TAG, "onUploadFinished: failed, retry in " + backoff + "ms", error);
+            return;
+        }
+        try {
+            // 按这一批在文件里的结束偏移确认：上传期间超限丢弃推进过 head 时，不会把后面没上传的记录一起删掉
+            diskQueue.removePeeked();
+            uploadedCount += count;
+            consecutiveFailures = 0;
+            nextUploadAtMs = 0L;
+            // 还有积压就接着传下一批
+            uploadPending();
+        } catch (IOException e) {
+            Log.e(TAG, "onUploadFinished: error", e);
+        }
+    }
+}
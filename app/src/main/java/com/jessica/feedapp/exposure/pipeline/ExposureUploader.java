@@ -0,0 +1,13 @@
+package com.jessica.feedapp.exposure.pipeline;
+
+import java.io.IOException;
+
+/**
+ * 曝光上报出口（可插拔）：
+ * - 在曝光管道专用的上传线程被调用（不占 FeedWorkScheduler 的 worker），可以做阻塞网络 I/O
+ * - 同一时间只有一次调用，batch 在返回前不会被改动
+ * - 抛出 IOException 表示本批失败，管道会退避后重试同一批数据
+ */
+public interface ExposureUploader {
+    void upload(ExposureBatch batch) throws IOException;
+}
@@ -0,0 +1,81 @@
+package com.jessica.feedapp.exposure.pipeline;
+
+import com.jessica.feedapp.exposure.ExposureEventType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 通过 HTTP POST 上报一批曝光事件（JSON）：
+ * {"events":[{"id":1,"type":"ENTER","ratio":0.35,"ts":1700000000000}, ...]}
+ * DWELL 事件额外带 "dwellMs" 字段。
+ * 2xx 视为成功，其它状态码 / 网络异常都抛 IOException 交给管道重试。
+ */
+public class HttpExposureUploader implements ExposureUploader {
+
+    private static final int TIMEOUT_MS = 5_000;
+
+    private final String endpoint;
+    private final StringBuilder json = new StringBuilder(4096);
+
+    public HttpExposureUploader(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void upload(ExposureBatch batch) throws IOException {
+        byte[] body = encode(batch);
+
+        HttpURLConnection conn = (HttpURLConnection) new URL(endpoint).openConnection();
+        try {
+            conn.setRequestMethod("POST");
+            conn.setConnectTimeout(TIMEOUT_MS);
+            conn.setReadTimeout(TIMEOUT_MS);
+            conn.setDoOutput(true);
+            conn.setFixedLengthStreamingMode(body.length);
+            conn.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(body);
+            }
+            int code = conn.getResponseCode();
+            // 读完响应体，让连接可以被复用
+            try (InputStream in = code < 400 ? conn.getInputStream() : conn.getErrorStream()) {
+                if (in != null) {
+                    byte[] skip = new byte[256];
+                    //noinspection StatementWithEmptyBody
+                    while (in.read(skip) != -1) {
+                    }
+                }
+            }
+            if (code < 200 || code >= 300) {
+                throw new IOException("upload failed, http " + code);
+            }
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    private byte[] encode(ExposureBatch batch) {
+        json.setLength(0);
+        json.append("{\"events\":[");
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(batch.itemIdAt(i))
+                    .append(",\"type\":\"").append(batch.typeAt(i).name())
+                    .append("\",\"ratio\":").append(batch.ratioAt(i))
+                    .append(",\"ts\":").append(batch.timestampAt(i));
+            if (batch.typeAt(i) == ExposureEventType.DWELL) {
+                json.append(",\"dwellMs\":").append(batch.valueAt(i));
+            }
+            json.append('}');
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
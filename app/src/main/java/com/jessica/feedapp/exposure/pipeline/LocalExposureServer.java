@@ -0,0 +1,138 @@
+package com.jessica.feedapp.exposure.pipeline;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * 本地 HTTP 上报“替身”服务端（与 FeedRepository 一样是模拟的服务端）：
+ * - 只监听 127.0.0.1 的随机端口，接收 POST，统计收到的请求数 / 字节数
+ * - 可配置失败率，随机返回 503，用来验证管道的重试与退避
+ */
+public class LocalExposureServer {
+
+    private static final String TAG = "LocalExposureServer";
+
+    private final float failureRate;
+    private final Random random = new Random();
+
+    private ServerSocket serverSocket;
+    private volatile long requestCount = 0;
+    private volatile long byteCount = 0;
+
+    public LocalExposureServer(float failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * 绑定端口并启动接收线程（会做 socket I/O，不要在主线程调用）
+     *
+     * @return 监听的端口
+     */
+    public synchronized int start() throws IOException {
+        if (serverSocket != null) {
+            return serverSocket.getLocalPort();
+        }
+        serverSocket = new ServerSocket(0, 8, InetAddress.getByName("127.0.0.1"));
+        Thread thread = new Thread(this::acceptLoop, "exposure-local-server");
+        thread.setDaemon(true);
+        thread.start();
+        Log.d(TAG, "start: listening on port " + serverSocket.getLocalPort());
+        return serverSocket.getLocalPort();
+    }
+
+    public synchronized void stop() {
+        if (serverSocket == null) {
+            return;
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // 关闭时的异常无需处理
+        }
+        serverSocket = null;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    private void acceptLoop() {
+        ServerSocket server = serverSocket;
+        while (server != null && !server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                handle(socket);
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    Log.e(TAG, "acceptLoop: error", e);
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        InputStream in = new BufferedInputStream(socket.getInputStream());
+        int contentLength = 0;
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            String lower = line.toLowerCase(Locale.US);
+            if (lower.startsWith("content-length:")) {
+                contentLength = Integer.parseInt(lower.substring("content-length:".length()).trim());
+            }
+        }
+        byte[] body = new byte[contentLength];
+        int read = 0;
+        while (read < contentLength) {
+            int n = in.read(body, read, contentLength - read);
+            if (n < 0) {
+                break;
+            }
+            read += n;
+        }
+
+        boolean fail;
+        synchronized (random) {
+            fail = random.nextFloat() < failureRate;
+        }
+        String status = fail ? "503 Service Unavailable" : "200 OK";
+        if (!fail) {
+            requestCount++;
+            byteCount += read;
+        }
+        Log.d(TAG, "handle: status=" + status + ", bytes=" + read
+                + ", totalRequests=" + requestCount);
+
+        OutputStream out = socket.getOutputStream();
+        out.write(("HTTP/1.1 " + status + "\r\n"
+                + "Content-Length: 0\r\n"
+                + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                break;
+            }
+            if (c != '\r') {
+                sb.append((char) c);
+            }
+        }
+        return (c == -1 && sb.length() == 0) ? null : sb.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package com.jessica.feedapp.exposure.pipeline;
+
+import java.io.IOException;
+
+/**
+ * 指向本地替身服务端的上报出口：
+ * 第一次上传时（后台线程）才启动 LocalExposureServer，之后走真实的 HTTP 上报流程。
+ * 只在 debug 包和测试里使用（见 FeedViewModel.Factory），release 包直接用 HttpExposureUploader 上报线上地址。
+ */
+public class LocalExposureSink implements ExposureUploader {
+
+    private final LocalExposureServer server;
+    private HttpExposureUploader delegate;
+
+    public LocalExposureSink(LocalExposureServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void upload(ExposureBatch batch) throws IOException {
+        if (delegate == null) {
+            int port = server.start();
+            delegate = new HttpExposureUploader("http://127.0.0.1:" + port + "/exposure");
+        }
+        delegate.upload(batch);
+    }
+}
@@ -0,0 +1,64 @@
+package com.jessica.feedapp.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 增量刷新的结果（“自 cursor 以来的变化”）：
+ * - inserted：新出现的卡片，按在列表中的顺序（最新的在前），客户端插到顶部
+ * - updated：内容有变化的卡片（按 id 原地替换），客户端没有的 id 直接忽略
+ * - deletedIds：被删除的卡片 id
+ * - cursor：下次增量刷新带上的游标（对客户端不透明）
+ * - snapshot：服务端认不出客户端的游标（第一次刷新、游标过期），inserted 是当前完整的首页，
+ *   客户端照常按 id 去重合并，但没法知道期间删了什么
+ * 同一个 id 在一个 delta 里只会出现在其中一类。
+ */
+public class FeedDelta {
+
+    private final String cursor;
+    private final boolean snapshot;
+    private final List<FeedItem> inserted;
+    private final List<FeedItem> updated;
+    private final long[] deletedIds;
+
+    public FeedDelta(String cursor,
+                     boolean snapshot,
+                     List<FeedItem> inserted,
+                     List<FeedItem> updated,
+                     long[] deletedIds) {
+        this.cursor = cursor;
+        this.snapshot = snapshot;
+        this.inserted = inserted != null ? inserted : Collections.emptyList();
+        this.updated = updated != null ? updated : Collections.emptyList();
+        this.deletedIds = deletedIds != null ? deletedIds : new long[0];
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public List<FeedItem> getInserted() {
+        return inserted;
+    }
+
+    public List<FeedItem> getUpdated() {
+        return updated;
+    }
+
+    public long[] getDeletedIds() {
+        return deletedIds;
+    }
+
+    public boolean isEmpty() {
+        return inserted.isEmpty() && updated.isEmpty() && deletedIds.length == 0;
+    }
+
+    /** 变化条数（新增 + 更新 + 删除），也就是这次刷新的载荷大小 */
+    public int getChangeCount() {
+        return inserted.size() + updated.size() + deletedIds.length;
+    }
+}
@@ -4,6 +4,7 @@ package com.jessica.feedapp.model;
  * 单条 Feed 卡片的数据结构：
  * - 支持文本 / 图文 / 视频 3 种类型（cardType）
  * - 支持单列 / 双列排版（spanSize）
+ * - 图文 / 视频卡片带媒体描述（MediaInfo：地址、类型、像素宽高、时长）
  * 这些字段基本不包含业务逻辑，只是“数据描述”。
  */
 
@@ -21,20 +22,20 @@ public class FeedItem {
     private final long id; // 唯一 ID，用来做曝光统计、去重等
     private final String title; //文案
     private final String content; //文案
-    private final String imageUrl; // 图片 URL，目前用空字符串占位，后面可接网络图
+    private final MediaInfo media; // 图片 / 视频描述，纯文本卡片为 null
     private final int cardType; //卡片类型（文本 / 图文 / 视频
     private final int spanSize; //占几列（1 = 单列，2 = 双列）
 
     public FeedItem(long id,
                     String title,
                     String content,
-                    String imageUrl,
+                    MediaInfo media,
                     int cardType,
                     int spanSize) {
         this.id = id;
         this.title = title;
         this.content = content;
-        this.imageUrl = imageUrl;
+        this.media = media;
         this.cardType = cardType;
         this.spanSize = spanSize;
     }
@@ -51,8 +52,8 @@ public class FeedItem {
         return content;
     }
 
-    public String getImageUrl() {
-        return imageUrl;
+    public MediaInfo getMedia() {
+        return media;
     }
 
     public int getCardType() {
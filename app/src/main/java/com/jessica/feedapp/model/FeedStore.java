@@ -0,0 +1,732 @@
+package com.jessica.feedapp.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 列式（struct-of-arrays）的 Feed 内存存储，替代 List&lt;FeedItem&gt;：
+ * - id / cardType / span 分别存进 long[] / byte[] / byte[]
+ * - 标题和正文按写入顺序分页（每 PAGE_ROWS 行一页）追加到该页自己的 char[] 文本块里，
+ *   每行只记位置（int：页号 + 页内偏移）和两个长度（char）；插到中间的行（insertAll）也写进当前页，
+ *   所以一页的行在列表里通常相邻，但不保证
+ * - 媒体：URL 走字符串池去重（比如所有视频卡片共用同一个 MP4 地址），每行只存池下标；
+ *   池最多 MAX_POOLED_URLS 个，满了之后新地址（基本是每行唯一的图片地址）跟着正文写进文本页，
+ *   和文本一起被换出，不会随行数一直涨；类型 / 像素宽高 / 时长各占一列
+ * - 每行固定开销 33 字节（ROW_BYTES）+ 文本本身，没有逐行对象头和引用
+ *
+ * 内存：文本页可以由 FeedPageWindow 换出，但每行的固定列不会，仍然和总行数线性相关。
+ * 用 demo 档位的合成数据实测（estimateMemoryBytes，含 1.5 倍扩容余量，窗口保留 7 页）：
+ * 1 万行约 0.7 MB、5 万行约 3.8 MB、10 万行约 7.9 MB，其中固定列 + id 索引分别约 0.6 / 3.7 / 7.8 MB
+ * （id 索引是开放寻址的 long -> int 表，按 2 的幂扩容，每行摊到 16~32 字节，占了其中的三到四成）；
+ * 全部文本常驻时是这个数的 2~3 倍。所以刷得越久占用仍会缓慢增长，只是每行从一个 FeedItem
+ * （对象头 + 引用 + 两三个 String，几百字节）降到几十字节。
+ *
+ * 读取用 Row 游标（flyweight）：moveTo 之后读当前行，同一个 Row 可以反复复用，不分配对象。
+ * Binder 可以用 textArena + start / length 直接 TextView.setText(char[], int, int)，不生成 String；
+ * 已写入的文本不会被原地修改（扩容 / 收缩都是拷贝出新数组，clear 时整页丢弃），满足 TextView 对 char[] 的约定。
+ *
+ * 分页窗口（见 FeedPageWindow）：已写满的页可以 evictPage 只丢掉文本块，id / cardType / span / 文本长度都还在，
+ * 行数和布局不变；被回收页的行读出来是空文本占位，restorePage 放回原来的文本块后恢复。
+ * 卡片是 wrap_content 的，空文本会把卡片压扁、让上方的滚动位置跳动，所以每行另存一列界面量到的高度
+ * （setMeasuredHeight），文本不在内存时 Adapter 按这个高度绑定固定高度的占位。
+ * clear 会让 generation 加一，之前换出去的页都作废。
+ *
+ * 行按 id 建了索引（positionOf / positionsOf / excludeExisting 不扫 id 列）；各列数组前端留有空位，
+ * insertAll 到顶部只写新行，增删时挪前后较短的一侧，只更新挪动过的行的索引。
+ *
+ * 非线程安全，只在主线程使用。
+ */
+public final class FeedStore {
+
+    /** 每页行数，也是回收 / 恢复的粒度 */
+    public static final int PAGE_ROWS = 20;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int INITIAL_PAGE_CHARS = 1024;
+    // 插到顶部时数组前端至少预留的空位
+    private static final int MIN_FRONT_ROOM = 16;
+    private static final int OFFSET_BITS = 15;
+    private static final int MAX_PAGE_CHARS = 1 << OFFSET_BITS;
+    private static final int OFFSET_MASK = MAX_PAGE_CHARS - 1;
+    private static final int MAX_PAGES = 1 << (32 - OFFSET_BITS);
+    private static final int NO_URL = -1;
+    // urlIndexes 里小于等于它的值表示 URL 写在文本页里（正文之后），长度 = URL_IN_PAGE - 值
+    private static final int URL_IN_PAGE = -2;
+    private static final int MAX_POOLED_URLS = 1024;
+    private static final char[] EMPTY_TEXT = new char[0];
+    // 每行固定列的字节数：id 8 + cardType 1 + span 1 + textRef 4 + 两个文本长度 4
+    // + urlIndex 4 + mediaKind 1 + 宽高 4 + 时长 4 + 量到的高度 2
+    private static final int ROW_BYTES = 33;
+
+    // ===== 行数据（按列） =====
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private byte[] cardTypes = new byte[INITIAL_CAPACITY];
+    private byte[] spans = new byte[INITIAL_CAPACITY];
+    // 高 17 位页号，低 15 位页内偏移
+    private int[] textRefs = new int[INITIAL_CAPACITY];
+    private char[] titleLengths = new char[INITIAL_CAPACITY];
+    private char[] contentLengths = new char[INITIAL_CAPACITY];
+    private int[] urlIndexes = new int[INITIAL_CAPACITY];
+    private byte[] mediaKinds = new byte[INITIAL_CAPACITY];
+    private char[] mediaWidths = new char[INITIAL_CAPACITY];
+    private char[] mediaHeights = new char[INITIAL_CAPACITY];
+    private int[] mediaDurations = new int[INITIAL_CAPACITY];
+    // 文本在内存时界面量到的卡片高度（px），0 表示还没量过
+    private char[] measuredHeights = new char[INITIAL_CAPACITY];
+    private int size;
+    // 第 0 行在各列数组里的下标：前面留空位，插到顶部时不用挪后面的行
+    private int head;
+
+    // ===== id -> 行的索引：值是“数组下标 - indexShift”，整体平移数组时只改 indexShift =====
+    private final LongIntMap idIndex = new LongIntMap(INITIAL_CAPACITY);
+    private int indexShift;
+
+    // ===== 文本页：标题 + 正文依次追加，同一行的两段总在同一页里；被回收的页为 null =====
+    private final List<char[]> pages = new ArrayList<>();
+    private final BitSet residentPages = new BitSet();
+    private int currentPageUsed;
+    private int currentPageRows;
+    private int generation;
+    // 行的增删改次数（不含换出 / 换入），FeedPageWindow 用来判断窗口要不要重算
+    private int modCount;
+
+    // ===== URL 字符串池 =====
+    private final List<String> urls = new ArrayList<>();
+    private final Map<String, Integer> urlIndexByValue = new HashMap<>();
+
+    /**
+     * 行游标：指向某一行，读取该行的各列。不要在 moveTo 之外长期持有它代表的“某一行”。
+     */
+    public final class Row {
+        private int position = -1;
+        // position 对应的数组下标（head + position）
+        private int slot = -1;
+
+        public int getPosition() {
+            return position;
+        }
+
+        public long getId() {
+            return ids[slot];
+        }
+
+        public int getCardType() {
+            return cardTypes[slot];
+        }
+
+        public int getSpanSize() {
+            return spans[slot];
+        }
+
+        /** 文本所在页是否在内存里；不在时下面的文本读取都是空串 */
+        public boolean isTextResident() {
+            return pages.get(textRefs[slot] >>> OFFSET_BITS) != null;
+        }
+
+        /** 本行标题 / 正文所在的文本块，配合下面的 start / length 使用 */
+        public char[] textArena() {
+            char[] text = pages.get(textRefs[slot] >>> OFFSET_BITS);
+            return text != null ? text : EMPTY_TEXT;
+        }
+
+        public int titleStart() {
+            return isTextResident() ? textRefs[slot] & OFFSET_MASK : 0;
+        }
+
+        public int titleLength() {
+            return isTextResident() ? titleLengths[slot] : 0;
+        }
+
+        public int contentStart() {
+            return isTextResident() ? (textRefs[slot] & OFFSET_MASK) + titleLengths[slot] : 0;
+        }
+
+        public int contentLength() {
+            return isTextResident() ? contentLengths[slot] : 0;
+        }
+
+        /** 会生成新的 String，绑定路径上优先用 textArena */
+        public String getTitle() {
+            return new String(textArena(), titleStart(), titleLength());
+        }
+
+        /** 会生成新的 String，绑定路径上优先用 textArena */
+        public String getContent() {
+            return new String(textArena(), contentStart(), contentLength());
+        }
+
+        /** 媒体类型（MediaInfo.KIND_xxx），没有媒体时为 KIND_NONE */
+        public int getMediaKind() {
+            return mediaKinds[slot];
+        }
+
+        /**
+         * 媒体 URL，没有时返回空串。池化的地址总是同一个 String 实例；写在文本页里的地址每次新建，
+         * 所在页被换出时也返回空串
+         */
+        public String getMediaUrl() {
+            return urlAt(slot);
+        }
+
+        public int getMediaWidth() {
+            return mediaWidths[slot];
+        }
+
+        public int getMediaHeight() {
+            return mediaHeights[slot];
+        }
+
+        /** 媒体宽 / 高，宽高未知时为 0 */
+        public float getMediaAspectRatio() {
+            return MediaInfo.aspectRatio(mediaWidths[slot], mediaHeights[slot]);
+        }
+
+        public long getMediaDurationMs() {
+            return mediaDurations[slot];
+        }
+
+        /** 文本在内存时量到的卡片高度（px），没量过为 0 */
+        public int getMeasuredHeight() {
+            return measuredHeights[slot];
+        }
+    }
+
+    public Row newRow() {
+        return new Row();
+    }
+
+    /**
+     * 把 row 指向 position 行
+     *
+     * @return 同一个 row，方便链式调用
+     */
+    public Row moveTo(Row row, int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("position=" + position + ", size=" + size);
+        }
+        row.position = position;
+        row.slot = head + position;
+        return row;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getId(int position) {
+        return ids[slotOf(position)];
+    }
+
+    public int getCardType(int position) {
+        return cardTypes[slotOf(position)];
+    }
+
+    public int getSpanSize(int position) {
+        return spans[slotOf(position)];
+    }
+
+    public String getTitle(int position) {
+        int slot = slotOf(position);
+        int ref = textRefs[slot];
+        char[] text = pages.get(ref >>> OFFSET_BITS);
+        return text != null ? new String(text, ref & OFFSET_MASK, titleLengths[slot]) : "";
+    }
+
+    public String getMediaUrl(int position) {
+        return urlAt(slotOf(position));
+    }
+
+    /**
+     * 记下 position 行（文本在内存时）布局出来的高度，文本被换出后用来绑定同样高度的占位
+     */
+    public void setMeasuredHeight(int position, int heightPx) {
+        measuredHeights[slotOf(position)] = clipDimension(heightPx);
+    }
+
+    public int getMeasuredHeight(int position) {
+        return measuredHeights[slotOf(position)];
+    }
+
+    /**
+     * 丢掉所有量过的高度（列表宽度变了，比如横竖屏切换后 Adapter 重建）
+     */
+    public void clearMeasuredHeights() {
+        Arrays.fill(measuredHeights, head, head + size, (char) 0);
+    }
+
+    /**
+     * 把 [from, from + count) 行的 id 拷到 out[0, count)
+     */
+    public void copyIds(int from, int count, long[] out) {
+        System.arraycopy(ids, head + from, out, 0, count);
+    }
+
+    public void appendAll(List<FeedItem> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        ensureBackRoom(items.size());
+        for (int i = 0, n = items.size(); i < n; i++) {
+            append(items.get(i));
+        }
+    }
+
+    public void append(FeedItem item) {
+        ensureBackRoom(1);
+        writeRow(head + size, item);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * 在 position 处插入一批行（原来的行整体后移，比如下拉刷新把新内容插到顶部）。
+     * 挪动 position 前后较短的一侧；插到顶部时用数组前端的预留空间，不挪已有的行，代价只和插入条数有关。
+     * 新行的文本照常写进当前页，所以同一页的行不一定在位置上相邻。
+     */
+    public void insertAll(int position, List<FeedItem> items) {
+        if (position < 0 || position > size) {
+            throw new IndexOutOfBoundsException("position=" + position + ", size=" + size);
+        }
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        int count = items.size();
+        if (position < size - position) {
+            // 前面的行少：[0, position) 往前挪 count
+            ensureFrontRoom(count);
+            moveRows(head, head - count, position);
+            head -= count;
+            reindex(head, position);
+        } else {
+            ensureBackRoom(count);
+            int from = head + position;
+            moveRows(from, from + count, size - position);
+            reindex(from + count, size - position);
+        }
+        for (int i = 0; i < count; i++) {
+            writeRow(head + position + i, items.get(i));
+        }
+        size += count;
+        modCount++;
+    }
+
+    /**
+     * 原地替换一行（id 一般不变，比如增量刷新里的 updated）。新文本写进当前页，旧文本留在原来的页里不再被引用。
+     */
+    public void set(int position, FeedItem item) {
+        int slot = slotOf(position);
+        idIndex.remove(ids[slot], slot - indexShift);
+        writeRow(slot, item);
+        modCount++;
+    }
+
+    /**
+     * 读出一整行；文本页被换出时返回 null
+     */
+    public FeedItem getItem(int position) {
+        int slot = slotOf(position);
+        int ref = textRefs[slot];
+        char[] text = pages.get(ref >>> OFFSET_BITS);
+        if (text == null) {
+            return null;
+        }
+        int titleStart = ref & OFFSET_MASK;
+        int contentStart = titleStart + titleLengths[slot];
+        MediaInfo media = mediaKinds[slot] == MediaInfo.KIND_NONE
+                ? null
+                : new MediaInfo(urlAt(slot), mediaKinds[slot],
+                mediaWidths[slot], mediaHeights[slot], mediaDurations[slot]);
+        return new FeedItem(ids[slot],
+                new String(text, titleStart, titleLengths[slot]),
+                new String(text, contentStart, contentLengths[slot]),
+                media, cardTypes[slot], spans[slot]);
+    }
+
+    /**
+     * 按 id 查位置（查 id 索引，O(1)）
+     *
+     * @return 不存在时返回 -1
+     */
+    public int positionOf(long id) {
+        int value = idIndex.get(id, Integer.MIN_VALUE);
+        return value == Integer.MIN_VALUE ? -1 : value + indexShift - head;
+    }
+
+    /**
+     * 按 id 批量查位置，代价只和 wantedIds 的个数有关
+     *
+     * @return 与 wantedIds 一一对应的位置，不存在的为 -1
+     */
+    public int[] positionsOf(long[] wantedIds) {
+        int[] positions = new int[wantedIds.length];
+        for (int i = 0; i < wantedIds.length; i++) {
+            positions[i] = positionOf(wantedIds[i]);
+        }
+        return positions;
+    }
+
+    /**
+     * 去掉 items 中 id 已经在 store 里的条目（以及 items 内部重复的 id），顺序不变。
+     * 查 id 索引，代价只和 items 的条数有关。
+     */
+    public List<FeedItem> excludeExisting(List<FeedItem> items) {
+        int n = items.size();
+        LongIntMap seen = new LongIntMap(n);
+        List<FeedItem> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            FeedItem item = items.get(i);
+            long id = item.getId();
+            if (!idIndex.containsKey(id) && !seen.containsKey(id)) {
+                seen.put(id, i);
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /** 写一行的各列并登记 id 索引；row 是数组下标 */
+    private void writeRow(int row, FeedItem item) {
+        ids[row] = item.getId();
+        idIndex.put(item.getId(), row - indexShift);
+        cardTypes[row] = (byte) item.getCardType();
+        spans[row] = (byte) item.getSpanSize();
+        String title = clip(item.getTitle());
+        String content = clip(item.getContent());
+        MediaInfo media = item.getMedia();
+        String url = media != null ? clip(media.getUrl()) : "";
+        int urlIndex = internUrl(url);
+        boolean urlInPage = urlIndex == URL_IN_PAGE;
+        textRefs[row] = appendText(title, content, urlInPage ? url : "");
+        titleLengths[row] = (char) title.length();
+        contentLengths[row] = (char) content.length();
+        // 内容变了，之前量到的高度不再可信
+        measuredHeights[row] = 0;
+        if (media != null) {
+            urlIndexes[row] = urlInPage ? URL_IN_PAGE - url.length() : urlIndex;
+            mediaKinds[row] = (byte) media.getKind();
+            mediaWidths[row] = clipDimension(media.getWidth());
+            mediaHeights[row] = clipDimension(media.getHeight());
+            mediaDurations[row] = (int) Math.min(Integer.MAX_VALUE, Math.max(0L, media.getDurationMs()));
+        } else {
+            urlIndexes[row] = NO_URL;
+            mediaKinds[row] = MediaInfo.KIND_NONE;
+            mediaWidths[row] = 0;
+            mediaHeights[row] = 0;
+            mediaDurations[row] = 0;
+        }
+    }
+
+    /**
+     * 删除一行（挪动前后较短的一侧）；文本页里对应的字符不回收，整页回收或 clear 时释放
+     */
+    public void remove(int position) {
+        int slot = slotOf(position);
+        idIndex.remove(ids[slot], slot - indexShift);
+        int after = size - position - 1;
+        if (position < after) {
+            // 前面的行少：[0, position) 往后挪一格
+            moveRows(head, head + 1, position);
+            head++;
+            reindex(head, position);
+        } else {
+            moveRows(slot + 1, slot, after);
+            reindex(slot, after);
+        }
+        size--;
+        modCount++;
+    }
+
+    /**
+     * 清空所有行；文本页直接丢弃重新分配（旧页可能还被 TextView 引用着，不能原地覆盖）
+     */
+    public void clear() {
+        size = 0;
+        head = 0;
+        indexShift = 0;
+        idIndex.clear();
+        pages.clear();
+        residentPages.clear();
+        currentPageUsed = 0;
+        currentPageRows = 0;
+        generation++;
+        modCount++;
+        // URL 池有上限（几乎都是重复地址），保留下来复用
+    }
+
+    // ===== 分页回收 / 恢复 =====
+
+    /** 每次 clear 加一，用来丢弃针对旧内容的换出 / 换入 */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /** 每次行的增删改都会变化 */
+    public int getModCount() {
+        return modCount;
+    }
+
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    public int getResidentPageCount() {
+        return residentPages.cardinality();
+    }
+
+    public int getPageOf(int position) {
+        return textRefs[slotOf(position)] >>> OFFSET_BITS;
+    }
+
+    public boolean isPageResident(int page) {
+        return residentPages.get(page);
+    }
+
+    /**
+     * @return fromPage（含）之后第一个在内存里的页，没有时返回 -1
+     */
+    public int nextResidentPage(int fromPage) {
+        return residentPages.nextSetBit(fromPage);
+    }
+
+    /**
+     * 丢掉一页的文本，行本身保留（读出空文本）。最后一页还在追加，不能回收。
+     *
+     * @return 被回收的文本块，调用方负责换出保存；不能回收时返回 null
+     */
+    public char[] evictPage(int page) {
+        if (page < 0 || page >= pages.size() - 1) {
+            return null;
+        }
+        char[] text = pages.get(page);
+        if (text != null) {
+            pages.set(page, null);
+            residentPages.clear(page);
+        }
+        return text;
+    }
+
+    /**
+     * 放回之前 evictPage 拿走的文本块（必须是同一 generation 的同一页）
+     *
+     * @return 是否放回（页已经在内存里时返回 false）
+     */
+    public boolean restorePage(int page, char[] text) {
+        if (page < 0 || page >= pages.size() || pages.get(page) != null || text == null) {
+            return false;
+        }
+        pages.set(page, text);
+        residentPages.set(page);
+        return true;
+    }
+
+    /**
+     * 当前占用的内存估算（字节）：各列数组（按已分配容量）+ 页表 + 在内存里的文本页 + URL 池里的字符。
+     * 只算数组和字符本身，不含对象头和 URL 池的 HashMap 节点（最多 MAX_POOLED_URLS 个）
+     */
+    public long estimateMemoryBytes() {
+        long bytes = estimateColumnBytes();
+        // 页表：每页一个引用（按 4 字节压缩指针估）+ 常驻位图
+        bytes += 4L * pages.size() + residentPages.size() / 8;
+        for (int page = residentPages.nextSetBit(0); page >= 0; page = residentPages.nextSetBit(page + 1)) {
+            bytes += 2L * pages.get(page).length;
+        }
+        for (int i = 0; i < urls.size(); i++) {
+            bytes += 2L * urls.get(i).length();
+        }
+        return bytes;
+    }
+
+    /**
+     * 每行固定列 + id 索引的内存（字节，按已分配容量）：不随文本页换出而减少，和总行数成正比
+     */
+    public long estimateColumnBytes() {
+        return (long) ROW_BYTES * ids.length + idIndex.estimateBytes();
+    }
+
+    // ===== 内部实现 =====
+
+    /** position 对应的数组下标 */
+    private int slotOf(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("position=" + position + ", size=" + size);
+        }
+        return head + position;
+    }
+
+    /** slot 是数组下标 */
+    private String urlAt(int slot) {
+        int index = urlIndexes[slot];
+        if (index == NO_URL) {
+            return "";
+        }
+        if (index >= 0) {
+            return urls.get(index);
+        }
+        int ref = textRefs[slot];
+        char[] text = pages.get(ref >>> OFFSET_BITS);
+        if (text == null) {
+            return "";
+        }
+        int start = (ref & OFFSET_MASK) + titleLengths[slot] + contentLengths[slot];
+        return new String(text, start, URL_IN_PAGE - index);
+    }
+
+    private static String clip(String s) {
+        if (s == null) {
+            return "";
+        }
+        return s.length() <= Character.MAX_VALUE ? s : s.substring(0, Character.MAX_VALUE);
+    }
+
+    /** 所有列的数组下标 [from, from + count) 整体挪到 to（不改 id 索引，调用方 reindex） */
+    private void moveRows(int from, int to, int count) {
+        if (count <= 0) {
+            return;
+        }
+        System.arraycopy(ids, from, ids, to, count);
+        System.arraycopy(cardTypes, from, cardTypes, to, count);
+        System.arraycopy(spans, from, spans, to, count);
+        System.arraycopy(textRefs, from, textRefs, to, count);
+        System.arraycopy(titleLengths, from, titleLengths, to, count);
+        System.arraycopy(contentLengths, from, contentLengths, to, count);
+        System.arraycopy(urlIndexes, from, urlIndexes, to, count);
+        System.arraycopy(mediaKinds, from, mediaKinds, to, count);
+        System.arraycopy(mediaWidths, from, mediaWidths, to, count);
+        System.arraycopy(mediaHeights, from, mediaHeights, to, count);
+        System.arraycopy(mediaDurations, from, mediaDurations, to, count);
+        System.arraycopy(measuredHeights, from, measuredHeights, to, count);
+    }
+
+    private static char clipDimension(int pixels) {
+        return (char) Math.max(0, Math.min(Character.MAX_VALUE, pixels));
+    }
+
+    /**
+     * 把标题、正文和（不进池的）URL 连续写进当前页，写满 PAGE_ROWS 行（或页内偏移放不下）就收尾换新页
+     *
+     * @return 页号 + 页内偏移
+     */
+    private int appendText(String title, String content, String url) {
+        int length = title.length() + content.length() + url.length();
+        int last = pages.size() - 1;
+        // 用 >=：写完后 currentPageUsed 必须仍小于 MAX_PAGE_CHARS，下一行的偏移才放得进低 15 位
+        // （否则正好写满 32768 个字符后，一行空文本的偏移会溢出到页号里）
+        if (last < 0 || currentPageRows >= PAGE_ROWS
+                || (currentPageUsed > 0 && currentPageUsed + length >= MAX_PAGE_CHARS)) {
+            if (last >= 0) {
+                sealPage(last);
+            }
+            if (pages.size() >= MAX_PAGES) {
+                throw new IllegalStateException("too many pages: " + pages.size());
+            }
+            // 超长文本单独占一页，偏移从 0 开始
+            pages.add(new char[Math.max(INITIAL_PAGE_CHARS, length)]);
+            last = pages.size() - 1;
+            residentPages.set(last);
+            currentPageUsed = 0;
+            currentPageRows = 0;
+        }
+        char[] text = pages.get(last);
+        if (currentPageUsed + length > text.length) {
+            // 拷贝扩容，旧数组原样留给还在引用它的 TextView
+            text = Arrays.copyOf(text, Math.max(currentPageUsed + length, text.length + (text.length >> 1)));
+            pages.set(last, text);
+        }
+        int ref = (last << OFFSET_BITS) | currentPageUsed;
+        title.getChars(0, title.length(), text, currentPageUsed);
+        content.getChars(0, content.length(), text, currentPageUsed + title.length());
+        url.getChars(0, url.length(), text, currentPageUsed + title.length() + content.length());
+        currentPageUsed += length;
+        currentPageRows++;
+        return ref;
+    }
+
+    /** 页写满后收缩到实际长度，之后回收 / 换出的都是紧凑的文本块 */
+    private void sealPage(int page) {
+        char[] text = pages.get(page);
+        if (text != null && currentPageUsed < text.length) {
+            pages.set(page, Arrays.copyOf(text, currentPageUsed));
+        }
+    }
+
+    /**
+     * @return 池下标；空地址返回 NO_URL；池满且不在池里时返回 URL_IN_PAGE（调用方写进文本页）
+     */
+    private int internUrl(String url) {
+        if (url.isEmpty()) {
+            return NO_URL;
+        }
+        Integer index = urlIndexByValue.get(url);
+        if (index == null) {
+            if (urls.size() >= MAX_POOLED_URLS) {
+                return URL_IN_PAGE;
+            }
+            index = urls.size();
+            urls.add(url);
+            urlIndexByValue.put(url, index);
+        }
+        return index;
+    }
+
+    /** 数组下标 [from, from + count) 的行挪过位置了，更新它们的 id 索引 */
+    private void reindex(int from, int count) {
+        for (int slot = from, end = from + count; slot < end; slot++) {
+            idIndex.put(ids[slot], slot - indexShift);
+        }
+    }
+
+    /** 保证最后一行后面至少还有 count 个空位 */
+    private void ensureBackRoom(int count) {
+        int required = head + size + count;
+        if (required <= ids.length) {
+            return;
+        }
+        relayout(head, Math.max(required, ids.length + (ids.length >> 1)));
+    }
+
+    /**
+     * 保证第一行前面至少有 count 个空位；不够时按行数的 1/8 多留一些，连续刷新插顶部时不用每次都重排
+     */
+    private void ensureFrontRoom(int count) {
+        if (head >= count) {
+            return;
+        }
+        int newHead = count + Math.max(MIN_FRONT_ROOM, size >> 3);
+        int backRoom = ids.length - head - size;
+        relayout(newHead, newHead + size + backRoom);
+    }
+
+    /**
+     * 换一组新数组，行整体搬到以 newHead 开头的位置。id 索引存的是“下标 - indexShift”，
+     * 所有行一起平移时只改 indexShift，不用逐个改索引
+     */
+    private void relayout(int newHead, int newCapacity) {
+        ids = relocate(ids, new long[newCapacity], newHead);
+        cardTypes = relocate(cardTypes, new byte[newCapacity], newHead);
+        spans = relocate(spans, new byte[newCapacity], newHead);
+        textRefs = relocate(textRefs, new int[newCapacity], newHead);
+        titleLengths = relocate(titleLengths, new char[newCapacity], newHead);
+        contentLengths = relocate(contentLengths, new char[newCapacity], newHead);
+        urlIndexes = relocate(urlIndexes, new int[newCapacity], newHead);
+        mediaKinds = relocate(mediaKinds, new byte[newCapacity], newHead);
+        mediaWidths = relocate(mediaWidths, new char[newCapacity], newHead);
+        mediaHeights = relocate(mediaHeights, new char[newCapacity], newHead);
+        mediaDurations = relocate(mediaDurations, new int[newCapacity], newHead);
+        measuredHeights = relocate(measuredHeights, new char[newCapacity], newHead);
+        indexShift += newHead - head;
+        head = newHead;
+    }
+
+    private <T> T relocate(T from, T to, int newHead) {
+        System.arraycopy(from, head, to, newHead, size);
+        return to;
+    }
+}
@@ -0,0 +1,178 @@
+package com.jessica.feedapp.model;
+
+import java.util.Arrays;
+
+/**
+ * FeedStore 内部使用的 long -> int 映射（id -> 行槽位）：
+ * - 开放寻址（线性探测），key / value 都是原始类型，不装箱
+ * - 删除用向后移位（backward shift），不留墓碑，查找长度不会随增删变长
+ * - 装载因子 0.75，每个 key 平均约 16 字节
+ *
+ * 非线程安全。
+ */
+final class LongIntMap {
+
+    // Long.MIN_VALUE 当空槽，这个 key 本身单独存
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private boolean hasEmptyKey;
+    private int emptyKeyValue;
+
+    LongIntMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    int size() {
+        return size + (hasEmptyKey ? 1 : 0);
+    }
+
+    /** 两个数组占用的字节数（按已分配容量） */
+    long estimateBytes() {
+        return 12L * keys.length;
+    }
+
+    /**
+     * @return key 对应的值，不存在时返回 missing
+     */
+    int get(long key, int missing) {
+        if (key == EMPTY) {
+            return hasEmptyKey ? emptyKeyValue : missing;
+        }
+        int slot = indexOf(key);
+        return slot >= 0 ? values[slot] : missing;
+    }
+
+    boolean containsKey(long key) {
+        return key == EMPTY ? hasEmptyKey : indexOf(key) >= 0;
+    }
+
+    void put(long key, int value) {
+        if (key == EMPTY) {
+            hasEmptyKey = true;
+            emptyKeyValue = value;
+            return;
+        }
+        int slot = indexOf(key);
+        if (slot >= 0) {
+            values[slot] = value;
+            return;
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            rehash(keys.length * 2);
+        }
+        slot = insertSlot(key);
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * 只有 key 当前映射到 value 时才删除（同一个 key 已经指向别处时保留）
+     *
+     * @return 是否删除了
+     */
+    boolean remove(long key, int value) {
+        if (key == EMPTY) {
+            if (hasEmptyKey && emptyKeyValue == value) {
+                hasEmptyKey = false;
+                return true;
+            }
+            return false;
+        }
+        int slot = indexOf(key);
+        if (slot < 0 || values[slot] != value) {
+            return false;
+        }
+        deleteSlot(slot);
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        hasEmptyKey = false;
+    }
+
+    private int indexOf(long key) {
+        int i = hash(key) & mask;
+        while (true) {
+            long k = keys[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == EMPTY) {
+                return -1;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private int insertSlot(long key) {
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /** 删掉 slot，把后面同一探测链上的 key 往前挪，保证查找不会提前遇到空槽 */
+    private void deleteSlot(int slot) {
+        int gap = slot;
+        int i = (slot + 1) & mask;
+        while (keys[i] != EMPTY) {
+            int home = hash(keys[i]) & mask;
+            // home 不在 (gap, i] 这段环形区间里，说明它可以挪到 gap
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        size--;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = insertSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 8;
+        while (capacity * 3 < Math.max(1, expectedSize) * 4) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(long key) {
+        // 同 ExposureStateMap：murmur3 fmix64
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,68 @@
+package com.jessica.feedapp.model;
+
+/**
+ * 卡片上的媒体描述（图片 / 视频）：
+ * - 服务端下发像素宽高，绑定时就能按宽高比把容器占好位，媒体加载完成后不再重新测量
+ * - 视频额外带时长
+ * 和 FeedItem 一样只是数据描述，不可变。
+ */
+public class MediaInfo {
+
+    // 媒体类型
+    public static final int KIND_NONE = 0;
+    public static final int KIND_IMAGE = 1;
+    public static final int KIND_VIDEO = 2;
+
+    private final String url;     // 图片 / 视频地址
+    private final int kind;       // 媒体类型（图片 / 视频）
+    private final int width;      // 像素宽，未知时为 0
+    private final int height;     // 像素高，未知时为 0
+    private final long durationMs; // 视频时长，图片为 0
+
+    public MediaInfo(String url, int kind, int width, int height, long durationMs) {
+        this.url = url;
+        this.kind = kind;
+        this.width = width;
+        this.height = height;
+        this.durationMs = durationMs;
+    }
+
+    public static MediaInfo image(String url, int width, int height) {
+        return new MediaInfo(url, KIND_IMAGE, width, height, 0L);
+    }
+
+    public static MediaInfo video(String url, int width, int height, long durationMs) {
+        return new MediaInfo(url, KIND_VIDEO, width, height, durationMs);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getKind() {
+        return kind;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    /**
+     * 宽 / 高；宽高未知时返回 0
+     */
+    public float getAspectRatio() {
+        return aspectRatio(width, height);
+    }
+
+    public static float aspectRatio(int width, int height) {
+        return width > 0 && height > 0 ? (float) width / height : 0f;
+    }
+}
@@ -0,0 +1,120 @@
+package com.jessica.feedapp.perf;
+
+import android.os.Trace;
+import android.util.SparseArray;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 按卡片 viewType 统计 CardBinder 的 create / bind 耗时：
+ * - 每次 create / bind 包一层 Trace section（名字按 viewType 预先拼好，systrace / Perfetto 里直接按卡片类型区分）
+ * - 耗时记进每个 viewType 各自的 LatencyHistogram（create 一张、bind 一张）
+ * - 所有对象在 register 时创建好，测量路径上不分配
+ * - 不开启时由调用方持有 null，整条路径只剩一次判空
+ *
+ * 只在主线程使用。
+ */
+public class CardBinderProfiler {
+
+    private static final class Entry {
+        final String name;
+        final String createSection;
+        final String bindSection;
+        final LatencyHistogram create = new LatencyHistogram();
+        final LatencyHistogram bind = new LatencyHistogram();
+
+        Entry(int viewType, String name) {
+            this.name = name;
+            // Trace section 名字最长 127 个字符
+            this.createSection = truncate("FeedCard.create#" + viewType + ":" + name);
+            this.bindSection = truncate("FeedCard.bind#" + viewType + ":" + name);
+        }
+    }
+
+    private final SparseArray<Entry> entries = new SparseArray<>();
+
+    /**
+     * 注册一种卡片；同一 viewType 重复注册时覆盖名字并清空统计
+     */
+    public void register(int viewType, @NonNull String name) {
+        entries.put(viewType, new Entry(viewType, name));
+    }
+
+    /**
+     * @return 开始时间（纳秒），传给 endCreate；viewType 未注册时返回 -1
+     */
+    public long beginCreate(int viewType) {
+        Entry e = entries.get(viewType);
+        if (e == null) {
+            return -1L;
+        }
+        Trace.beginSection(e.createSection);
+        return System.nanoTime();
+    }
+
+    public void endCreate(int viewType, long startNanos) {
+        if (startNanos < 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        Trace.endSection();
+        entries.get(viewType).create.recordNanos(elapsed);
+    }
+
+    /**
+     * @return 开始时间（纳秒），传给 endBind；viewType 未注册时返回 -1
+     */
+    public long beginBind(int viewType) {
+        Entry e = entries.get(viewType);
+        if (e == null) {
+            return -1L;
+        }
+        Trace.beginSection(e.bindSection);
+        return System.nanoTime();
+    }
+
+    public void endBind(int viewType, long startNanos) {
+        if (startNanos < 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        Trace.endSection();
+        entries.get(viewType).bind.recordNanos(elapsed);
+    }
+
+    public void reset() {
+        for (int i = 0; i < entries.size(); i++) {
+            entries.valueAt(i).create.reset();
+            entries.valueAt(i).bind.reset();
+        }
+    }
+
+    /**
+     * 每种卡片一行：create / bind 的次数、p50 / p90 / p99 / max（微秒）
+     */
+    @NonNull
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < entries.size(); i++) {
+            Entry e = entries.valueAt(i);
+            sb.append("viewType=").append(entries.keyAt(i))
+                    .append(" (").append(e.name).append(")\n");
+            appendHistogram(sb, "  create", e.create);
+            appendHistogram(sb, "  bind  ", e.bind);
+        }
+        return sb.toString();
+    }
+
+    private static void appendHistogram(StringBuilder sb, String label, LatencyHistogram h) {
+        sb.append(label)
+                .append(" count=").append(h.getCount())
+                .append(" p50=").append(h.getPercentileMicros(50)).append("us")
+                .append(" p90=").append(h.getPercentileMicros(90)).append("us")
+                .append(" p99=").append(h.getPercentileMicros(99)).append("us")
+                .append(" max=").append(h.getMaxMicros()).append("us\n");
+    }
+
+    private static String truncate(String section) {
+        return section.length() <= 127 ? section : section.substring(0, 127);
+    }
+}
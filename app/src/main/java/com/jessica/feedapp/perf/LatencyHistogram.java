@@ -0,0 +1,108 @@
+package com.jessica.feedapp.perf;
+
+import java.util.Arrays;
+
+/**
+ * 固定内存的耗时直方图（对数-线性分桶，类似 HdrHistogram 的简化版）：
+ * - 单位微秒，[0, 64us) 每 1us 一个桶，之后每个 2 的幂区间再均分 32 个桶，相对误差约 3%
+ * - 上限约 67 秒，超出的记到最后一个桶
+ * - 记录只是一次下标计算 + 自增，不分配对象；整张表约 2.8KB
+ *
+ * 非线程安全，由调用方保证只在一个线程写（或自行加锁）。
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;          // 每个区间的子桶数
+    private static final int MAX_MSB = 25;                        // 最大值 < 2^26 us
+    private static final int BUCKET_COUNT = (MAX_MSB - SUB_BITS + 2) * SUB_COUNT;
+    private static final long MAX_MICROS = (1L << (MAX_MSB + 1)) - 1;
+
+    private final int[] counts = new int[BUCKET_COUNT];
+    private long totalCount;
+    private long totalMicros;
+    private long maxMicros;
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1_000L);
+    }
+
+    public void recordMicros(long micros) {
+        long v = Math.max(0L, Math.min(micros, MAX_MICROS));
+        counts[indexOf(v)]++;
+        totalCount++;
+        totalMicros += v;
+        if (v > maxMicros) {
+            maxMicros = v;
+        }
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    public long getMeanMicros() {
+        return totalCount == 0 ? 0L : totalMicros / totalCount;
+    }
+
+    /**
+     * @param percentile 0~100，比如 99 表示 p99
+     * @return 对应分位所在桶的上界（微秒），没有数据时返回 0
+     */
+    public long getPercentileMicros(double percentile) {
+        if (totalCount == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(totalCount * Math.max(0d, Math.min(percentile, 100d)) / 100d);
+        rank = Math.max(1L, rank);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    /** 把 other 的数据累加进来 */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalMicros += other.totalMicros;
+        if (other.maxMicros > maxMicros) {
+            maxMicros = other.maxMicros;
+        }
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        totalMicros = 0;
+        maxMicros = 0;
+    }
+
+    private static int indexOf(long v) {
+        if (v < 2 * SUB_COUNT) {
+            return (int) v;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(v);
+        int shift = msb - SUB_BITS;
+        return (shift + 1) * SUB_COUNT + (int) (v >>> shift) - SUB_COUNT;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < 2 * SUB_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_COUNT - 1;
+        long sub = index % SUB_COUNT + SUB_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+}
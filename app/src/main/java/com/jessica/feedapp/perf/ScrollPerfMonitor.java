@@ -0,0 +1,227 @@
+package com.jessica.feedapp.perf;
+
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * 列表滑动流畅度监控（每次滑动一个 session：离开 IDLE 开始，回到 IDLE 结束）：
+ * - 只在 session 期间挂 Choreographer 帧回调，用相邻两帧的 frameTimeNanos 之差作为帧间隔，
+ *   静止时没有任何开销
+ * - 帧间隔记进固定内存的 LatencyHistogram，session 结束时输出 p50 / p90 / p99 / max
+ * - 超过 1.5 倍 vsync 的帧记为卡顿帧，同时统计卡顿帧时屏幕上各 viewType 的卡片数，定位是哪种卡片拖慢了帧
+ * - 每帧只做一次减法 + 直方图自增，卡顿帧才遍历一次 child，可以在线上常开
+ *
+ * 注意：Choreographer 帧间隔反映的是主线程的帧节奏（measure / layout / bind 等），
+ * RenderThread / GPU 侧的耗时看不到；minSdk 23 没有 FrameMetrics，所以统一用这种方式。
+ *
+ * 只在主线程使用。
+ */
+public class ScrollPerfMonitor {
+
+    private static final String TAG = "ScrollPerf";
+
+    // viewType 在 [0, MAX_TRACKED_VIEW_TYPES) 内的单独统计，其它（比如 footer）归到 other
+    public static final int MAX_TRACKED_VIEW_TYPES = 8;
+    private static final float JANK_FACTOR = 1.5f;
+    private static final long DEFAULT_FRAME_NANOS = 16_666_667L;
+
+    /**
+     * 一次滑动 session 的结果
+     */
+    public static final class SessionReport {
+        public final long durationMs;
+        public final long frameCount;
+        public final long p50Micros;
+        public final long p90Micros;
+        public final long p99Micros;
+        public final long maxMicros;
+        public final int jankCount;
+        /** 卡顿帧时屏幕上各 viewType 的卡片数（累加），下标即 viewType */
+        public final int[] jankViewTypeCounts;
+        /** 卡顿帧时屏幕上 viewType 不在统计范围内的卡片数 */
+        public final int jankOtherViewTypeCount;
+
+        SessionReport(long durationMs,
+                      LatencyHistogram histogram,
+                      int jankCount,
+                      int[] jankViewTypeCounts,
+                      int jankOtherViewTypeCount) {
+            this.durationMs = durationMs;
+            this.frameCount = histogram.getCount();
+            this.p50Micros = histogram.getPercentileMicros(50);
+            this.p90Micros = histogram.getPercentileMicros(90);
+            this.p99Micros = histogram.getPercentileMicros(99);
+            this.maxMicros = histogram.getMaxMicros();
+            this.jankCount = jankCount;
+            this.jankViewTypeCounts = jankViewTypeCounts;
+            this.jankOtherViewTypeCount = jankOtherViewTypeCount;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("duration=").append(durationMs).append("ms")
+                    .append(" frames=").append(frameCount)
+                    .append(" p50=").append(p50Micros / 1000f).append("ms")
+                    .append(" p90=").append(p90Micros / 1000f).append("ms")
+                    .append(" p99=").append(p99Micros / 1000f).append("ms")
+                    .append(" max=").append(maxMicros / 1000f).append("ms")
+                    .append(" jank=").append(jankCount);
+            if (jankCount > 0) {
+                sb.append(" jankViewTypes={");
+                boolean first = true;
+                for (int type = 0; type < jankViewTypeCounts.length; type++) {
+                    if (jankViewTypeCounts[type] == 0) {
+                        continue;
+                    }
+                    if (!first) {
+                        sb.append(", ");
+                    }
+                    sb.append(type).append('=').append(jankViewTypeCounts[type]);
+                    first = false;
+                }
+                if (jankOtherViewTypeCount > 0) {
+                    sb.append(first ? "" : ", ").append("other=").append(jankOtherViewTypeCount);
+                }
+                sb.append('}');
+            }
+            return sb.toString();
+        }
+    }
+
+    public interface ReportListener {
+        void onScrollSessionReport(@NonNull SessionReport report);
+    }
+
+    private final RecyclerView recyclerView;
+    private final Choreographer choreographer = Choreographer.getInstance();
+    private final Choreographer.FrameCallback frameCallback = this::onFrame;
+    @Nullable
+    private ReportListener reportListener;
+
+    // ===== 当前 session =====
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final int[] jankViewTypeCounts = new int[MAX_TRACKED_VIEW_TYPES];
+    private int jankOtherViewTypeCount;
+    private int jankCount;
+    private boolean inSession = false;
+    private long sessionStartNanos;
+    private long lastFrameNanos;
+    private long jankThresholdNanos;
+
+    private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrollStateChanged(@NonNull RecyclerView rv, int newState) {
+            if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                endSession();
+            } else {
+                startSession();
+            }
+        }
+    };
+
+    public ScrollPerfMonitor(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(scrollListener);
+    }
+
+    public void setReportListener(@Nullable ReportListener reportListener) {
+        this.reportListener = reportListener;
+    }
+
+    public void release() {
+        recyclerView.removeOnScrollListener(scrollListener);
+        if (inSession) {
+            choreographer.removeFrameCallback(frameCallback);
+            inSession = false;
+        }
+    }
+
+    private void startSession() {
+        if (inSession) {
+            return; // DRAGGING -> SETTLING 仍是同一个 session
+        }
+        inSession = true;
+        histogram.reset();
+        Arrays.fill(jankViewTypeCounts, 0);
+        jankOtherViewTypeCount = 0;
+        jankCount = 0;
+        sessionStartNanos = System.nanoTime();
+        lastFrameNanos = 0L;
+        jankThresholdNanos = (long) (frameIntervalNanos() * JANK_FACTOR);
+        choreographer.postFrameCallback(frameCallback);
+    }
+
+    private void endSession() {
+        if (!inSession) {
+            return;
+        }
+        inSession = false;
+        choreographer.removeFrameCallback(frameCallback);
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        SessionReport report = new SessionReport(
+                (System.nanoTime() - sessionStartNanos) / 1_000_000L,
+                histogram,
+                jankCount,
+                jankViewTypeCounts.clone(),
+                jankOtherViewTypeCount);
+        Log.i(TAG, report.toString());
+        ReportListener l = reportListener;
+        if (l != null) {
+            l.onScrollSessionReport(report);
+        }
+    }
+
+    private void onFrame(long frameTimeNanos) {
+        if (!inSession) {
+            return;
+        }
+        if (lastFrameNanos != 0L) {
+            long interval = frameTimeNanos - lastFrameNanos;
+            histogram.recordNanos(interval);
+            if (interval > jankThresholdNanos) {
+                jankCount++;
+                sampleViewTypes();
+            }
+        }
+        lastFrameNanos = frameTimeNanos;
+        choreographer.postFrameCallback(frameCallback);
+    }
+
+    /**
+     * 卡顿帧：统计屏幕上各 viewType 的卡片数
+     */
+    private void sampleViewTypes() {
+        int childCount = recyclerView.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            View child = recyclerView.getChildAt(i);
+            RecyclerView.ViewHolder holder = recyclerView.getChildViewHolder(child);
+            if (holder == null) {
+                continue;
+            }
+            int type = holder.getItemViewType();
+            if (type >= 0 && type < MAX_TRACKED_VIEW_TYPES) {
+                jankViewTypeCounts[type]++;
+            } else {
+                jankOtherViewTypeCount++;
+            }
+        }
+    }
+
+    private long frameIntervalNanos() {
+        Display display = recyclerView.getDisplay();
+        float refreshRate = display != null ? display.getRefreshRate() : 0f;
+        return refreshRate > 1f ? (long) (1_000_000_000L / refreshRate) : DEFAULT_FRAME_NANOS;
+    }
+}
@@ -0,0 +1,296 @@
+package com.jessica.feedapp.perf;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.pm.PackageInfoCompat;
+
+import com.jessica.feedapp.work.FeedWorkScheduler;
+import com.jessica.feedapp.work.WorkLane;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 启动耗时时间线：
+ * - begin / end 记录各初始化阶段（可嵌套，同时打 Trace section，systrace 里也能看到）
+ * - mark 记录关键时间点（首帧、首个卡片 bind、缓存内容展示、网络内容展示），同名只记第一次
+ * - 所有时间都相对于启动起点：冷启动且 API 24+ 用进程创建时间，否则用 Activity onCreate 时间；
+ *   进程创建到 onCreate 间隔超过 MAX_PROCESS_START_GAP_MS 说明进程是别的原因拉起的（预启动、
+ *   广播、备份等），这时进程创建时间不代表用户点击，也改用 onCreate 时间
+ * - finish 后在 FeedWorkScheduler 的 CACHE_PERSIST 通道把本次启动写成一行 JSON，
+ *   追加到 filesDir/startup/startup_traces.jsonl，只保留最近 MAX_RECORDS 条，方便不同版本之间对比
+ *
+ * 只在主线程使用（写文件除外）。
+ */
+public final class StartupTracer {
+
+    private static final String TAG = "StartupTracer";
+
+    // ===== 阶段 =====
+    public static final String PHASE_SET_CONTENT_VIEW = "set_content_view";
+    public static final String PHASE_INIT_VIEWS = "init_views";
+    public static final String PHASE_INIT_CORE = "init_core_components";
+    public static final String PHASE_CACHE_MANAGER_INIT = "cache_manager_init";
+    public static final String PHASE_VIDEO_MANAGER_INIT = "video_manager_init";
+    public static final String PHASE_INIT_RECYCLER = "init_recycler";
+    public static final String PHASE_INIT_REFRESH = "init_refresh";
+    public static final String PHASE_INIT_EXPOSURE = "init_exposure_tracker";
+    public static final String PHASE_START_CONTENT = "start_with_cache";
+    public static final String PHASE_CACHE_DECODE = "cache_decode";
+
+    // ===== 关键时间点 =====
+    public static final String MILESTONE_FIRST_FRAME = "first_frame";
+    public static final String MILESTONE_FIRST_CARD_BOUND = "first_card_bound";
+    public static final String MILESTONE_CACHE_CONTENT_SHOWN = "cache_content_shown";
+    public static final String MILESTONE_NETWORK_CONTENT_SHOWN = "network_content_shown";
+
+    private static final int MAX_PHASES = 32;
+    private static final int MAX_MILESTONES = 8;
+    private static final int MAX_RECORDS = 30;
+    // 进程创建到第一个 Activity onCreate 的最大间隔，超过就不算“由这次启动拉起的进程”
+    private static final long MAX_PROCESS_START_GAP_MS = 5_000L;
+    private static final String DIR_NAME = "startup";
+    private static final String FILE_NAME = "startup_traces.jsonl";
+
+    // 同一进程里只有第一次 onCreate 算冷启动
+    private static boolean processStartConsumed = false;
+    // 写文件串行化
+    private static final Object FILE_LOCK = new Object();
+
+    private final Context appContext;
+    private final boolean coldStart;
+    private final boolean fromProcessStart;
+    private final long originNanos;
+    private final long wallClockMs = System.currentTimeMillis();
+
+    private final String[] phaseNames = new String[MAX_PHASES];
+    private final long[] phaseStartNanos = new long[MAX_PHASES];
+    private final long[] phaseEndNanos = new long[MAX_PHASES];
+    private int phaseCount = 0;
+    // 未结束阶段的下标栈
+    private final int[] openPhases = new int[MAX_PHASES];
+    private int openCount = 0;
+
+    private final String[] milestoneNames = new String[MAX_MILESTONES];
+    private final long[] milestoneNanos = new long[MAX_MILESTONES];
+    private int milestoneCount = 0;
+
+    private boolean finished = false;
+
+    /**
+     * @param firstCreate savedInstanceState == null（不是重建）
+     */
+    public StartupTracer(@NonNull Context context, boolean firstCreate) {
+        this.appContext = context.getApplicationContext();
+        long now = SystemClock.elapsedRealtimeNanos();
+        this.coldStart = firstCreate && !processStartConsumed;
+        processStartConsumed = true;
+        long processStartNanos = coldStart && Build.VERSION.SDK_INT >= Build.VERSION_CODES.N
+                ? Process.getStartElapsedRealtime() * 1_000_000L
+                : -1L;
+        long gapNanos = now - processStartNanos;
+        if (processStartNanos > 0 && gapNanos <= MAX_PROCESS_START_GAP_MS * 1_000_000L) {
+            this.originNanos = processStartNanos;
+            this.fromProcessStart = true;
+        } else {
+            this.originNanos = now;
+            this.fromProcessStart = false;
+        }
+    }
+
+    public void begin(@NonNull String phase) {
+        if (finished || phaseCount == MAX_PHASES) {
+            return;
+        }
+        int index = phaseCount++;
+        phaseNames[index] = phase;
+        phaseStartNanos[index] = SystemClock.elapsedRealtimeNanos();
+        phaseEndNanos[index] = -1L;
+        openPhases[openCount++] = index;
+        Trace.beginSection(phase);
+    }
+
+    /** 结束最近一个 begin 的阶段 */
+    public void end() {
+        if (openCount == 0) {
+            return;
+        }
+        int index = openPhases[--openCount];
+        phaseEndNanos[index] = SystemClock.elapsedRealtimeNanos();
+        Trace.endSection();
+    }
+
+    public void mark(@NonNull String milestone) {
+        if (finished || milestoneCount == MAX_MILESTONES) {
+            return;
+        }
+        for (int i = 0; i < milestoneCount; i++) {
+            if (milestoneNames[i].equals(milestone)) {
+                return;
+            }
+        }
+        milestoneNames[milestoneCount] = milestone;
+        milestoneNanos[milestoneCount] = SystemClock.elapsedRealtimeNanos();
+        milestoneCount++;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * 结束本次记录并异步写入本地；重复调用无效
+     */
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        while (openCount > 0) {
+            end();
+        }
+        finished = true;
+        final String record = toJson();
+        Log.i(TAG, record);
+        FeedWorkScheduler.getDefault()
+                .submit(WorkLane.CACHE_PERSIST, null, () -> append(appContext, record));
+    }
+
+    /**
+     * 放弃本次记录，不写入本地（比如配置变更重建，不算一次启动）
+     */
+    public void cancel() {
+        while (openCount > 0) {
+            end();
+        }
+        finished = true;
+    }
+
+    /**
+     * 读取本地保存的启动记录（每条一行 JSON，旧的在前）。会读文件，不要在主线程调用。
+     */
+    @NonNull
+    public static List<String> readRecords(@NonNull Context context) {
+        synchronized (FILE_LOCK) {
+            return readLines(new File(new File(context.getFilesDir(), DIR_NAME), FILE_NAME));
+        }
+    }
+
+    private String toJson() {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("{\"ts\":").append(wallClockMs);
+        appendVersion(sb);
+        sb.append(",\"sdk\":").append(Build.VERSION.SDK_INT)
+                .append(",\"device\":\"").append(escape(Build.MODEL)).append('"')
+                .append(",\"cold\":").append(coldStart)
+                .append(",\"fromProcessStart\":").append(fromProcessStart);
+
+        sb.append(",\"phases\":[");
+        for (int i = 0; i < phaseCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"name\":\"").append(phaseNames[i])
+                    .append("\",\"startMs\":").append(toMs(phaseStartNanos[i] - originNanos))
+                    .append(",\"durMs\":").append(toMs(phaseEndNanos[i] - phaseStartNanos[i]))
+                    .append('}');
+        }
+        sb.append("],\"milestones\":{");
+        for (int i = 0; i < milestoneCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"').append(milestoneNames[i]).append("\":")
+                    .append(toMs(milestoneNanos[i] - originNanos));
+        }
+        sb.append("}}");
+        return sb.toString();
+    }
+
+    private void appendVersion(StringBuilder sb) {
+        try {
+            PackageInfo info = appContext.getPackageManager()
+                    .getPackageInfo(appContext.getPackageName(), 0);
+            sb.append(",\"versionName\":\"").append(escape(info.versionName)).append('"')
+                    .append(",\"versionCode\":").append(PackageInfoCompat.getLongVersionCode(info));
+        } catch (PackageManager.NameNotFoundException e) {
+            Log.w(TAG, "appendVersion: package info not found", e);
+        }
+    }
+
+    private static void append(Context context, String record) {
+        synchronized (FILE_LOCK) {
+            File dir = new File(context.getFilesDir(), DIR_NAME);
+            if (!dir.exists() && !dir.mkdirs()) {
+                Log.e(TAG, "append: mkdirs failed " + dir);
+                return;
+            }
+            File file = new File(dir, FILE_NAME);
+            List<String> lines = readLines(file);
+            lines.add(record);
+            int from = Math.max(0, lines.size() - MAX_RECORDS);
+
+            // 写临时文件再 rename，写一半被杀不会破坏旧记录
+            File tmp = new File(dir, FILE_NAME + ".tmp");
+            try (OutputStream out = new FileOutputStream(tmp)) {
+                for (int i = from; i < lines.size(); i++) {
+                    out.write(lines.get(i).getBytes(StandardCharsets.UTF_8));
+                    out.write('\n');
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "append: write failed", e);
+                return;
+            }
+            if (!tmp.renameTo(file)) {
+                Log.e(TAG, "append: rename failed " + tmp);
+            }
+        }
+    }
+
+    private static List<String> readLines(File file) {
+        if (!file.exists()) {
+            return new ArrayList<>();
+        }
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    lines.add(line);
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "readLines: error", e);
+            return new ArrayList<>();
+        }
+        return lines;
+    }
+
+    private static double toMs(long nanos) {
+        // 保留 0.1ms 精度
+        return Math.round(nanos / 100_000d) / 10d;
+    }
+
+    private static String escape(String s) {
+        if (s == null) {
+            return "";
+        }
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,31 @@
+package com.jessica.feedapp.player;
+
+/**
+ * 自动播放策略（可插拔）：
+ * - 输入：本轮可见的视频卡片 id 及其可见比例（来自 ExposureTracker）
+ * - 输出：此刻应该播放的 itemId
+ * 策略可以有内部状态（防抖计时、当前候选等），由调用方在滚动开始时 reset。
+ */
+public interface AutoPlayPolicy {
+
+    /** 没有可播放的卡片 */
+    long NO_ITEM = -1L;
+
+    /**
+     * @param itemIds   本轮可见的视频卡片 id
+     * @param ratios    对应的可见比例 [0,1]
+     * @param count     有效元素个数
+     * @param playingId 当前（或上一次）在播的 itemId，没有则为 NO_ITEM，用于切换迟滞
+     * @param nowMs     当前时间（SystemClock.uptimeMillis）
+     * @return 此刻应该播放的 itemId；NO_ITEM 表示不播放
+     */
+    long choose(long[] itemIds, float[] ratios, int count, long playingId, long nowMs);
+
+    /**
+     * @return 距离下一次需要重新评估还有多少毫秒（防抖等待中）；不需要则返回 -1
+     */
+    long nextEvaluationDelayMs(long nowMs);
+
+    /** 清空内部状态（比如用户重新开始拖动） */
+    void reset();
+}
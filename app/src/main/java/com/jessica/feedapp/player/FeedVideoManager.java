@@ -1,70 +1,189 @@
 package com.jessica.feedapp.player;
 
 import android.content.Context;
+import android.graphics.SurfaceTexture;
 import android.net.Uri;
+import android.view.LayoutInflater;
+import android.view.Surface;
+import android.view.TextureView;
+import android.view.ViewGroup;
+import android.view.ViewParent;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.google.android.exoplayer2.ExoPlayer;
 import com.google.android.exoplayer2.MediaItem;
 import com.google.android.exoplayer2.Player;
 import com.google.android.exoplayer2.ui.PlayerView;
-import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.R;
 
 /**
  * 单实例视频播放器管理器：
- * - 只维护一个 ExoPlayer
- * - 可绑定到任意一个视频卡片的 PlayerView 上
+ * - 只维护一个 ExoPlayer + 一个共享的 PlayerView
+ * - 视频卡片只提供一个轻量的占位容器（video_container），
+ *   播放时把共享 PlayerView 挂（re-parent）到当前卡片的容器里
+ * - 播放器与 PlayerView 的绑定只做一次，切换卡片不再 setPlayer(null)/setPlayer(player)
+ * - 渲染用的 TextureView 由这里自己管理（PlayerView 的 surface_type 为 none）：
+ *   搬运时 TextureView 会 detach，默认会销毁 SurfaceTexture、播放器跟着换 Surface；
+ *   这里在 onSurfaceTextureDestroyed 里保留它，重新挂上前 setSurfaceTexture 放回去，
+ *   播放器从头到尾只看到同一个 Surface，切换 / 回收卡片都不会重建解码输出
  * - 支持手动点击播放/暂停
  * - 支持根据 itemId 执行自动播放/暂停（给曝光事件用）
+ * - 播放器跟随 FeedViewModel 跨配置变更存活；PlayerView 属于界面，随 Activity attachView / detachView
  */
 public class FeedVideoManager {
 
     private final ExoPlayer player;
 
-    // 当前绑定的 View & itemId
-    private PlayerView currentPlayerView;
+    // 全局唯一的 PlayerView，在各个视频卡片的占位容器之间搬运；没有界面 attach 时为 null
+    @Nullable
+    private PlayerView sharedPlayerView;
+
+    // 共享 PlayerView 里的渲染 View，以及跨搬运保留的 SurfaceTexture 和给播放器的 Surface
+    @Nullable
+    private TextureView textureView;
+    @Nullable
+    private SurfaceTexture keptSurfaceTexture;
+    @Nullable
+    private Surface videoSurface;
+    private final TextureView.SurfaceTextureListener surfaceListener =
+            new TextureView.SurfaceTextureListener() {
+                @Override
+                public void onSurfaceTextureAvailable(@NonNull SurfaceTexture surfaceTexture,
+                                                      int width, int height) {
+                    // 只有第一次挂上（或者保留的那份丢了）时才会走到这里
+                    useSurfaceTexture(surfaceTexture);
+                }
+
+                @Override
+                public void onSurfaceTextureSizeChanged(@NonNull SurfaceTexture surfaceTexture,
+                                                        int width, int height) {
+                }
+
+                @Override
+                public boolean onSurfaceTextureDestroyed(@NonNull SurfaceTexture surfaceTexture) {
+                    // 从容器上摘下来：不让 TextureView 释放，下次挂载时接着用；真正释放在 releaseSurface
+                    return surfaceTexture != keptSurfaceTexture;
+                }
+
+                @Override
+                public void onSurfaceTextureUpdated(@NonNull SurfaceTexture surfaceTexture) {
+                }
+            };
+
+    // 当前挂载的容器 & 当前播放的 itemId
+    private ViewGroup currentContainer;
     private long currentItemId = -1L;
 
+    // 进程恢复时要续播的视频：绑定到同一条时先 seek 再 prepare
+    private long pendingSeekItemId = -1L;
+    private long pendingSeekPositionMs = 0L;
+
     public FeedVideoManager(@NonNull Context context) {
         player = new ExoPlayer.Builder(context.getApplicationContext()).build();
         player.setRepeatMode(Player.REPEAT_MODE_OFF);
     }
 
     /**
-     * 手动或自动绑定到指定卡片并播放（会替换之前的绑定）
+     * Activity 创建后调用：创建共享 PlayerView 并绑定播放器
      */
-    public void bindAndPlay(@NonNull PlayerView playerView, @NonNull FeedItem item) {
-        String videoUrl = item.getImageUrl(); // 这里把 imageUrl 当作视频 URL 使用
-        if (videoUrl == null || videoUrl.isEmpty()) {
-            playerView.setPlayer(null);
+    public void attachView(@NonNull Context activityContext) {
+        detachView();
+        // PlayerView 属于 View，需要用 Activity 的 context 创建（主题等）
+        PlayerView view = (PlayerView) LayoutInflater.from(activityContext)
+                .inflate(R.layout.view_feed_shared_player, null, false);
+        view.setPlayer(player);
+        TextureView texture = new TextureView(activityContext);
+        texture.setSurfaceTextureListener(surfaceListener);
+        ViewGroup contentFrame = view.findViewById(com.google.android.exoplayer2.ui.R.id.exo_content_frame);
+        contentFrame.addView(texture, 0, new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.MATCH_PARENT
+        ));
+        textureView = texture;
+        // 点击视频区域：对当前播放的视频做暂停/继续
+        view.setOnClickListener(v ->
+                player.setPlayWhenReady(!player.getPlayWhenReady())
+        );
+        sharedPlayerView = view;
+    }
+
+    /**
+     * Activity 销毁时调用：摘掉并丢弃 PlayerView 和 Surface，避免持有旧 Activity；播放器和已加载的数据保留
+     */
+    public void detachView() {
+        if (sharedPlayerView == null) {
             return;
         }
+        detachFromContainer();
+        releaseSurface();
+        sharedPlayerView.setPlayer(null);
+        sharedPlayerView = null;
+        textureView = null;
+    }
 
-        // 如果之前有绑定到别的 View，先解绑
-        if (currentPlayerView != null && currentPlayerView != playerView) {
-            currentPlayerView.setPlayer(null);
+    /**
+     * 进程恢复：下次绑定到 itemId 时从 positionMs 开始播放
+     */
+    public void restorePlayback(long itemId, long positionMs) {
+        pendingSeekItemId = itemId;
+        pendingSeekPositionMs = Math.max(0L, positionMs);
+    }
+
+    public long getCurrentItemId() {
+        return currentItemId;
+    }
+
+    public long getCurrentPositionMs() {
+        return currentItemId >= 0 ? player.getCurrentPosition() : 0L;
+    }
+
+    /**
+     * 手动或自动绑定到指定卡片并播放（会替换之前的绑定）
+     */
+    public void bindAndPlay(@NonNull ViewGroup container, long itemId, @Nullable String videoUrl) {
+        // videoUrl 来自卡片的 MediaInfo（KIND_VIDEO）
+        if (videoUrl == null || videoUrl.isEmpty()) {
+            if (container == currentContainer) {
+                detachFromContainer();
+            }
+            return;
         }
 
-        currentPlayerView = playerView;
-        currentItemId = item.getId();
+        attachToContainer(container);
 
-        playerView.setPlayer(player);
+        if (itemId != currentItemId) {
+            // 换了一条视频：重新设置数据源
+            currentItemId = itemId;
+            MediaItem mediaItem = MediaItem.fromUri(Uri.parse(videoUrl));
+            if (pendingSeekItemId == currentItemId) {
+                player.setMediaItem(mediaItem, pendingSeekPositionMs);
+            } else {
+                player.setMediaItem(mediaItem);
+            }
+            pendingSeekItemId = -1L;
+            player.prepare();
+        } else if (player.getPlaybackState() == Player.STATE_IDLE) {
+            // 同一条视频但播放器被 stop 过（比如出错），重新 prepare
+            player.prepare();
+        } else if (player.getPlaybackState() == Player.STATE_ENDED) {
+            // 同一条视频已播完，从头再播
+            player.seekTo(0);
+        }
+        // 同一条视频且还在缓冲/就绪：直接续播，不重新加载
 
-        MediaItem mediaItem = MediaItem.fromUri(Uri.parse(videoUrl));
-        player.setMediaItem(mediaItem);
-        player.prepare();
         player.setPlayWhenReady(true);
     }
 
     /**
      * 点击当前卡片时的播放/暂停切换。
      */
-    public void togglePlay(@NonNull PlayerView playerView, @NonNull FeedItem item) {
-        if (playerView == currentPlayerView && item.getId() == currentItemId) {
+    public void togglePlay(@NonNull ViewGroup container, long itemId, @Nullable String videoUrl) {
+        if (container == currentContainer && itemId == currentItemId) {
             player.setPlayWhenReady(!player.getPlayWhenReady());
         } else {
-            bindAndPlay(playerView, item);
+            bindAndPlay(container, itemId, videoUrl);
         }
     }
 
@@ -85,23 +204,86 @@ public class FeedVideoManager {
     }
 
     /**
-     * ViewHolder 被回收（滚出屏幕）时调用，停止播放并解绑 View。
+     * ViewHolder 被回收（滚出屏幕）时调用：
+     * 暂停并把共享 PlayerView 从该卡片容器上摘下来。
+     * 播放器本身和已加载的数据保留，同一条视频再次出现时可直接续播。
      */
-    public void onViewRecycled(@NonNull PlayerView playerView) {
-        if (playerView == currentPlayerView) {
+    public void onViewRecycled(@NonNull ViewGroup container) {
+        if (container == currentContainer) {
             player.setPlayWhenReady(false);
-            playerView.setPlayer(null);
-            currentPlayerView = null;
-            currentItemId = -1L;
+            detachFromContainer();
         }
     }
 
     /**
-     * Activity.onDestroy 时调用，释放播放器资源。
+     * FeedViewModel.onCleared 时调用，释放播放器资源。
      */
     public void release() {
-        currentPlayerView = null;
+        detachView();
         currentItemId = -1L;
         player.release();
     }
+
+    // ===== 共享 PlayerView 的挂载 / 摘除 =====
+
+    private void attachToContainer(@NonNull ViewGroup container) {
+        if (sharedPlayerView == null) {
+            return;
+        }
+        ViewParent parent = sharedPlayerView.getParent();
+        if (parent == container) {
+            currentContainer = container;
+            return;
+        }
+        if (parent instanceof ViewGroup) {
+            ((ViewGroup) parent).removeView(sharedPlayerView);
+        }
+        // 摘下来时 TextureView 丢掉了对 SurfaceTexture 的引用，attach 之前放回去，
+        // 这样不会新建 SurfaceTexture，播放器的 Surface 也不用换
+        if (textureView != null && keptSurfaceTexture != null
+                && textureView.getSurfaceTexture() != keptSurfaceTexture) {
+            textureView.setSurfaceTexture(keptSurfaceTexture);
+        }
+        container.addView(sharedPlayerView, new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.MATCH_PARENT
+        ));
+        currentContainer = container;
+    }
+
+    private void detachFromContainer() {
+        if (sharedPlayerView == null) {
+            currentContainer = null;
+            return;
+        }
+        ViewParent parent = sharedPlayerView.getParent();
+        if (parent instanceof ViewGroup) {
+            ((ViewGroup) parent).removeView(sharedPlayerView);
+        }
+        currentContainer = null;
+    }
+
+    // ===== 跨搬运保留的 Surface =====
+
+    private void useSurfaceTexture(@NonNull SurfaceTexture surfaceTexture) {
+        if (surfaceTexture == keptSurfaceTexture) {
+            return;
+        }
+        releaseSurface();
+        keptSurfaceTexture = surfaceTexture;
+        videoSurface = new Surface(surfaceTexture);
+        player.setVideoSurface(videoSurface);
+    }
+
+    private void releaseSurface() {
+        if (videoSurface != null) {
+            player.clearVideoSurface(videoSurface);
+            videoSurface.release();
+            videoSurface = null;
+        }
+        if (keptSurfaceTexture != null) {
+            keptSurfaceTexture.release();
+            keptSurfaceTexture = null;
+        }
+    }
 }
@@ -0,0 +1,367 @@
+package com.jessica.feedapp.player;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.media.MediaMetadataRetriever;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.jessica.feedapp.R;
+import com.jessica.feedapp.work.CancellationToken;
+import com.jessica.feedapp.work.FeedWorkScheduler;
+import com.jessica.feedapp.work.WorkLane;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 视频封面（poster）加载器：
+ * - 后台线程用 MediaMetadataRetriever 从视频源抽一帧作为封面
+ * - 按卡片尺寸降采样后，写入内存 LruCache + 磁盘缓存（cacheDir/video_posters）
+ * - 缓存 key 基于视频 URL，同一个视频只抽一次帧
+ * - 抽帧失败的 key 在 FAILURE_TTL_MS 内不再重试（坏链接 / 断网时，来回滑动不会反复发起网络请求）
+ * - 抽帧直接读视频 URL，不经过播放器：FeedVideoManager 的 ExoPlayer 没有配磁盘媒体缓存（SimpleCache），
+ *   没有可以复用的已下载数据；每个视频只在第一次抽帧时读一次文件头部附近，之后都走封面磁盘缓存
+ * - VideoCardBinder 绑定时直接展示封面，不需要先 prepare 播放器
+ *
+ * 线程约定：load / release 只在主线程调用；抽帧、读写磁盘都在调度器的 VISIBLE_IMAGE 通道。
+ */
+public class VideoPosterLoader {
+
+    private static final String TAG = "VideoPosterLoader";
+    private static final String DISK_DIR_NAME = "video_posters";
+    private static final long DISK_CACHE_MAX_BYTES = 20L * 1024 * 1024;
+    private static final long FRAME_TIME_US = 1_000_000L; // 取第 1 秒附近的关键帧，避开片头黑帧
+    private static final int JPEG_QUALITY = 85;
+    // 抽帧失败后多久内不再重试
+    private static final long FAILURE_TTL_MS = 30_000L;
+    // 失败记录超过这个数时顺带清掉过期的
+    private static final int FAILURE_PRUNE_SIZE = 64;
+
+    private final File diskDir;
+    private final LruCache<String, Bitmap> memoryCache;
+    private final FeedWorkScheduler scheduler;
+    private final CancellationToken workToken = new CancellationToken();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // url -> 缓存 key（避免每次绑定都算一遍 MD5，只在主线程读写）
+    private final Map<String, String> keyByUrl = new HashMap<>();
+
+    // 正在加载中的 key -> 等待结果的 ImageView（只在主线程读写）
+    private final Map<String, List<WeakReference<ImageView>>> pending = new HashMap<>();
+
+    // 抽帧失败的 key -> 可以重试的时间（uptimeMillis，只在主线程读写）
+    private final Map<String, Long> failedUntil = new HashMap<>();
+
+    private volatile boolean released = false;
+
+    public VideoPosterLoader(@NonNull Context context, @NonNull FeedWorkScheduler scheduler) {
+        this.diskDir = new File(context.getApplicationContext().getCacheDir(), DISK_DIR_NAME);
+
+        // 内存缓存：最多占用 1/16 的堆
+        int maxBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 16);
+        this.memoryCache = new LruCache<String, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getByteCount();
+            }
+        };
+
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 给 target 加载 videoUrl 对应的封面。
+     * 命中内存缓存时同步设置；否则先清空，后台加载完成后再回填（期间 target 被复用则丢弃结果）。
+     *
+     * @param targetWidth  期望宽度（px），用于降采样
+     * @param targetHeight 期望高度（px），用于降采样
+     */
+    public void load(@NonNull ImageView target,
+                     @Nullable String videoUrl,
+                     int targetWidth,
+                     int targetHeight) {
+        if (videoUrl == null || videoUrl.isEmpty()) {
+            target.setTag(R.id.tag_poster_key, null);
+            target.setImageDrawable(null);
+            return;
+        }
+
+        String key = keyByUrl.get(videoUrl);
+        if (key == null) {
+            key = keyFor(videoUrl);
+            keyByUrl.put(videoUrl, key);
+        }
+        target.setTag(R.id.tag_poster_key, key);
+
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            target.setImageBitmap(cached);
+            return;
+        }
+        target.setImageDrawable(null);
+
+        Long retryAt = failedUntil.get(key);
+        if (retryAt != null) {
+            if (SystemClock.uptimeMillis() < retryAt) {
+                return; // 刚失败过，留空白封面
+            }
+            failedUntil.remove(key);
+        }
+
+        List<WeakReference<ImageView>> waiters = pending.get(key);
+        if (waiters != null) {
+            // 同一个封面已经在加载中，只登记等待者
+            waiters.add(new WeakReference<>(target));
+            return;
+        }
+        waiters = new ArrayList<>();
+        waiters.add(new WeakReference<>(target));
+        pending.put(key, waiters);
+
+        String diskKey = key;
+        // 只有已绑定的卡片才会请求封面，走可见图片通道
+        scheduler.submit(WorkLane.VISIBLE_IMAGE, workToken, () -> {
+            Bitmap bitmap = loadInBackground(diskKey, videoUrl, targetWidth, targetHeight);
+            mainHandler.post(() -> deliver(diskKey, bitmap));
+        });
+    }
+
+    /**
+     * FeedViewModel.onCleared 时调用：取消排队中的任务，清空内存缓存（磁盘缓存保留给下次启动）。
+     */
+    public void release() {
+        released = true;
+        workToken.cancel(); // 还在排队的抽帧任务直接丢弃
+        pending.clear();
+        failedUntil.clear();
+        memoryCache.evictAll();
+    }
+
+    // ===== 主线程：分发结果 =====
+
+    private void deliver(String key, @Nullable Bitmap bitmap) {
+        List<WeakReference<ImageView>> waiters = pending.remove(key);
+        if (released) {
+            return;
+        }
+        if (bitmap == null) {
+            rememberFailure(key);
+            return;
+        }
+        memoryCache.put(key, bitmap);
+        if (waiters == null) {
+            return;
+        }
+        for (WeakReference<ImageView> ref : waiters) {
+            ImageView view = ref.get();
+            // 只有 tag 仍然是这个 key 才回填，避免 ViewHolder 复用后串图
+            if (view != null && key.equals(view.getTag(R.id.tag_poster_key))) {
+                view.setImageBitmap(bitmap);
+            }
+        }
+    }
+
+    private void rememberFailure(String key) {
+        long now = SystemClock.uptimeMillis();
+        if (failedUntil.size() >= FAILURE_PRUNE_SIZE) {
+            failedUntil.values().removeIf(retryAt -> retryAt <= now);
+        }
+        failedUntil.put(key, now + FAILURE_TTL_MS);
+    }
+
+    // ===== 后台线程：磁盘缓存 / 抽帧 =====
+
+    @Nullable
+    private Bitmap loadInBackground(String key, String videoUrl, int targetWidth, int targetHeight) {
+        File file = new File(diskDir, key + ".jpg");
+        if (file.exists()) {
+            Bitmap fromDisk = decodeFromDisk(file, targetWidth, targetHeight);
+            if (fromDisk != null) {
+                return fromDisk;
+            }
+            // 文件损坏：删掉后重新抽帧
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+
+        Bitmap frame = extractFrame(videoUrl, targetWidth, targetHeight);
+        if (frame != null && !released) {
+            writeToDisk(file, frame);
+        }
+        return frame;
+    }
+
+    @Nullable
+    private Bitmap extractFrame(String videoUrl, int targetWidth, int targetHeight) {
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            if (videoUrl.startsWith("http://") || videoUrl.startsWith("https://")) {
+                retriever.setDataSource(videoUrl, new HashMap<>());
+            } else {
+                retriever.setDataSource(videoUrl);
+            }
+
+            Bitmap frame;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
+                // API 27+ 解码时直接缩放，避免先解出整帧
+                frame = retriever.getScaledFrameAtTime(
+                        FRAME_TIME_US,
+                        MediaMetadataRetriever.OPTION_CLOSEST_SYNC,
+                        targetWidth,
+                        targetHeight
+                );
+            } else {
+                Bitmap full = retriever.getFrameAtTime(
+                        FRAME_TIME_US,
+                        MediaMetadataRetriever.OPTION_CLOSEST_SYNC
+                );
+                frame = scaleToFit(full, targetWidth, targetHeight);
+            }
+            return frame;
+        } catch (Exception e) {
+            Log.e(TAG, "extractFrame: error, url=" + videoUrl, e);
+            return null;
+        } finally {
+            try {
+                retriever.release();
+            } catch (Exception ignored) {
+                // release 在部分机型上会抛 IOException，这里忽略
+            }
+        }
+    }
+
+    @Nullable
+    private static Bitmap scaleToFit(@Nullable Bitmap src, int targetWidth, int targetHeight) {
+        if (src == null || targetWidth <= 0 || targetHeight <= 0) {
+            return src;
+        }
+        float scale = Math.min(
+                targetWidth * 1f / src.getWidth(),
+                targetHeight * 1f / src.getHeight()
+        );
+        if (scale >= 1f) {
+            return src;
+        }
+        Bitmap scaled = Bitmap.createScaledBitmap(
+                src,
+                Math.max(1, Math.round(src.getWidth() * scale)),
+                Math.max(1, Math.round(src.getHeight() * scale)),
+                true
+        );
+        if (scaled != src) {
+            src.recycle();
+        }
+        return scaled;
+    }
+
+    @Nullable
+    private static Bitmap decodeFromDisk(File file, int targetWidth, int targetHeight) {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getPath(), bounds);
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            return null;
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = calculateInSampleSize(
+                bounds.outWidth, bounds.outHeight, targetWidth, targetHeight);
+        options.inPreferredConfig = Bitmap.Config.RGB_565; // 封面不需要透明通道
+        return BitmapFactory.decodeFile(file.getPath(), options);
+    }
+
+    private static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+        if (reqWidth <= 0 || reqHeight <= 0) {
+            return inSampleSize;
+        }
+        while ((width / (inSampleSize * 2)) >= reqWidth
+                && (height / (inSampleSize * 2)) >= reqHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    private void writeToDisk(File file, Bitmap bitmap) {
+        if (!diskDir.exists() && !diskDir.mkdirs()) {
+            Log.e(TAG, "writeToDisk: mkdirs failed, dir=" + diskDir);
+            return;
+        }
+        File tmp = new File(diskDir, file.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+        } catch (Exception e) {
+            Log.e(TAG, "writeToDisk: error", e);
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            return;
+        }
+        // 先写临时文件再 rename，避免进程被杀时留下半个文件
+        if (!tmp.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            return;
+        }
+        trimDiskCache();
+    }
+
+    /**
+     * 磁盘缓存超过上限时，按最后修改时间从旧到新删除
+     */
+    private void trimDiskCache() {
+        File[] files = diskDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        long total = 0;
+        for (File f : files) {
+            total += f.length();
+        }
+        if (total <= DISK_CACHE_MAX_BYTES) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File f : files) {
+            if (total <= DISK_CACHE_MAX_BYTES) {
+                break;
+            }
+            long len = f.length();
+            if (f.delete()) {
+                total -= len;
+            }
+        }
+    }
+
+    private static String keyFor(String videoUrl) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[] hash = digest.digest(videoUrl.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            return Integer.toHexString(videoUrl.hashCode());
+        }
+    }
+}
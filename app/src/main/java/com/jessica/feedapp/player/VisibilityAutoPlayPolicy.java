@@ -0,0 +1,94 @@
+package com.jessica.feedapp.player;
+
+/**
+ * 基于可见比例的默认自动播放策略：
+ * - 阈值：可见比例低于 minVisibleFraction 的视频不参与自动播放
+ * - 防抖：新候选需要连续保持 dwellMs 才真正开始播放，快速划过的视频不会 prepare
+ * - 迟滞：当前在播的视频仍满足阈值时，新候选的可见比例要高出 switchHysteresis 才切换；
+ *   门槛最高到 1.0（完全可见），在播视频已经部分划出屏幕时，完全可见的候选总能换上来
+ */
+public class VisibilityAutoPlayPolicy implements AutoPlayPolicy {
+
+    public static final float DEFAULT_MIN_VISIBLE_FRACTION = 0.6f;
+    public static final long DEFAULT_DWELL_MS = 300L;
+    public static final float DEFAULT_SWITCH_HYSTERESIS = 0.2f;
+
+    private final float minVisibleFraction;
+    private final long dwellMs;
+    private final float switchHysteresis;
+
+    // 正在“防抖等待”的候选
+    private long pendingId = NO_ITEM;
+    private long pendingSinceMs;
+
+    public VisibilityAutoPlayPolicy() {
+        this(DEFAULT_MIN_VISIBLE_FRACTION, DEFAULT_DWELL_MS, DEFAULT_SWITCH_HYSTERESIS);
+    }
+
+    public VisibilityAutoPlayPolicy(float minVisibleFraction, long dwellMs, float switchHysteresis) {
+        this.minVisibleFraction = minVisibleFraction;
+        this.dwellMs = dwellMs;
+        this.switchHysteresis = switchHysteresis;
+    }
+
+    @Override
+    public long choose(long[] itemIds, float[] ratios, int count, long playingId, long nowMs) {
+        // 找出可见比例最大的候选，以及当前在播视频的可见比例
+        long bestId = NO_ITEM;
+        float bestRatio = 0f;
+        float playingRatio = 0f;
+        for (int i = 0; i < count; i++) {
+            float ratio = ratios[i];
+            if (itemIds[i] == playingId) {
+                playingRatio = ratio;
+            }
+            if (ratio >= minVisibleFraction && ratio > bestRatio) {
+                bestRatio = ratio;
+                bestId = itemIds[i];
+            }
+        }
+
+        boolean playingStillValid = playingId != NO_ITEM && playingRatio >= minVisibleFraction;
+
+        // 迟滞：当前视频仍然合格，且新候选没有明显更好 → 保持不动
+        // （门槛封顶 1.0，否则在播视频可见超过 1 - switchHysteresis 后谁都换不上来）
+        float switchThreshold = Math.min(1f, playingRatio + switchHysteresis);
+        if (playingStillValid
+                && (bestId == playingId || bestRatio <= playingRatio || bestRatio < switchThreshold)) {
+            pendingId = NO_ITEM;
+            return playingId;
+        }
+
+        if (bestId == NO_ITEM) {
+            pendingId = NO_ITEM;
+            return NO_ITEM;
+        }
+
+        // 防抖：候选需要连续保持 dwellMs
+        if (bestId != pendingId) {
+            pendingId = bestId;
+            pendingSinceMs = nowMs;
+        }
+        if (nowMs - pendingSinceMs >= dwellMs) {
+            pendingId = NO_ITEM;
+            return bestId;
+        }
+
+        // 等待期间：旧视频还合格就继续播，否则先不播
+        return playingStillValid ? playingId : NO_ITEM;
+    }
+
+    @Override
+    public long nextEvaluationDelayMs(long nowMs) {
+        if (pendingId == NO_ITEM) {
+            return -1L;
+        }
+        return Math.max(1L, pendingSinceMs + dwellMs - nowMs);
+    }
+
+    @Override
+    public void reset() {
+        pendingId = NO_ITEM;
+        pendingSinceMs = 0L;
+    }
+}
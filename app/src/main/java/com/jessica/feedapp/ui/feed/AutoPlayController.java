@@ -0,0 +1,164 @@
+package com.jessica.feedapp.ui.feed;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.jessica.feedapp.exposure.ExposureTracker;
+import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.player.AutoPlayPolicy;
+import com.jessica.feedapp.player.FeedVideoManager;
+
+import java.util.Arrays;
+
+/**
+ * 自动播放控制器：
+ * - 复用 ExposureTracker 每一轮算好的可见比例，只收集视频卡片
+ * - 滚动中不做任何播放决策（拖动/惯性滑动时暂停），停下来后交给 AutoPlayPolicy 选择
+ * - 策略处于防抖等待时，只挂一个延迟任务重新评估
+ */
+public class AutoPlayController implements ExposureTracker.VisibilityListener {
+
+    private final RecyclerView recyclerView;
+    private final FeedAdapter adapter;
+    private final FeedVideoManager videoManager;
+    private final AutoPlayPolicy policy;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable evaluateRunnable = this::evaluate;
+
+    // 最近一轮可见的视频卡片快照（复用数组，避免每帧分配）
+    private long[] itemIds = new long[8];
+    private float[] ratios = new float[8];
+    private int[] positions = new int[8];
+    private int count = 0;
+
+    private boolean scrolling = false;
+    // 本次静止期间由控制器启动播放的 itemId
+    private long activeId = AutoPlayPolicy.NO_ITEM;
+    // 最近一次自动播放过的 itemId，给策略做切换迟滞
+    private long preferredId = AutoPlayPolicy.NO_ITEM;
+
+    public AutoPlayController(@NonNull RecyclerView recyclerView,
+                              @NonNull FeedAdapter adapter,
+                              @NonNull FeedVideoManager videoManager,
+                              @NonNull AutoPlayPolicy policy) {
+        this.recyclerView = recyclerView;
+        this.adapter = adapter;
+        this.videoManager = videoManager;
+        this.policy = policy;
+    }
+
+    /**
+     * 由列表的 OnScrollListener 转发滚动状态
+     */
+    public void onScrollStateChanged(int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            scrolling = false;
+            evaluate();
+        } else if (!scrolling) {
+            // 开始拖动 / 惯性滑动 → 暂停当前视频，避免边滚边放
+            scrolling = true;
+            handler.removeCallbacks(evaluateRunnable);
+            policy.reset();
+            videoManager.pause();
+            activeId = AutoPlayPolicy.NO_ITEM;
+        }
+    }
+
+    /**
+     * 数据重置后（首屏 / 刷新）需要重新挑选
+     */
+    public void onDataReset() {
+        handler.removeCallbacks(evaluateRunnable);
+        policy.reset();
+        activeId = AutoPlayPolicy.NO_ITEM;
+        preferredId = AutoPlayPolicy.NO_ITEM;
+    }
+
+    public void release() {
+        handler.removeCallbacks(evaluateRunnable);
+    }
+
+    // ===== ExposureTracker.VisibilityListener =====
+
+    @Override
+    public void onVisibilityPassStart() {
+        count = 0;
+    }
+
+    @Override
+    public void onItemVisibility(int position, long itemId, float visibleRatio) {
+        if (adapter.getCardTypeAt(position) != FeedItem.CARD_TYPE_VIDEO) {
+            return;
+        }
+        if (count == itemIds.length) {
+            int newSize = count * 2;
+            itemIds = Arrays.copyOf(itemIds, newSize);
+            ratios = Arrays.copyOf(ratios, newSize);
+            positions = Arrays.copyOf(positions, newSize);
+        }
+        itemIds[count] = itemId;
+        ratios[count] = visibleRatio;
+        positions[count] = position;
+        count++;
+    }
+
+    @Override
+    public void onVisibilityPassEnd() {
+        if (!scrolling) {
+            evaluate();
+        }
+    }
+
+    // ===== 决策 =====
+
+    private void evaluate() {
+        handler.removeCallbacks(evaluateRunnable);
+        if (scrolling) {
+            return;
+        }
+
+        long now = SystemClock.uptimeMillis();
+        long target = policy.choose(itemIds, ratios, count, preferredId, now);
+
+        long delay = policy.nextEvaluationDelayMs(now);
+        if (delay > 0) {
+            handler.postDelayed(evaluateRunnable, delay);
+        }
+
+        if (target == activeId) {
+            return;
+        }
+        if (target == AutoPlayPolicy.NO_ITEM) {
+            videoManager.pauseIfMatching(activeId);
+            activeId = AutoPlayPolicy.NO_ITEM;
+            return;
+        }
+
+        int position = positionOf(target);
+        RecyclerView.ViewHolder vh = position == RecyclerView.NO_POSITION
+                ? null
+                : recyclerView.findViewHolderForAdapterPosition(position);
+        if (!(vh instanceof FeedAdapter.VideoViewHolder)
+                || adapter.getItemIdForPosition(position) != target) {
+            return;
+        }
+
+        videoManager.bindAndPlay(((FeedAdapter.VideoViewHolder) vh).videoContainer,
+                target, adapter.getStore().getMediaUrl(position));
+        activeId = target;
+        preferredId = target;
+    }
+
+    private int positionOf(long itemId) {
+        for (int i = 0; i < count; i++) {
+            if (itemIds[i] == itemId) {
+                return positions[i];
+            }
+        }
+        return RecyclerView.NO_POSITION;
+    }
+}
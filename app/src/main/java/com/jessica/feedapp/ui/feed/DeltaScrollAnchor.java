@@ -0,0 +1,89 @@
+package com.jessica.feedapp.ui.feed;
+
+import androidx.annotation.NonNull;
+
+import com.jessica.feedapp.model.FeedStore;
+
+import java.util.Arrays;
+
+/**
+ * 增量刷新前后保持滚动位置：
+ * - 应用增量之前按 id 记下当前可见的卡片和它们的像素偏移（位置会被删除 / 插入改变，id 不会）
+ * - 删、改、插全部做完之后，取第一个还在列表里的 id 查出新位置，偏移沿用之前记下的
+ * - 可见的卡片全被删掉时退回到原来第一个可见的位置（夹到列表范围内）
+ * 不依赖 View，Activity 负责从 LayoutManager 收集可见卡片。
+ */
+final class DeltaScrollAnchor {
+
+    // 复用数组，避免每次刷新分配
+    private long[] itemIds = new long[8];
+    private int[] offsets = new int[8];
+    private int count = 0;
+    private int firstPosition = -1;
+
+    private int resolvedPosition = -1;
+    private int resolvedOffset = 0;
+
+    /** 开始记录一次新的锚点 */
+    void reset() {
+        count = 0;
+        firstPosition = -1;
+        resolvedPosition = -1;
+        resolvedOffset = 0;
+    }
+
+    /**
+     * 记下一个可见卡片，按从上到下的顺序调用
+     *
+     * @param position 应用增量之前的位置
+     * @param offset   卡片顶部相对列表顶部的像素偏移
+     */
+    void add(int position, long itemId, int offset) {
+        if (firstPosition < 0 || position < firstPosition) {
+            firstPosition = position;
+        }
+        if (count == itemIds.length) {
+            int newLength = count * 2;
+            itemIds = Arrays.copyOf(itemIds, newLength);
+            offsets = Arrays.copyOf(offsets, newLength);
+        }
+        itemIds[count] = itemId;
+        offsets[count] = offset;
+        count++;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * 增量应用完之后按 id 找回锚点
+     *
+     * @return 能定位时为 true，结果见 getResolvedPosition / getResolvedOffset
+     */
+    boolean resolve(@NonNull FeedStore store) {
+        resolvedPosition = -1;
+        resolvedOffset = 0;
+        if (store.isEmpty() || firstPosition < 0) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            int position = store.positionOf(itemIds[i]);
+            if (position >= 0) {
+                resolvedPosition = position;
+                resolvedOffset = offsets[i];
+                return true;
+            }
+        }
+        resolvedPosition = Math.min(firstPosition, store.size() - 1);
+        return true;
+    }
+
+    int getResolvedPosition() {
+        return resolvedPosition;
+    }
+
+    int getResolvedOffset() {
+        return resolvedOffset;
+    }
+}
@@ -0,0 +1,143 @@
+package com.jessica.feedapp.ui.feed;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+
+import com.jessica.feedapp.exposure.ExposureEventType;
+import com.jessica.feedapp.exposure.ExposureTracker;
+
+/**
+ * 曝光调试浮层：
+ * - 事件只写进定长的原始类型环形缓冲（几次数组赋值），不拼字符串、不碰 View
+ * - 有新事件时最多每 RENDER_INTERVAL_MS 渲染一次最新的几条，快速 fling 时不会每个事件都触发 setText / 重新布局
+ * - 渲染复用同一个 char[]，不走 String.format
+ * - 关闭时事件直接丢弃，浮层几乎零开销
+ *
+ * 只在主线程使用（作为 ExposureEventBus 的 MAIN 订阅者）。
+ */
+public class ExposureDebugOverlay implements ExposureTracker.ExposureListener {
+
+    private static final ExposureEventType[] TYPES = ExposureEventType.values();
+
+    private static final int CAPACITY = 32;
+    // 每秒最多渲染 4 次
+    private static final long RENDER_INTERVAL_MS = 250L;
+
+    private final TextView textView;
+    private final int visibleLines;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable renderTask = this::render;
+
+    // ===== 环形缓冲（列式） =====
+    private final long[] itemIds = new long[CAPACITY];
+    private final byte[] types = new byte[CAPACITY];
+    private final float[] ratios = new float[CAPACITY];
+    private int next = 0;   // 下一条写入的位置
+    private int count = 0;
+
+    private final StringBuilder sb = new StringBuilder(128);
+    private char[] chars = new char[128];
+
+    private boolean enabled;
+    private boolean renderScheduled = false;
+    private long lastRenderAtMs = 0L;
+
+    public ExposureDebugOverlay(@NonNull TextView textView, int visibleLines, boolean enabled) {
+        this.textView = textView;
+        this.visibleLines = Math.max(1, Math.min(visibleLines, CAPACITY));
+        this.enabled = enabled;
+        textView.setVisibility(enabled ? View.VISIBLE : View.GONE);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) {
+            return;
+        }
+        this.enabled = enabled;
+        textView.setVisibility(enabled ? View.VISIBLE : View.GONE);
+        if (enabled) {
+            scheduleRender();
+        } else {
+            handler.removeCallbacks(renderTask);
+            renderScheduled = false;
+        }
+    }
+
+    @Override
+    public void onExposureEvent(long itemId, ExposureEventType eventType, float visibleRatio) {
+        if (!enabled) {
+            return;
+        }
+        itemIds[next] = itemId;
+        types[next] = (byte) eventType.ordinal();
+        ratios[next] = visibleRatio;
+        next = (next + 1) % CAPACITY;
+        if (count < CAPACITY) {
+            count++;
+        }
+        scheduleRender();
+    }
+
+    public void release() {
+        handler.removeCallbacks(renderTask);
+        renderScheduled = false;
+    }
+
+    private void scheduleRender() {
+        if (renderScheduled) {
+            return;
+        }
+        renderScheduled = true;
+        long sinceLast = SystemClock.uptimeMillis() - lastRenderAtMs;
+        handler.postDelayed(renderTask, Math.max(0L, RENDER_INTERVAL_MS - sinceLast));
+    }
+
+    private void render() {
+        renderScheduled = false;
+        if (!enabled) {
+            return;
+        }
+        lastRenderAtMs = SystemClock.uptimeMillis();
+
+        // 最新的在最上面
+        sb.setLength(0);
+        int lines = Math.min(visibleLines, count);
+        for (int i = 0; i < lines; i++) {
+            int index = (next - 1 - i + CAPACITY) % CAPACITY;
+            if (i > 0) {
+                sb.append('\n');
+            }
+            sb.append("itemId=").append(itemIds[index])
+                    .append(" | event=").append(TYPES[types[index]].name())
+                    .append(" | ratio=");
+            appendRatio(sb, ratios[index]);
+        }
+
+        int length = sb.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        sb.getChars(0, length, chars, 0);
+        textView.setText(chars, 0, length);
+    }
+
+    /** 保留两位小数，等价于 String.format("%.2f") 但不分配 */
+    private static void appendRatio(StringBuilder sb, float ratio) {
+        int hundredths = Math.round(Math.max(0f, ratio) * 100f);
+        sb.append(hundredths / 100).append('.');
+        int frac = hundredths % 100;
+        if (frac < 10) {
+            sb.append('0');
+        }
+        sb.append(frac);
+    }
+}
@@ -3,7 +3,9 @@ package com.jessica.feedapp.ui.feed;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.Button;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -11,24 +13,33 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
+import com.jessica.feedapp.BuildConfig;
 import com.jessica.feedapp.R;
-import com.jessica.feedapp.data.FeedCacheManager;
-import com.jessica.feedapp.data.FeedRepository;
-import com.jessica.feedapp.exposure.ExposureDataProvider;
+import com.jessica.feedapp.exposure.ExposureEventBus;
 import com.jessica.feedapp.exposure.ExposureEventType;
 import com.jessica.feedapp.exposure.ExposureTracker;
-import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.exposure.pipeline.ExposurePipeline;
+import com.jessica.feedapp.model.FeedStore;
+import com.jessica.feedapp.perf.ScrollPerfMonitor;
+import com.jessica.feedapp.perf.StartupTracer;
 import com.jessica.feedapp.player.FeedVideoManager;
+import com.jessica.feedapp.player.VisibilityAutoPlayPolicy;
+import com.jessica.feedapp.player.VideoPosterLoader;
+import com.jessica.feedapp.work.FeedWorkScheduler;
+import com.jessica.feedapp.work.WorkGovernor;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+/**
+ * Feed 页面：只负责界面（列表、覆盖层、曝光 / 自动播放 / 性能监控这些和 View 绑定的组件）。
+ * 列表数据、加载状态机、播放器、上报管道都在 FeedViewModel 里，配置变更重建时直接复用，不做 I/O、不发请求。
+ */
+public class FeedActivity extends AppCompatActivity implements FeedViewModel.Host {
 
-public class FeedActivity extends AppCompatActivity {
+    private static final String TAG = "FeedActivity";
 
     // ===== 基本 UI =====
     private SwipeRefreshLayout swipeRefreshLayout;
@@ -43,48 +54,88 @@ public class FeedActivity extends AppCompatActivity {
     private Button btnRetryEmpty;
 
     // ===== 核心组件 =====
+    private FeedViewModel viewModel;
     private FeedAdapter adapter;
-    private FeedRepository repository;
     private ExposureTracker exposureTracker;
-    private FeedCacheManager cacheManager;
+    private ExposureEventBus exposureEventBus;
+    private ExposurePipeline exposurePipeline;
+    private AutoPlayController autoPlayController;
     private FeedVideoManager videoManager;
-
-    // ===== 列表状态 =====
-    private boolean isLoadingMore = false;
-    private int loadedCount = 0;
+    private VideoPosterLoader posterLoader;
+    private ScrollPerfMonitor scrollPerfMonitor;
+    private WorkGovernor workGovernor;
+    private StartupTracer startupTracer;
 
     private final Handler handler = new Handler(Looper.getMainLooper());
-    private final Random random = new Random();
+    // 增量刷新期间保持滚动位置
+    private final DeltaScrollAnchor deltaAnchor = new DeltaScrollAnchor();
 
-    // ===== 曝光调试（只保留两条） =====
-    private final List<String> exposureLogs = new ArrayList<>();
+    // ===== 曝光调试（只显示最新两条，release 包默认关闭） =====
     private static final int MAX_EXPOSURE_LOGS = 2;
-    private boolean exposureDebugEnabled = true;
+    private ExposureDebugOverlay exposureDebugOverlay;
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        // 启动时间线：记录各初始化阶段和首帧 / 首屏内容的时间点
+        startupTracer = new StartupTracer(this, savedInstanceState == null);
+        viewModel = new ViewModelProvider(this, new FeedViewModel.Factory()).get(FeedViewModel.class);
+        if (viewModel.hasStarted()) {
+            // 配置变更重建：数据和播放器都是现成的，不算一次启动，也不写启动记录
+            startupTracer.cancel();
+        }
 
         if (getSupportActionBar() != null) {
             getSupportActionBar().hide();
         }
 
+        startupTracer.begin(StartupTracer.PHASE_SET_CONTENT_VIEW);
         setContentView(R.layout.activity_feed);
+        startupTracer.end();
+        observeFirstFrame();
 
+        startupTracer.begin(StartupTracer.PHASE_INIT_VIEWS);
         initViews();
+        startupTracer.end();
+        startupTracer.begin(StartupTracer.PHASE_INIT_CORE);
         initCoreComponents();
+        startupTracer.end();
+        startupTracer.begin(StartupTracer.PHASE_INIT_RECYCLER);
         initRecycler();
+        startupTracer.end();
+        startupTracer.begin(StartupTracer.PHASE_INIT_REFRESH);
         initRefresh();
+        startupTracer.end();
+        startupTracer.begin(StartupTracer.PHASE_INIT_EXPOSURE);
         initExposureTracker();
+        startupTracer.end();
+
+        // 首次创建：先用缓存“秒开”，再请求最新首屏；配置变更：直接重放 ViewModel 里的状态
+        startupTracer.begin(StartupTracer.PHASE_START_CONTENT);
+        viewModel.attach(this, startupTracer);
+        startupTracer.end();
+    }
 
-        // 冷启动：先用缓存“秒开”，再请求最新首屏
-        startWithCacheThenLoadInitial();
+    /**
+     * 首帧绘制时记一个时间点，然后摘掉监听（onDraw 回调里不能直接移除）
+     */
+    private void observeFirstFrame() {
+        View decorView = getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            @Override
+            public void onDraw() {
+                startupTracer.mark(StartupTracer.MILESTONE_FIRST_FRAME);
+                ViewTreeObserver.OnDrawListener self = this;
+                handler.post(() -> decorView.getViewTreeObserver().removeOnDrawListener(self));
+            }
+        });
     }
 
     private void initViews() {
         swipeRefreshLayout = findViewById(R.id.swipe_refresh);
         recyclerView = findViewById(R.id.recycler_feed);
         tvExposureLog = findViewById(R.id.tv_exposure_log);
+        exposureDebugOverlay = new ExposureDebugOverlay(tvExposureLog, MAX_EXPOSURE_LOGS, BuildConfig.DEBUG);
         layoutLoading = findViewById(R.id.layout_loading);
         layoutError = findViewById(R.id.layout_error);
         layoutEmpty = findViewById(R.id.layout_empty);
@@ -92,7 +143,7 @@ public class FeedActivity extends AppCompatActivity {
         btnRetryEmpty = findViewById(R.id.btn_retry_empty);
 
         // 错误 / 空态重试
-        View.OnClickListener retryListener = v -> reloadFirstPage();
+        View.OnClickListener retryListener = v -> viewModel.reloadFirstPage();
         btnRetryError.setOnClickListener(retryListener);
         btnRetryEmpty.setOnClickListener(retryListener);
 
@@ -100,16 +151,14 @@ public class FeedActivity extends AppCompatActivity {
         TextView tvTitle = findViewById(R.id.tv_title);
         if (tvTitle != null) {
             tvTitle.setOnLongClickListener(v -> {
-                exposureDebugEnabled = !exposureDebugEnabled;
-                if (exposureDebugEnabled) {
-                    tvExposureLog.setVisibility(View.VISIBLE);
+                exposureDebugOverlay.setEnabled(!exposureDebugOverlay.isEnabled());
+                if (exposureDebugOverlay.isEnabled()) {
                     Toast.makeText(
                             FeedActivity.this,
                             "曝光调试：已开启（长按标题可关闭）",
                             Toast.LENGTH_SHORT
                     ).show();
                 } else {
-                    tvExposureLog.setVisibility(View.GONE);
                     Toast.makeText(
                             FeedActivity.this,
                             "曝光调试：已关闭（长按标题可重新打开）",
@@ -122,10 +171,21 @@ public class FeedActivity extends AppCompatActivity {
     }
 
     private void initCoreComponents() {
-        repository = new FeedRepository();
-        cacheManager = new FeedCacheManager(this);
-        videoManager = new FeedVideoManager(this);
-        adapter = new FeedAdapter(this, videoManager);
+        // 播放器、封面加载器、上报管道由 ViewModel 持有，这里只挂上界面相关的部分
+        videoManager = viewModel.getVideoManager();
+        startupTracer.begin(StartupTracer.PHASE_VIDEO_MANAGER_INIT);
+        videoManager.attachView(this);
+        startupTracer.end();
+        posterLoader = viewModel.getPosterLoader();
+        exposurePipeline = viewModel.getExposurePipeline();
+        adapter = new FeedAdapter(this, viewModel.getStore(), videoManager, posterLoader);
+        adapter.setOnFirstBindListener(() -> startupTracer.mark(StartupTracer.MILESTONE_FIRST_CARD_BOUND));
+        autoPlayController = new AutoPlayController(
+                recyclerView,
+                adapter,
+                videoManager,
+                new VisibilityAutoPlayPolicy()
+        );
     }
 
     // ========= 页面状态 =========
@@ -161,11 +221,6 @@ public class FeedActivity extends AppCompatActivity {
         adapter.hideFooter();
     }
 
-    private void reloadFirstPage() {
-        showLoadingState();
-        loadInitialData();
-    }
-
     // ========= Recycler / 刷新 =========
 
     private void initRecycler() {
@@ -179,8 +234,13 @@ public class FeedActivity extends AppCompatActivity {
 
         recyclerView.setLayoutManager(layoutManager);
         recyclerView.setAdapter(adapter);
+        // debug 包统计各卡片 create / bind 耗时，onStop 时输出到 logcat
+        adapter.setBinderProfilingEnabled(BuildConfig.DEBUG);
+
+        adapter.setOnLoadMoreRetryListener(viewModel::loadMore);
 
-        adapter.setOnLoadMoreRetryListener(this::retryLoadMore);
+        // 滑动期间暂停低优先级后台任务（写缓存、曝光上报、封面抽帧等），停下后恢复
+        workGovernor = new WorkGovernor(FeedWorkScheduler.getDefault());
 
         recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
 
@@ -191,14 +251,9 @@ public class FeedActivity extends AppCompatActivity {
             ) {
                 super.onScrollStateChanged(rv, newState);
 
-                if (newState == RecyclerView.SCROLL_STATE_IDLE) {
-                    // 滚动停止 → 自动播放居中视频
-                    autoPlayCenterVideo();
-                } else if (newState == RecyclerView.SCROLL_STATE_DRAGGING
-                        || newState == RecyclerView.SCROLL_STATE_SETTLING) {
-                    // 正在滚动 → 暂停当前视频，避免边滚边放
-                    videoManager.pause();
-                }
+                // 滚动中暂停、停下后按可见比例挑选视频播放，都交给自动播放控制器
+                autoPlayController.onScrollStateChanged(newState);
+                workGovernor.onScrollStateChanged(newState);
             }
 
             @Override
@@ -208,261 +263,237 @@ public class FeedActivity extends AppCompatActivity {
                     int dy
             ) {
                 super.onScrolled(rv, dx, dy);
+                int firstVisiblePos = layoutManager.findFirstVisibleItemPosition();
+                // 上下滑都要移动窗口：往回滑时换入之前被换出的页
+                viewModel.onViewportChanged(firstVisiblePos, layoutManager.findLastVisibleItemPosition());
                 if (dy <= 0) return;
 
                 int visibleCount = layoutManager.getChildCount();
                 int totalCount = layoutManager.getItemCount();
-                int firstVisiblePos = layoutManager.findFirstVisibleItemPosition();
 
-                if (!isLoadingMore && visibleCount + firstVisiblePos >= totalCount - 2) {
-                    loadMoreData();
+                if (!viewModel.isLoadingMore() && visibleCount + firstVisiblePos >= totalCount - 2) {
+                    viewModel.loadMore();
                 }
             }
         });
+
+        // 每次滑动结束输出一次帧间隔分位数和卡顿统计（logcat: ScrollPerf）
+        scrollPerfMonitor = new ScrollPerfMonitor(recyclerView);
     }
 
     private void initRefresh() {
         swipeRefreshLayout.setOnRefreshListener(() -> {
             videoManager.pause();  // 下拉刷新时先暂停当前视频
-            refreshData();
+            viewModel.refresh();
         });
     }
 
     private void initExposureTracker() {
-        // 把 position 转为 itemId
-        ExposureDataProvider dataProvider = position -> {
-            FeedItem item = adapter.getItemAt(position);
-            if (item == null) return -1L;
-            return item.getId();
-        };
-
-        exposureTracker = new ExposureTracker(
-                recyclerView,
-                dataProvider,
-                (itemId, eventType, visibleRatio) -> {
-                    handleExposureLog(itemId, eventType, visibleRatio);
-                    handleVideoPauseByDisappear(itemId, eventType);
-                }
-        );
+        // 曝光事件通过总线分发。现有订阅者都只做很轻的事，全部在主线程同步回调（总线不会起投递线程）；
+        // 以后接入慢消费者时用 subscribe(..., Delivery.BACKGROUND, ...) 走后台队列
+        exposureEventBus = new ExposureEventBus();
+        exposureEventBus.subscribeMain("video-pause", this::handleVideoPauseByDisappear);
+        // 上报管道的内存队列是单生产者（主线程）队列，只做无锁入队，写盘 / 上传都在后台线程
+        exposureEventBus.subscribeMain("pipeline", exposurePipeline);
+        // 调试浮层只往环形缓冲里写几个数，限频渲染，留在主线程即可
+        exposureEventBus.subscribeMain("debug-overlay", exposureDebugOverlay);
+
+        exposureTracker = new ExposureTracker(recyclerView, adapter, exposureEventBus);
+        // 自动播放复用曝光计算出的可见比例
+        exposureTracker.setVisibilityListener(autoPlayController);
+        // 停留时长直接进上报管道
+        exposureTracker.setDwellListener(exposurePipeline);
     }
 
-    // ========= 曝光日志（只保留最新两条） =========
-
-    private void handleExposureLog(long itemId,
-                                   ExposureEventType eventType,
-                                   float visibleRatio) {
-        if (!exposureDebugEnabled || tvExposureLog == null) {
-            return;
-        }
-
-        String msg = "itemId=" + itemId
-                + " | event=" + eventType
-                + " | ratio=" + String.format("%.2f", visibleRatio);
-
-        exposureLogs.add(0, msg);
-        if (exposureLogs.size() > MAX_EXPOSURE_LOGS) {
-            exposureLogs.remove(exposureLogs.size() - 1);
-        }
-
-        StringBuilder sb = new StringBuilder();
-        for (String log : exposureLogs) {
-            sb.append(log).append("\n");
-        }
-        tvExposureLog.setText(sb.toString());
+    /**
+     * 列表数据整体替换后，重新计算一轮可见比例并挑选自动播放的视频
+     */
+    private void requestAutoPlay() {
+        autoPlayController.onDataReset();
+        exposureTracker.requestCheck();
     }
 
     // ========= 基于曝光：DISAPPEAR 时暂停，防止“鬼畜播放” =========
 
     private void handleVideoPauseByDisappear(long itemId,
-                                             ExposureEventType eventType) {
+                                             ExposureEventType eventType,
+                                             float visibleRatio) {
         if (eventType == ExposureEventType.DISAPPEAR) {
             videoManager.pauseIfMatching(itemId);
         }
     }
 
-    // ========= 核心：滚动停止后，自动播放最居中的视频卡 =========
-
-    private void autoPlayCenterVideo() {
-        if (recyclerView == null || adapter == null) return;
-
-        int childCount = recyclerView.getChildCount();
-        if (childCount == 0) return;
-
-        int rvHeight = recyclerView.getHeight();
-        if (rvHeight <= 0) return;
-
-        int rvCenterY = rvHeight / 2;
-
-        float bestDistance = Float.MAX_VALUE;
-        FeedAdapter.VideoViewHolder targetVH = null;
-        FeedItem targetItem = null;
-
-        for (int i = 0; i < childCount; i++) {
-            View child = recyclerView.getChildAt(i);
-            RecyclerView.ViewHolder vh = recyclerView.getChildViewHolder(child);
-            if (!(vh instanceof FeedAdapter.VideoViewHolder)) {
-                continue;
-            }
-
-            int pos = vh.getBindingAdapterPosition();
-            if (pos == RecyclerView.NO_POSITION) continue;
-
-            FeedItem item = adapter.getItemAt(pos);
-            if (item == null || item.getCardType() != FeedItem.CARD_TYPE_VIDEO) {
-                continue;
-            }
-
-            int top = child.getTop();
-            int bottom = child.getBottom();
-            int centerY = (top + bottom) / 2;
-            float distance = Math.abs(centerY - rvCenterY);
-
-            if (distance < bestDistance) {
-                bestDistance = distance;
-                targetVH = (FeedAdapter.VideoViewHolder) vh;
-                targetItem = item;
-            }
-        }
-
-        if (targetVH != null && targetItem != null) {
-            // 你可以根据需要设置一个阈值：比如只有当 distance < rvHeight * 0.3 才自动播
-            // 这里简单起见，只要当前屏幕内有视频，就播放距离中心最近的那一个
-            videoManager.bindAndPlay(targetVH.playerView, targetItem);
-        }
-    }
-
     /**
      * 根据 itemId 在 adapter 中查找 position（O(n)，Demo 规模足够）
      */
     private int findAdapterPositionByItemId(long itemId) {
         int count = adapter.getItemCount();
         for (int i = 0; i < count; i++) {
-            FeedItem item = adapter.getItemAt(i);
-            if (item != null && item.getId() == itemId) {
+            if (adapter.getItemIdForPosition(i) == itemId) {
                 return i;
             }
         }
         return -1;
     }
 
-    // ========= 本地缓存 + 首屏秒开 =========
-
-    private void startWithCacheThenLoadInitial() {
-        List<FeedItem> cached = cacheManager.loadFeedList();
-        if (cached != null && !cached.isEmpty()) {
-            adapter.setItems(cached);
-            loadedCount = cached.size();
-            showContentState();
+    // ========= FeedViewModel.Host：把 ViewModel 的状态同步到界面 =========
 
-            // 如果首屏缓存中刚好有视频，直接自动播居中视频
-            recyclerView.post(this::autoPlayCenterVideo);
-        } else {
-            showLoadingState();
+    @Override
+    public void onItemsReset(@NonNull FeedViewModel.Source source) {
+        FeedStore store = viewModel.getStore();
+        adapter.notifyItemsReset();
+        if (source == FeedViewModel.Source.CACHE) {
+            startupTracer.mark(StartupTracer.MILESTONE_CACHE_CONTENT_SHOWN);
+        } else if (source == FeedViewModel.Source.NETWORK && !store.isEmpty()) {
+            startupTracer.mark(StartupTracer.MILESTONE_NETWORK_CONTENT_SHOWN);
+        }
+        // 列表整体替换（缓存 / 网络 / 重建）后按可见比例自动播放
+        if (!store.isEmpty()) {
+            requestAutoPlay();
         }
-        loadInitialData();
     }
 
-    // ========= 首屏加载 / 刷新 / 加载更多 =========
+    @Override
+    public void onItemsAppended(int start, int count) {
+        adapter.notifyItemsAppended(start, count);
+    }
 
-    private void loadInitialData() {
-        handler.postDelayed(() -> {
-            boolean success = random.nextFloat() < 0.85f;
+    @Override
+    public void onItemsPrepended(int count) {
+        // 滚动位置在 onDeltaFinished 里按 id 统一钉回
+        adapter.notifyItemsPrepended(count);
+    }
 
-            if (success) {
-                List<FeedItem> items = repository.loadInitial();
-                if (items == null || items.isEmpty()) {
-                    adapter.setItems(null);
-                    loadedCount = 0;
-                    showEmptyState();
-                    cacheManager.clear();
-                } else {
-                    loadedCount = items.size();
-                    adapter.setItems(items);
-                    showContentState();
-                    cacheManager.saveFeedList(items);
+    @Override
+    public void onDeltaStarted() {
+        // 应用增量之前按 id 记下可见的卡片和像素偏移：这时 LayoutManager 里的位置还和 store 一致
+        deltaAnchor.reset();
+        GridLayoutManager layoutManager = (GridLayoutManager) recyclerView.getLayoutManager();
+        FeedStore store = viewModel.getStore();
+        for (int i = 0, n = layoutManager.getChildCount(); i < n; i++) {
+            View child = layoutManager.getChildAt(i);
+            int position = child != null ? layoutManager.getPosition(child) : RecyclerView.NO_POSITION;
+            if (position == RecyclerView.NO_POSITION || position >= store.size()) {
+                continue;
+            }
+            RecyclerView.LayoutParams params = (RecyclerView.LayoutParams) child.getLayoutParams();
+            int offset = layoutManager.getDecoratedTop(child) - params.topMargin - recyclerView.getPaddingTop();
+            deltaAnchor.add(position, store.getId(position), offset);
+        }
+    }
 
-                    // 首屏数据加载完成后，尝试自动播放居中视频
-                    recyclerView.post(this::autoPlayCenterVideo);
-                }
-            } else {
-                List<FeedItem> cached = cacheManager.loadFeedList();
-                if (cached != null && !cached.isEmpty()) {
-                    adapter.setItems(cached);
-                    loadedCount = cached.size();
-                    showContentState();
-                    Toast.makeText(
-                            this,
-                            "网络异常，已展示上次缓存内容",
-                            Toast.LENGTH_SHORT
-                    ).show();
+    @Override
+    public void onDeltaFinished() {
+        // 删、改、插都做完后取第一个还在的可见卡片，把它钉回原来的偏移，用户停在原来看的内容上
+        if (deltaAnchor.isEmpty() || !deltaAnchor.resolve(viewModel.getStore())) {
+            return;
+        }
+        ((GridLayoutManager) recyclerView.getLayoutManager()).scrollToPositionWithOffset(
+                deltaAnchor.getResolvedPosition(), deltaAnchor.getResolvedOffset());
+    }
 
-                    recyclerView.post(this::autoPlayCenterVideo);
-                } else {
-                    showErrorState();
-                    Toast.makeText(
-                            this,
-                            "加载失败，请点击重试",
-                            Toast.LENGTH_SHORT
-                    ).show();
-                }
-            }
-        }, 800);
+    @Override
+    public void onItemRemoved(int position, long itemId) {
+        // 服务端删掉的正好是在播的视频时先停下
+        videoManager.pauseIfMatching(itemId);
+        adapter.notifyItemRemoved(position);
     }
 
-    private void refreshData() {
-        swipeRefreshLayout.setRefreshing(true);
+    @Override
+    public void onItemChanged(int position) {
+        adapter.notifyItemChanged(position);
+    }
 
-        handler.postDelayed(() -> {
-            boolean success = random.nextFloat() < 0.6f;
-            if (success) {
-                List<FeedItem> items = repository.refresh();
-                if (items == null || items.isEmpty()) {
-                    Toast.makeText(this, "暂无最新内容", Toast.LENGTH_SHORT).show();
-                } else {
-                    loadedCount = items.size();
-                    adapter.setItems(items);
-                    showContentState();
-                    cacheManager.saveFeedList(items);
+    @Override
+    public void onItemsRestored(int start, int count) {
+        adapter.notifyItemsRestored(start, count);
+    }
 
-                    recyclerView.post(this::autoPlayCenterVideo);
-                }
-            } else {
-                Toast.makeText(this, "刷新失败，已保留当前内容", Toast.LENGTH_SHORT).show();
-            }
+    @Override
+    public void onPageStateChanged(@NonNull FeedViewModel.PageState state) {
+        switch (state) {
+            case LOADING:
+                showLoadingState();
+                break;
+            case ERROR:
+                showErrorState();
+                break;
+            case EMPTY:
+                showEmptyState();
+                break;
+            case CONTENT:
+            default:
+                showContentState();
+                break;
+        }
+    }
 
-            swipeRefreshLayout.setRefreshing(false);
-        }, 800);
+    @Override
+    public void onFooterStateChanged(@NonNull FeedViewModel.FooterState state) {
+        switch (state) {
+            case LOADING:
+                adapter.showLoadMoreLoading();
+                break;
+            case ERROR:
+                adapter.showLoadMoreError();
+                break;
+            case HIDDEN:
+            default:
+                adapter.hideFooter();
+                break;
+        }
     }
 
-    private void loadMoreData() {
-        isLoadingMore = true;
-        adapter.showLoadMoreLoading();
+    @Override
+    public void onRefreshingChanged(boolean refreshing) {
+        swipeRefreshLayout.setRefreshing(refreshing);
+    }
 
-        handler.postDelayed(() -> {
-            boolean success = random.nextFloat() < 0.6f;
+    @Override
+    public void onMessage(@NonNull String message) {
+        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+    }
 
-            if (success) {
-                List<FeedItem> more = repository.loadMore(loadedCount);
-                loadedCount += more.size();
-                adapter.appendItems(more);
-                adapter.hideFooter();
-                // 如有需要可以在此更新缓存
-            } else {
-                adapter.showLoadMoreError();
-                Toast.makeText(this, "加载更多失败，请点击重试", Toast.LENGTH_SHORT).show();
-            }
+    @Override
+    public void onInitialLoadSettled() {
+        // 首屏请求有结果（成功 / 失败）后，本次启动记录结束；重试不再计入
+        startupTracer.finish();
+    }
 
-            isLoadingMore = false;
-        }, 800);
+    @Override
+    public void onRestoreAnchor(int position, int offset) {
+        // 进程被杀后恢复：锚点所在的页补回来了，回到之前的滚动位置
+        ((GridLayoutManager) recyclerView.getLayoutManager()).scrollToPositionWithOffset(position, offset);
+        requestAutoPlay();
     }
 
-    private void retryLoadMore() {
-        if (!isLoadingMore) {
-            loadMoreData();
+    // ========= 生命周期：控制播放器 =========
+
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        // 进程被杀时用的快照：滚动锚点 + loadedCount + 当前视频进度（写进 SavedStateHandle）
+        GridLayoutManager layoutManager = (GridLayoutManager) recyclerView.getLayoutManager();
+        int anchorPosition = layoutManager != null
+                ? layoutManager.findFirstVisibleItemPosition()
+                : RecyclerView.NO_POSITION;
+        if (anchorPosition != RecyclerView.NO_POSITION) {
+            int anchorOffset = 0;
+            View anchorView = layoutManager.findViewByPosition(anchorPosition);
+            if (anchorView != null) {
+                anchorOffset = anchorView.getTop() - recyclerView.getPaddingTop();
+            }
+            viewModel.saveSnapshot(anchorPosition, anchorOffset);
         }
+        super.onSaveInstanceState(outState);
     }
 
-    // ========= 生命周期：控制播放器 =========
+    @Override
+    protected void onStart() {
+        super.onStart();
+        if (exposureTracker != null) {
+            exposureTracker.resume();
+        }
+    }
 
     @Override
     protected void onPause() {
@@ -472,12 +503,65 @@ public class FeedActivity extends AppCompatActivity {
         }
     }
 
-    //
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // 不可见期间不算停留 / 可见时长
+        if (exposureTracker != null) {
+            exposureTracker.pause();
+        }
+        // 首屏还没出来就退到后台：也把已有的部分落下来
+        if (startupTracer != null) {
+            startupTracer.finish();
+        }
+        // 退到后台前尽快落盘，降低进程被杀时的丢失；配置变更重建时管道还在，不用落盘
+        if (exposurePipeline != null && !isChangingConfigurations()) {
+            exposurePipeline.requestFlush();
+        }
+        if (adapter != null) {
+            String binderStats = adapter.dumpBinderStats();
+            if (!binderStats.isEmpty()) {
+                Log.d(TAG, "card binder stats:\n" + binderStats);
+            }
+        }
+        if (BuildConfig.DEBUG) {
+            Log.d(TAG, "work scheduler stats:\n" + FeedWorkScheduler.getDefault().dumpStats()
+                    + "governor: " + workGovernor.dumpStats());
+            FeedStore store = viewModel.getStore();
+            Log.d(TAG, "feed store: rows=" + store.size()
+                    + " bytes=" + store.estimateMemoryBytes()
+                    + " window: " + viewModel.getPageWindow().dumpStats());
+        }
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        // 播放器、封面加载器、上报管道归 ViewModel 管，在 onCleared 里释放；这里只拆界面相关的部分
+        if (viewModel != null) {
+            viewModel.detach(this);
+        }
+        handler.removeCallbacksAndMessages(null);
+        if (exposureTracker != null) {
+            exposureTracker.release();
+        }
+        if (exposureDebugOverlay != null) {
+            exposureDebugOverlay.release();
+        }
+        if (exposureEventBus != null) {
+            exposureEventBus.release();
+        }
+        if (scrollPerfMonitor != null) {
+            scrollPerfMonitor.release();
+        }
+        if (workGovernor != null) {
+            workGovernor.release();
+        }
+        if (autoPlayController != null) {
+            autoPlayController.release();
+        }
         if (videoManager != null) {
-            videoManager.release();
+            videoManager.detachView();
         }
     }
 }
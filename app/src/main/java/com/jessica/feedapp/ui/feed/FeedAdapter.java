@@ -10,13 +10,18 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.android.exoplayer2.ui.PlayerView;
 import com.jessica.feedapp.R;
+import com.jessica.feedapp.exposure.ExposureDataProvider;
 import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.model.FeedStore;
+import com.jessica.feedapp.perf.CardBinderProfiler;
 import com.jessica.feedapp.player.FeedVideoManager;
+import com.jessica.feedapp.player.VideoPosterLoader;
+import com.jessica.feedapp.ui.feed.card.AspectRatioFrameLayout;
 import com.jessica.feedapp.ui.feed.card.CardBinder;
 import com.jessica.feedapp.ui.feed.card.ImageTextCardBinder;
 import com.jessica.feedapp.ui.feed.card.TextCardBinder;
@@ -32,9 +37,12 @@ import android.util.SparseArray;
  * - 文本 / 图文 / 视频 卡片由独立的 CardBinder 实现
  * - 底部 footer 展示加载更多状态
  * - 支持长按删卡
- * - 为曝光统计提供 getItemAt / getSpanSizeForPosition
+ * - 为曝光统计提供 getSpanSizeForPosition，并直接作为 ExposureDataProvider
+ * - 数据直接读 FeedViewModel 持有的列式 FeedStore（不再逐条持有 FeedItem），
+ *   绑定时用一个复用的 Row 游标传给 Binder
  */
-public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
+        implements ExposureDataProvider {
 
     // ===== Footer ViewType =====
     private static final int VIEW_TYPE_FOOTER = 100;
@@ -52,7 +60,10 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
 
     private final Context context;
     private final LayoutInflater inflater;
-    private final List<FeedItem> data = new ArrayList<>();
+    private final FeedStore store;
+    // 复用的行游标：bindRow 只给 onBindViewHolder 用，lookupRow 给 viewType / spanSize 查询用
+    private final FeedStore.Row bindRow;
+    private final FeedStore.Row lookupRow;
 
     private final FeedVideoManager videoManager;
 
@@ -60,15 +71,31 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
     private final List<CardBinder<? extends RecyclerView.ViewHolder>> cardBinders = new ArrayList<>();
     private final SparseArray<CardBinder<? extends RecyclerView.ViewHolder>> binderMap = new SparseArray<>();
 
-    public FeedAdapter(Context context, FeedVideoManager videoManager) {
+    // 首个卡片 bind 完成的一次性回调（启动耗时统计用），触发后置空
+    @Nullable
+    private Runnable firstBindListener;
+
+    // create / bind 耗时统计，null 表示关闭
+    @Nullable
+    private CardBinderProfiler binderProfiler;
+
+    public FeedAdapter(Context context,
+                       FeedStore store,
+                       FeedVideoManager videoManager,
+                       VideoPosterLoader posterLoader) {
         this.context = context;
         this.inflater = LayoutInflater.from(context);
+        this.store = store;
+        this.bindRow = store.newRow();
+        this.lookupRow = store.newRow();
         this.videoManager = videoManager;
+        // Adapter 跟着 Activity 重建（比如横竖屏切换），列宽可能变了，之前量到的卡片高度作废
+        store.clearMeasuredHeights();
 
         // 注册三种默认卡片 Binder
         registerBinder(new TextCardBinder(this));
         registerBinder(new ImageTextCardBinder(this));
-        registerBinder(new VideoCardBinder(this, videoManager));
+        registerBinder(new VideoCardBinder(this, videoManager, posterLoader));
     }
 
     /**
@@ -77,29 +104,84 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
     public void registerBinder(CardBinder<? extends RecyclerView.ViewHolder> binder) {
         cardBinders.add(binder);
         binderMap.put(binder.getViewType(), binder);
+        if (binderProfiler != null) {
+            binderProfiler.register(binder.getViewType(), binder.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * 开启 / 关闭各卡片 create / bind 的耗时统计（Trace section + 直方图）
+     */
+    public void setBinderProfilingEnabled(boolean enabled) {
+        if (!enabled) {
+            binderProfiler = null;
+            return;
+        }
+        if (binderProfiler != null) {
+            return;
+        }
+        CardBinderProfiler profiler = new CardBinderProfiler();
+        for (CardBinder<? extends RecyclerView.ViewHolder> binder : cardBinders) {
+            profiler.register(binder.getViewType(), binder.getClass().getSimpleName());
+        }
+        binderProfiler = profiler;
+    }
+
+    /**
+     * 各卡片 create / bind 耗时分位数；未开启统计时返回空串
+     */
+    @NonNull
+    public String dumpBinderStats() {
+        CardBinderProfiler profiler = binderProfiler;
+        return profiler == null ? "" : profiler.dump();
     }
 
     public void setOnLoadMoreRetryListener(OnLoadMoreRetryListener listener) {
         this.loadMoreRetryListener = listener;
     }
 
-    // ===== 对外数据操作 =====
+    /**
+     * 首个卡片 bind 完成时回调一次
+     */
+    public void setOnFirstBindListener(@Nullable Runnable listener) {
+        this.firstBindListener = listener;
+    }
 
-    // 重置列表
-    public void setItems(List<FeedItem> items) {
-        data.clear();
-        if (items != null) {
-            data.addAll(items);
+    private void notifyFirstBind() {
+        Runnable listener = firstBindListener;
+        if (listener != null) {
+            firstBindListener = null;
+            listener.run();
         }
+    }
+
+    // ===== 对外数据操作 =====
+
+    public FeedStore getStore() {
+        return store;
+    }
+
+    // 列表整体替换（FeedStore 已经更新）
+    public void notifyItemsReset() {
         notifyDataSetChanged();
     }
 
-    // 追加数据（loadMore）
-    public void appendItems(List<FeedItem> items) {
-        if (items == null || items.isEmpty()) return;
-        int start = data.size();
-        data.addAll(items);
-        notifyItemRangeInserted(start, items.size());
+    // 追加数据（loadMore，FeedStore 已经追加）
+    public void notifyItemsAppended(int start, int count) {
+        if (count <= 0) return;
+        notifyItemRangeInserted(start, count);
+    }
+
+    // 下拉刷新合并：顶部插入了 count 行（FeedStore 已经插入）
+    public void notifyItemsPrepended(int count) {
+        if (count <= 0) return;
+        notifyItemRangeInserted(0, count);
+    }
+
+    // 被换出的页换回来了（FeedPageWindow），重新绑定这些行的文本
+    public void notifyItemsRestored(int start, int count) {
+        if (count <= 0) return;
+        notifyItemRangeChanged(start, count);
     }
 
     // footer：显示“正在加载更多…”
@@ -130,21 +212,49 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
 
     private void notifyFooterChanged() {
         if (showFooter) {
-            notifyItemChanged(data.size());
+            notifyItemChanged(store.size());
         } else {
             notifyDataSetChanged();
         }
     }
 
     /**
-     * 暴露给 ExposureTracker：根据 position 拿 FeedItem。
-     * 如果是 footer 位置或越界，返回 null。
+     * 根据 position 拿卡片类型；footer 位置或越界时返回 -1
      */
-    public FeedItem getItemAt(int position) {
-        if (position < 0 || position >= data.size()) {
-            return null;
+    public int getCardTypeAt(int position) {
+        if (position < 0 || position >= store.size()) {
+            return -1;
         }
-        return data.get(position);
+        return store.getCardType(position);
+    }
+
+    // ===== ExposureDataProvider =====
+
+    @Override
+    public long getItemIdForPosition(int position) {
+        if (position < 0 || position >= store.size()) {
+            return -1L;
+        }
+        return store.getId(position);
+    }
+
+    @Override
+    public int getItemIdsForRange(int fromPosition, int toPosition, long[] out) {
+        int count = toPosition - fromPosition + 1;
+        if (count <= 0) {
+            return 0;
+        }
+        int size = store.size();
+        if (fromPosition >= 0 && toPosition < size) {
+            // 常见情况：整段都在数据范围内，直接从 id 列拷贝
+            store.copyIds(fromPosition, count, out);
+            return count;
+        }
+        for (int i = 0; i < count; i++) {
+            int position = fromPosition + i;
+            out[i] = (position >= 0 && position < size) ? store.getId(position) : -1L;
+        }
+        return count;
     }
 
     /**
@@ -156,21 +266,21 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         if (isFooterPosition(position)) {
             return 2;
         }
-        FeedItem item = getItemAt(position);
-        if (item == null) return 2;
+        if (position < 0 || position >= store.size()) return 2;
 
-        CardBinder<? extends RecyclerView.ViewHolder> binder = findBinderForItem(item);
+        FeedStore.Row row = store.moveTo(lookupRow, position);
+        CardBinder<? extends RecyclerView.ViewHolder> binder = findBinderForCardType(row.getCardType());
         if (binder == null) {
-            return item.getSpanSize();
+            return row.getSpanSize();
         }
-        return binder.getSpanSize(item);
+        return binder.getSpanSize(row);
     }
 
     // ===== Adapter 核心实现 =====
 
     @Override
     public int getItemCount() {
-        return data.size() + (showFooter ? 1 : 0);
+        return store.size() + (showFooter ? 1 : 0);
     }
 
     private boolean isFooterPosition(int position) {
@@ -182,8 +292,8 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         if (isFooterPosition(position)) {
             return VIEW_TYPE_FOOTER;
         }
-        FeedItem item = data.get(position);
-        CardBinder<? extends RecyclerView.ViewHolder> binder = findBinderForItem(item);
+        CardBinder<? extends RecyclerView.ViewHolder> binder =
+                findBinderForCardType(store.getCardType(position));
         if (binder != null) {
             return binder.getViewType();
         }
@@ -191,9 +301,9 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         return FeedItem.CARD_TYPE_TEXT;
     }
 
-    private CardBinder<? extends RecyclerView.ViewHolder> findBinderForItem(FeedItem item) {
+    private CardBinder<? extends RecyclerView.ViewHolder> findBinderForCardType(int cardType) {
         for (CardBinder<? extends RecyclerView.ViewHolder> binder : cardBinders) {
-            if (binder.isForViewType(item)) {
+            if (binder.isForCardType(cardType)) {
                 return binder;
             }
         }
@@ -222,7 +332,24 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         CardBinder<RecyclerView.ViewHolder> typedBinder =
                 (CardBinder<RecyclerView.ViewHolder>) binder;
 
-        return typedBinder.onCreateViewHolder(inflater, parent);
+        CardBinderProfiler profiler = binderProfiler;
+        RecyclerView.ViewHolder holder;
+        if (profiler == null) {
+            holder = typedBinder.onCreateViewHolder(inflater, parent);
+        } else {
+            int profiledType = binder.getViewType();
+            long start = profiler.beginCreate(profiledType);
+            try {
+                holder = typedBinder.onCreateViewHolder(inflater, parent);
+            } finally {
+                profiler.endCreate(profiledType, start);
+            }
+        }
+        // 每次布局完记下卡片高度，文本页被换出后按这个高度占位
+        holder.itemView.addOnLayoutChangeListener(
+                (v, left, top, right, bottom, oldLeft, oldTop, oldRight, oldBottom) ->
+                        recordMeasuredHeight(holder, bottom - top));
+        return holder;
     }
 
     @Override
@@ -235,13 +362,13 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
             return;
         }
 
-        FeedItem item = data.get(position);
-        if (item == null) return;
+        if (position < 0 || position >= store.size()) return;
+        FeedStore.Row row = store.moveTo(bindRow, position);
 
         int viewType = getItemViewType(position);
         CardBinder<? extends RecyclerView.ViewHolder> binder = binderMap.get(viewType);
         if (binder == null) {
-            binder = findBinderForItem(item);
+            binder = findBinderForCardType(row.getCardType());
         }
         if (binder == null) {
             return;
@@ -251,7 +378,51 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         CardBinder<RecyclerView.ViewHolder> typedBinder =
                 (CardBinder<RecyclerView.ViewHolder>) binder;
 
-        typedBinder.onBindViewHolder(holder, item, position);
+        CardBinderProfiler profiler = binderProfiler;
+        if (profiler == null) {
+            typedBinder.onBindViewHolder(holder, row, position);
+        } else {
+            int profiledType = binder.getViewType();
+            long start = profiler.beginBind(profiledType);
+            try {
+                typedBinder.onBindViewHolder(holder, row, position);
+            } finally {
+                profiler.endBind(profiledType, start);
+            }
+        }
+        bindPlaceholderHeight(holder, row);
+        notifyFirstBind();
+    }
+
+    /**
+     * 文本页被换出的行绑定的是空文本，wrap_content 的卡片会变矮、让滚动位置跳动：
+     * 这时把卡片固定成换出前量到的高度；文本在内存里时恢复 wrap_content
+     */
+    private void bindPlaceholderHeight(RecyclerView.ViewHolder holder, FeedStore.Row row) {
+        ViewGroup.LayoutParams params = holder.itemView.getLayoutParams();
+        if (params == null) {
+            return;
+        }
+        int measured = row.getMeasuredHeight();
+        int height = !row.isTextResident() && measured > 0 ? measured : ViewGroup.LayoutParams.WRAP_CONTENT;
+        if (params.height != height) {
+            params.height = height;
+            holder.itemView.setLayoutParams(params);
+        }
+    }
+
+    private void recordMeasuredHeight(RecyclerView.ViewHolder holder, int height) {
+        int position = holder.getBindingAdapterPosition();
+        ViewGroup.LayoutParams params = holder.itemView.getLayoutParams();
+        // 只记文本在内存里、按 wrap_content 布局出来的真实高度
+        if (height <= 0 || position < 0 || position >= store.size()
+                || params == null || params.height != ViewGroup.LayoutParams.WRAP_CONTENT) {
+            return;
+        }
+        FeedStore.Row row = store.moveTo(lookupRow, position);
+        if (row.isTextResident()) {
+            store.setMeasuredHeight(position, height);
+        }
     }
 
     @Override
@@ -259,7 +430,7 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         super.onViewRecycled(holder);
         if (holder instanceof VideoViewHolder) {
             VideoViewHolder vh = (VideoViewHolder) holder;
-            videoManager.onViewRecycled(vh.playerView);
+            videoManager.onViewRecycled(vh.videoContainer);
         }
     }
 
@@ -293,11 +464,18 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
 
     // ===== 点击 / 长按删卡：对外暴露给 Binder 使用 =====
 
-    public void setupItemClicks(View itemView, FeedItem item, int position) {
+    /**
+     * 点击时才按 holder 当前的位置读数据（Row 是复用的，不能被回调捕获）
+     */
+    public void setupItemClicks(RecyclerView.ViewHolder holder) {
+        View itemView = holder.itemView;
         // 单击：Toast 提示
-        itemView.setOnClickListener(v ->
-                Toast.makeText(context, "点击卡片：" + item.getTitle(), Toast.LENGTH_SHORT).show()
-        );
+        itemView.setOnClickListener(v -> {
+            int pos = holder.getBindingAdapterPosition();
+            if (pos >= 0 && pos < store.size()) {
+                Toast.makeText(context, "点击卡片：" + store.getTitle(pos), Toast.LENGTH_SHORT).show();
+            }
+        });
 
         // 长按：删除卡片
         itemView.setOnLongClickListener(v -> {
@@ -305,9 +483,9 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
                     .setTitle("删除卡片")
                     .setMessage("确定要删除这条卡片吗？")
                     .setPositiveButton("删除", (dialog, which) -> {
-                        int pos = position;
-                        if (pos >= 0 && pos < data.size()) {
-                            data.remove(pos);
+                        int pos = holder.getBindingAdapterPosition();
+                        if (pos >= 0 && pos < store.size()) {
+                            store.remove(pos);
                             notifyItemRemoved(pos);
                         }
                     })
@@ -333,12 +511,14 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
     public static class ImageTextViewHolder extends RecyclerView.ViewHolder {
         public TextView tvTitle;
         public TextView tvContent;
+        public AspectRatioFrameLayout imageContainer;
         public ImageView ivImage;
 
         public ImageTextViewHolder(@NonNull View itemView) {
             super(itemView);
             tvTitle = itemView.findViewById(R.id.tv_title);
             tvContent = itemView.findViewById(R.id.tv_content);
+            imageContainer = itemView.findViewById(R.id.image_container);
             ivImage = itemView.findViewById(R.id.iv_image);
         }
     }
@@ -348,14 +528,17 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         public TextView tvTitle;
         public TextView tvContent;
         public TextView tvCountdown;
-        public PlayerView playerView;
+        // 轻量占位容器（按视频宽高比锁定尺寸），播放时由 FeedVideoManager 挂上共享 PlayerView
+        public AspectRatioFrameLayout videoContainer;
+        public ImageView ivPoster;
 
         public VideoViewHolder(@NonNull View itemView) {
             super(itemView);
             tvTitle = itemView.findViewById(R.id.tv_title);
             tvContent = itemView.findViewById(R.id.tv_content);
             tvCountdown = itemView.findViewById(R.id.tv_video_countdown);
-            playerView = itemView.findViewById(R.id.player_view);
+            videoContainer = itemView.findViewById(R.id.video_container);
+            ivPoster = itemView.findViewById(R.id.iv_video_poster);
         }
     }
 
@@ -0,0 +1,742 @@
+package com.jessica.feedapp.ui.feed;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.SavedStateHandle;
+import androidx.lifecycle.SavedStateHandleSupport;
+import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.lifecycle.viewmodel.CreationExtras;
+
+import com.jessica.feedapp.BuildConfig;
+import com.jessica.feedapp.data.FeedCacheManager;
+import com.jessica.feedapp.data.FeedPageStore;
+import com.jessica.feedapp.data.FeedPageWindow;
+import com.jessica.feedapp.data.FeedRepository;
+import com.jessica.feedapp.exposure.pipeline.ExposurePipeline;
+import com.jessica.feedapp.exposure.pipeline.ExposureUploader;
+import com.jessica.feedapp.exposure.pipeline.HttpExposureUploader;
+import com.jessica.feedapp.exposure.pipeline.LocalExposureServer;
+import com.jessica.feedapp.exposure.pipeline.LocalExposureSink;
+import com.jessica.feedapp.model.FeedDelta;
+import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.model.FeedStore;
+import com.jessica.feedapp.perf.StartupTracer;
+import com.jessica.feedapp.player.FeedVideoManager;
+import com.jessica.feedapp.player.VideoPosterLoader;
+import com.jessica.feedapp.work.CancellationToken;
+import com.jessica.feedapp.work.FeedWorkScheduler;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Feed 页的状态持有者（跨配置变更存活）：
+ * - 列表快照（列式 FeedStore）、loadedCount、页面 / footer / 刷新状态，以及首屏 / 刷新 / 加载更多的状态机
+ * - FeedStore 的滑动窗口：离可见区域较远的页换出到磁盘，长时间刷也不会一直涨内存
+ * - 下拉刷新是合并而不是替换：带上次的 cursor 只拉增量（FeedDelta），删除 / 更新原地应用，
+ *   新内容插到顶部、按 id 去重，已经加载的页和 loadedCount 都保留
+ * - 不依赖 View 的重资源：ExoPlayer（FeedVideoManager）、封面加载器、曝光上报管道
+ * 旋转、深色模式切换时 Activity 重建，只需 attach 回来重放当前状态：不读缓存、不请求网络、不重建播放器。
+ *
+ * 进程被杀时只通过 SavedStateHandle 保存一份很小的快照（滚动锚点、loadedCount、刷新游标、当前视频及进度），
+ * 恢复时从本地缓存重建列表并回到原来的位置，不再覆盖成网络首屏。
+ *
+ * 只在主线程使用。
+ */
+public class FeedViewModel extends AndroidViewModel {
+
+    public enum PageState {
+        LOADING,
+        CONTENT,
+        ERROR,
+        EMPTY
+    }
+
+    public enum FooterState {
+        HIDDEN,
+        LOADING,
+        ERROR
+    }
+
+    /** 列表整体替换时数据的来源 */
+    public enum Source {
+        CACHE,
+        NETWORK,
+        RETAINED
+    }
+
+    /**
+     * Activity 实现，attach 期间接收状态变化
+     */
+    public interface Host {
+        /** getStore() 的内容被整体替换 */
+        void onItemsReset(@NonNull Source source);
+
+        /** getStore() 在 [start, start + count) 追加了新行 */
+        void onItemsAppended(int start, int count);
+
+        /** 下拉刷新合并：getStore() 顶部插入了 count 行，原来的行整体后移 */
+        void onItemsPrepended(int count);
+
+        /** 增量刷新开始应用（之后是若干 onItemRemoved / onItemChanged / onItemsPrepended），getStore() 还没变 */
+        void onDeltaStarted();
+
+        /** 增量刷新的删、改、插都已经应用到 getStore() */
+        void onDeltaFinished();
+
+        /** 增量刷新：position 处的行（itemId）被删除了 */
+        void onItemRemoved(int position, long itemId);
+
+        /** 增量刷新：position 处的行内容被原地更新 */
+        void onItemChanged(int position);
+
+        /** [start, start + count) 行的文本从磁盘换回来了，需要重新绑定 */
+        void onItemsRestored(int start, int count);
+
+        void onPageStateChanged(@NonNull PageState state);
+
+        void onFooterStateChanged(@NonNull FooterState state);
+
+        void onRefreshingChanged(boolean refreshing);
+
+        void onMessage(@NonNull String message);
+
+        /** 首屏请求有了结果（成功 / 失败 / 空） */
+        void onInitialLoadSettled();
+
+        /** 进程恢复：锚点所在的页已经补回 getStore()，滚回 position 并保持 offset 像素偏移 */
+        void onRestoreAnchor(int position, int offset);
+    }
+
+    /**
+     * 创建 FeedViewModel，曝光上报出口由这里注入：
+     * 默认 release 包上报到线上地址（BuildConfig.EXPOSURE_ENDPOINT），
+     * debug 包上报到本机的替身服务端；测试可以传入自己的 ExposureUploader
+     */
+    public static final class Factory implements ViewModelProvider.Factory {
+
+        @Nullable
+        private final ExposureUploader exposureUploader;
+
+        public Factory() {
+            this(null);
+        }
+
+        /**
+         * @param exposureUploader 曝光上报出口；为 null 时按构建类型选默认的
+         */
+        public Factory(@Nullable ExposureUploader exposureUploader) {
+            this.exposureUploader = exposureUploader;
+        }
+
+        @NonNull
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends ViewModel> T create(@NonNull Class<T> modelClass, @NonNull CreationExtras extras) {
+            if (!modelClass.isAssignableFrom(FeedViewModel.class)) {
+                throw new IllegalArgumentException("Unknown ViewModel class: " + modelClass.getName());
+            }
+            Application application = extras.get(ViewModelProvider.AndroidViewModelFactory.APPLICATION_KEY);
+            if (application == null) {
+                throw new IllegalStateException("FeedViewModel needs an Application in CreationExtras");
+            }
+            SavedStateHandle savedState = SavedStateHandleSupport.createSavedStateHandle(extras);
+            ExposureUploader uploader = exposureUploader != null
+                    ? exposureUploader
+                    : createDefaultExposureUploader();
+            return (T) new FeedViewModel(application, savedState, uploader);
+        }
+
+        @NonNull
+        private static ExposureUploader createDefaultExposureUploader() {
+            if (BuildConfig.LOCAL_EXPOSURE_SERVER) {
+                // debug：本地替身服务端，20% 概率返回 503 以验证重试
+                return new LocalExposureSink(new LocalExposureServer(0.2f));
+            }
+            return new HttpExposureUploader(BuildConfig.EXPOSURE_ENDPOINT);
+        }
+    }
+
+    // ===== 进程被杀后的快照 =====
+    private static final String KEY_ANCHOR_POSITION = "feed_anchor_position";
+    private static final String KEY_ANCHOR_OFFSET = "feed_anchor_offset";
+    private static final String KEY_LOADED_COUNT = "feed_loaded_count";
+    private static final String KEY_VIDEO_ITEM_ID = "feed_video_item_id";
+    private static final String KEY_VIDEO_POSITION_MS = "feed_video_position_ms";
+    private static final String KEY_REFRESH_CURSOR = "feed_refresh_cursor";
+
+    // 刷新后写进本地缓存的顶部条数
+    private static final int CACHE_HEAD_ROWS = 20;
+
+    // 可见区域前后各保留几页文本（每页 FeedStore.PAGE_ROWS 行）
+    private static final int WINDOW_KEEP_PAGES = 3;
+
+    private final SavedStateHandle savedState;
+    private final FeedWorkScheduler scheduler = FeedWorkScheduler.getDefault();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    // 本页面提交的请求共用一个 token，onCleared 时统一取消
+    private final CancellationToken workToken = new CancellationToken();
+    private final FeedRepository repository = new FeedRepository(scheduler, handler::post);
+
+    private FeedCacheManager cacheManager;
+    private final FeedVideoManager videoManager;
+    private final VideoPosterLoader posterLoader;
+    private final ExposurePipeline exposurePipeline;
+
+    // ===== 列表状态 =====
+    // 列式存储，Activity 重建后 Adapter 直接读同一份
+    private final FeedStore store = new FeedStore();
+    private final FeedPageStore pageStore;
+    private final FeedPageWindow pageWindow;
+    private PageState pageState = PageState.LOADING;
+    private FooterState footerState = FooterState.HIDDEN;
+    private boolean refreshing = false;
+    private boolean isLoadingMore = false;
+    private boolean initialLoadSettled = false;
+    private int loadedCount = 0;
+    // 列表顶部刷新插入的行数：刷新只往顶部插、分页只往末尾追加，这几行之后都是分页取到的
+    private int refreshedRows = 0;
+    // 增量刷新游标（服务端下发，不透明）；为 null 时下一次刷新拿首页快照
+    @Nullable
+    private String refreshCursor;
+    private boolean started = false;
+
+    // 进程被杀后恢复出的滚动锚点和分页游标：分页补回快照时的位置后交给 Activity 一次，然后清掉
+    private int restoreAnchorPosition = -1;
+    private int restoreAnchorOffset = 0;
+    private int restoreLoadedCount = 0;
+    // 正在按快照补回分页，期间 loadMore 不另发请求
+    private boolean restoringPages = false;
+
+    @Nullable
+    private Host host;
+
+    /**
+     * 通过 {@link Factory} 创建
+     */
+    FeedViewModel(@NonNull Application application,
+                  @NonNull SavedStateHandle savedState,
+                  @NonNull ExposureUploader exposureUploader) {
+        super(application);
+        this.savedState = savedState;
+        this.videoManager = new FeedVideoManager(application);
+        this.posterLoader = new VideoPosterLoader(application, scheduler);
+        this.exposurePipeline = new ExposurePipeline(application, exposureUploader, scheduler);
+        exposurePipeline.start();
+        this.pageStore = new FeedPageStore(
+                new File(application.getCacheDir(), "feed_pages"), scheduler, handler::post);
+        this.pageWindow = new FeedPageWindow(store, pageStore, WINDOW_KEEP_PAGES);
+        pageWindow.setListener((start, count) -> {
+            if (host != null) {
+                host.onItemsRestored(start, count);
+            }
+        });
+
+        Integer anchor = savedState.get(KEY_ANCHOR_POSITION);
+        if (anchor != null) {
+            restoreAnchorPosition = anchor;
+            Integer offset = savedState.get(KEY_ANCHOR_OFFSET);
+            restoreAnchorOffset = offset != null ? offset : 0;
+        }
+        Integer loaded = savedState.get(KEY_LOADED_COUNT);
+        restoreLoadedCount = loaded != null ? loaded : 0;
+        refreshCursor = savedState.get(KEY_REFRESH_CURSOR);
+        Long videoItemId = savedState.get(KEY_VIDEO_ITEM_ID);
+        Long videoPositionMs = savedState.get(KEY_VIDEO_POSITION_MS);
+        if (videoItemId != null && videoPositionMs != null) {
+            videoManager.restorePlayback(videoItemId, videoPositionMs);
+        }
+    }
+
+    @NonNull
+    public FeedVideoManager getVideoManager() {
+        return videoManager;
+    }
+
+    @NonNull
+    public VideoPosterLoader getPosterLoader() {
+        return posterLoader;
+    }
+
+    @NonNull
+    public ExposurePipeline getExposurePipeline() {
+        return exposurePipeline;
+    }
+
+    /** 是否已经开始过加载（为 true 说明当前是配置变更后的重建） */
+    public boolean hasStarted() {
+        return started;
+    }
+
+    @NonNull
+    public FeedStore getStore() {
+        return store;
+    }
+
+    @NonNull
+    public FeedPageWindow getPageWindow() {
+        return pageWindow;
+    }
+
+    /**
+     * 列表可见区域变化（滑动时调用）：移动 FeedStore 的窗口，换出远处的页、换入将要看到的页
+     */
+    public void onViewportChanged(int firstVisible, int lastVisible) {
+        pageWindow.onViewportChanged(firstVisible, lastVisible);
+    }
+
+    public boolean isLoadingMore() {
+        return isLoadingMore;
+    }
+
+    /** 是否是进程被杀后恢复（带着快照创建） */
+    public boolean isRestoredFromSavedState() {
+        return savedState.contains(KEY_LOADED_COUNT);
+    }
+
+    /**
+     * Activity 创建后 attach：已有状态直接重放（配置变更），首次则开始加载
+     */
+    public void attach(@NonNull Host host, @Nullable StartupTracer startupTracer) {
+        this.host = host;
+        if (!started) {
+            started = true;
+            startWithCacheThenLoadInitial(startupTracer);
+            return;
+        }
+        // 配置变更：把内存中的快照原样交给新的 Activity
+        host.onItemsReset(Source.RETAINED);
+        host.onPageStateChanged(pageState);
+        host.onFooterStateChanged(footerState);
+        host.onRefreshingChanged(refreshing);
+        if (initialLoadSettled) {
+            host.onInitialLoadSettled();
+        }
+        if (!restoringPages) {
+            // 补页在上一个 Activity 销毁期间完成，锚点还没交出去
+            deliverRestoreAnchor();
+        }
+    }
+
+    public void detach(@NonNull Host host) {
+        if (this.host == host) {
+            this.host = null;
+        }
+    }
+
+    /**
+     * Activity.onSaveInstanceState 时写入很小的快照，进程被杀后用来恢复
+     */
+    public void saveSnapshot(int anchorPosition, int anchorOffset) {
+        savedState.set(KEY_ANCHOR_POSITION, anchorPosition);
+        savedState.set(KEY_ANCHOR_OFFSET, anchorOffset);
+        // 补页还没完成时再次被杀，下次仍按原快照补
+        savedState.set(KEY_LOADED_COUNT, Math.max(loadedCount, restoreLoadedCount));
+        savedState.set(KEY_REFRESH_CURSOR, refreshCursor);
+        long videoItemId = videoManager.getCurrentItemId();
+        if (videoItemId >= 0) {
+            savedState.set(KEY_VIDEO_ITEM_ID, videoItemId);
+            savedState.set(KEY_VIDEO_POSITION_MS, videoManager.getCurrentPositionMs());
+        } else {
+            savedState.remove(KEY_VIDEO_ITEM_ID);
+            savedState.remove(KEY_VIDEO_POSITION_MS);
+        }
+    }
+
+    // ========= 本地缓存 + 首屏秒开 =========
+
+    private void startWithCacheThenLoadInitial(@Nullable StartupTracer startupTracer) {
+        if (startupTracer != null) {
+            startupTracer.begin(StartupTracer.PHASE_CACHE_MANAGER_INIT);
+        }
+        cacheManager = new FeedCacheManager(getApplication(), scheduler);
+        if (startupTracer != null) {
+            startupTracer.end();
+            startupTracer.begin(StartupTracer.PHASE_CACHE_DECODE);
+        }
+        List<FeedItem> cached = cacheManager.loadFeedList();
+        if (startupTracer != null) {
+            startupTracer.end();
+        }
+
+        if (cached != null && !cached.isEmpty()) {
+            resetFromCache(cached);
+            setPageState(PageState.CONTENT);
+            if (isRestoredFromSavedState()) {
+                // 进程恢复：保留用户原来看的内容和位置，不再用网络首屏覆盖（需要时下拉刷新）；
+                // 缓存只有顶部几十条，先把分页补回快照时的位置再滚回锚点
+                settleInitialLoad();
+                restorePages();
+                return;
+            }
+        } else {
+            setPageState(PageState.LOADING);
+        }
+        loadInitialData();
+    }
+
+    // ========= 首屏加载 / 刷新 / 加载更多 =========
+
+    public void reloadFirstPage() {
+        setPageState(PageState.LOADING);
+        setFooterState(FooterState.HIDDEN);
+        loadInitialData();
+    }
+
+    private void loadInitialData() {
+        repository.loadInitialAsync(workToken, new FeedRepository.Callback() {
+            @Override
+            public void onSuccess(List<FeedItem> loaded) {
+                if (loaded.isEmpty()) {
+                    resetItems(Collections.emptyList(), Source.NETWORK, 0, 0);
+                    setPageState(PageState.EMPTY);
+                    setFooterState(FooterState.HIDDEN);
+                    cacheManager.clear();
+                } else {
+                    resetItems(loaded, Source.NETWORK, 0, loaded.size());
+                    setPageState(PageState.CONTENT);
+                    saveHeadToCache();
+                }
+                settleInitialLoad();
+                if (restoreAnchorPosition >= 0 && !store.isEmpty()) {
+                    // 进程恢复但没有缓存：首屏到了之后同样补页再滚回锚点
+                    restorePages();
+                }
+            }
+
+            @Override
+            public void onError() {
+                // 列表里已经是缓存内容时不用再读一遍缓存
+                if (!store.isEmpty()) {
+                    setPageState(PageState.CONTENT);
+                    postMessage("网络异常，已展示上次缓存内容");
+                } else {
+                    List<FeedItem> cached = cacheManager.loadFeedList();
+                    if (cached != null && !cached.isEmpty()) {
+                        resetFromCache(cached);
+                        setPageState(PageState.CONTENT);
+                        postMessage("网络异常，已展示上次缓存内容");
+                    } else {
+                        setPageState(PageState.ERROR);
+                        setFooterState(FooterState.HIDDEN);
+                        postMessage("加载失败，请点击重试");
+                    }
+                }
+                settleInitialLoad();
+            }
+        });
+    }
+
+    public void refresh() {
+        setRefreshing(true);
+
+        repository.refreshSinceAsync(refreshCursor, workToken, new FeedRepository.DeltaCallback() {
+            @Override
+            public void onSuccess(FeedDelta delta) {
+                refreshCursor = delta.getCursor();
+                if (store.isEmpty()) {
+                    if (delta.getInserted().isEmpty()) {
+                        postMessage("暂无最新内容");
+                    } else {
+                        // 首页快照不按分页 offset 排，整批当作刷新插入的行；加载更多从 0 取，已有的 id 跳过
+                        List<FeedItem> inserted = delta.getInserted();
+                        resetItems(inserted, Source.NETWORK, inserted.size(), 0);
+                        setPageState(PageState.CONTENT);
+                        saveHeadToCache();
+                    }
+                } else {
+                    applyDelta(delta);
+                    saveHeadToCache();
+                }
+                setRefreshing(false);
+            }
+
+            @Override
+            public void onError() {
+                postMessage("刷新失败，已保留当前内容");
+                setRefreshing(false);
+            }
+        });
+    }
+
+    public void loadMore() {
+        if (isLoadingMore) {
+            return;
+        }
+        isLoadingMore = true;
+        setFooterState(FooterState.LOADING);
+
+        repository.loadMoreAsync(loadedCount, workToken, new FeedRepository.Callback() {
+            @Override
+            public void onSuccess(List<FeedItem> more) {
+                int start = store.size();
+                int appended = appendLoaded(more);
+                setFooterState(FooterState.HIDDEN);
+                if (start < CACHE_HEAD_ROWS) {
+                    // 列表原来不够缓存的条数，追加的行也属于顶部
+                    saveHeadToCache();
+                }
+                isLoadingMore = false;
+                if (appended == 0 && !more.isEmpty()) {
+                    // 整页都已经在列表里，列表没变长，不会再触发滚动到底，直接取下一页
+                    loadMore();
+                }
+            }
+
+            @Override
+            public void onError() {
+                setFooterState(FooterState.ERROR);
+                postMessage("加载更多失败，请点击重试");
+                isLoadingMore = false;
+            }
+        });
+    }
+
+    /**
+     * 进程恢复：一页一页补到快照里的 loadedCount，且锚点所在行已经在 store 里，再把锚点交给 Activity。
+     * 请求失败或没有更多数据时停在已有内容的最后一行。
+     */
+    private void restorePages() {
+        if (loadedCount >= restoreLoadedCount && restoreAnchorPosition < store.size()) {
+            finishRestorePages();
+            return;
+        }
+        restoringPages = true;
+        isLoadingMore = true;
+        setFooterState(FooterState.LOADING);
+        repository.loadMoreAsync(loadedCount, workToken, new FeedRepository.Callback() {
+            @Override
+            public void onSuccess(List<FeedItem> more) {
+                if (more.isEmpty()) {
+                    restoreLoadedCount = loadedCount;
+                    restoreAnchorPosition = Math.min(restoreAnchorPosition, store.size() - 1);
+                } else {
+                    appendLoaded(more);
+                }
+                restorePages();
+            }
+
+            @Override
+            public void onError() {
+                if (restoreAnchorPosition >= store.size()) {
+                    restoreAnchorPosition = store.size() - 1;
+                    restoreAnchorOffset = 0;
+                }
+                finishRestorePages();
+                setFooterState(FooterState.ERROR);
+                postMessage("恢复浏览位置失败，请点击重试");
+            }
+        });
+    }
+
+    private void finishRestorePages() {
+        restoringPages = false;
+        isLoadingMore = false;
+        restoreLoadedCount = 0;
+        setFooterState(FooterState.HIDDEN);
+        deliverRestoreAnchor();
+    }
+
+    private void deliverRestoreAnchor() {
+        if (host == null || restoreAnchorPosition < 0) {
+            return;
+        }
+        int position = restoreAnchorPosition;
+        restoreAnchorPosition = -1;
+        host.onRestoreAnchor(position, restoreAnchorOffset);
+    }
+
+    /**
+     * 追加一页分页结果：游标按请求到的条数前进，列表里已有的 id（刷新插入过的、缓存游标偏保守多取回的）跳过。
+     * 返回实际追加的行数
+     */
+    private int appendLoaded(List<FeedItem> more) {
+        int start = store.size();
+        loadedCount += more.size();
+        List<FeedItem> fresh = store.excludeExisting(more);
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+        store.appendAll(fresh);
+        if (host != null) {
+            host.onItemsAppended(start, fresh.size());
+        }
+        return fresh.size();
+    }
+
+    /**
+     * 增量刷新结果逐条应用到列表：先删、再原地更新、最后把新内容插到顶部（已有的 id 跳过）。
+     * 前后各通知 Host 一次，滚动锚点按整次增量来保持，而不是每一步各算一次。
+     * 已经加载的页都保留；loadedCount 是加载更多的游标，只统计分页加载的条数，刷新不改变它。
+     */
+    private void applyDelta(FeedDelta delta) {
+        setPageState(PageState.CONTENT);
+        if (host != null) {
+            host.onDeltaStarted();
+        }
+
+        long[] deletedIds = delta.getDeletedIds();
+        int[] deletedPositions = store.positionsOf(deletedIds);
+        // 从后往前删，前面的位置不受影响
+        Integer[] order = new Integer[deletedIds.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(deletedPositions[b], deletedPositions[a]));
+        int deletedCount = 0;
+        for (Integer index : order) {
+            int position = deletedPositions[index];
+            if (position < 0) {
+                break;
+            }
+            store.remove(position);
+            deletedCount++;
+            if (position < refreshedRows) {
+                refreshedRows--;
+            }
+            if (host != null) {
+                host.onItemRemoved(position, deletedIds[index]);
+            }
+        }
+
+        List<FeedItem> updated = delta.getUpdated();
+        long[] updatedIds = new long[updated.size()];
+        for (int i = 0; i < updatedIds.length; i++) {
+            updatedIds[i] = updated.get(i).getId();
+        }
+        int[] updatedPositions = store.positionsOf(updatedIds);
+        int updatedCount = 0;
+        for (int i = 0; i < updatedPositions.length; i++) {
+            int position = updatedPositions[i];
+            if (position >= 0) {
+                store.set(position, updated.get(i));
+                updatedCount++;
+                if (host != null) {
+                    host.onItemChanged(position);
+                }
+            }
+        }
+
+        List<FeedItem> fresh = store.excludeExisting(delta.getInserted());
+        if (!fresh.isEmpty()) {
+            store.insertAll(0, fresh);
+            refreshedRows += fresh.size();
+            if (host != null) {
+                host.onItemsPrepended(fresh.size());
+            }
+        }
+        if (host != null) {
+            host.onDeltaFinished();
+        }
+
+        if (fresh.isEmpty() && updatedCount == 0 && deletedCount == 0) {
+            postMessage("暂无最新内容");
+        } else {
+            postMessage("新增 " + fresh.size() + " 条，更新 " + updatedCount + " 条，删除 " + deletedCount + " 条");
+        }
+    }
+
+    /**
+     * 把合并后列表的顶部写进本地缓存（首屏秒开用）：首屏、刷新（整体替换或合并）、顶部不满时的加载更多都走这里，
+     * 缓存里总是当前列表的前 CACHE_HEAD_ROWS 行，而不是某一次请求的结果。
+     * 顶部某一页被换出时只写它之前的连续几行；一行都读不到时保留上一份缓存。
+     * 同时写下恢复这份缓存后加载更多的 offset：整张列表都写进去时就是 loadedCount；
+     * 只写了顶部时取缓存里分页行的条数——分页行按 offset 顺序排列，中间被删掉的只会让它偏小，
+     * 恢复后多取回的几条在 appendLoaded 里按 id 跳过，不会漏掉缓存之后的内容
+     */
+    private void saveHeadToCache() {
+        int count = Math.min(CACHE_HEAD_ROWS, store.size());
+        List<FeedItem> head = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            FeedItem item = store.getItem(i);
+            if (item == null) {
+                break;
+            }
+            head.add(item);
+        }
+        if (head.isEmpty()) {
+            return;
+        }
+        int headRefreshed = Math.min(refreshedRows, head.size());
+        int pagingOffset = head.size() == store.size()
+                ? loadedCount
+                : Math.min(loadedCount, head.size() - headRefreshed);
+        cacheManager.saveFeedList(head, headRefreshed, pagingOffset);
+    }
+
+    // ========= 状态更新 =========
+
+    /**
+     * 缓存的列表恢复时带着写缓存时的分页游标；旧版本的缓存没有游标，按整份列表都是分页行处理
+     */
+    private void resetFromCache(List<FeedItem> cached) {
+        int cachedRefreshed = Math.min(cacheManager.loadRefreshedRows(), cached.size());
+        resetItems(cached, Source.CACHE, cachedRefreshed, cacheManager.loadPagingOffset(cached.size()));
+    }
+
+    private void resetItems(List<FeedItem> newItems, Source source, int refreshedRows, int pagingOffset) {
+        store.clear();
+        store.appendAll(newItems);
+        this.refreshedRows = refreshedRows;
+        loadedCount = pagingOffset;
+        if (host != null) {
+            host.onItemsReset(source);
+        }
+    }
+
+    private void setPageState(PageState state) {
+        pageState = state;
+        if (host != null) {
+            host.onPageStateChanged(state);
+        }
+    }
+
+    private void setFooterState(FooterState state) {
+        footerState = state;
+        if (host != null) {
+            host.onFooterStateChanged(state);
+        }
+    }
+
+    private void setRefreshing(boolean refreshing) {
+        this.refreshing = refreshing;
+        if (host != null) {
+            host.onRefreshingChanged(refreshing);
+        }
+    }
+
+    private void settleInitialLoad() {
+        initialLoadSettled = true;
+        if (host != null) {
+            host.onInitialLoadSettled();
+        }
+    }
+
+    private void postMessage(String message) {
+        // 提示只发给当前 attach 的页面，重建期间的提示直接丢弃
+        if (host != null) {
+            host.onMessage(message);
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        workToken.cancel();
+        handler.removeCallbacksAndMessages(null);
+        host = null;
+        exposurePipeline.shutdown();
+        videoManager.release();
+        posterLoader.release();
+        pageStore.release();
+    }
+}
@@ -0,0 +1,92 @@
+package com.jessica.feedapp.ui.feed.card;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 按宽高比锁定尺寸的媒体容器：高度 = 宽度 / aspectRatio，和内容无关。
+ * - Binder 在绑定时用 MediaInfo 的宽高设置比例，卡片第一次测量就是最终尺寸
+ * - 尺寸确定之后，子 View（封面 ImageView、共享 PlayerView）加载完成触发的 requestLayout
+ *   不再往上冒泡到 RecyclerView，只在容器内部重新测量 / 布局子 View
+ * - aspectRatio 为 0 时退化成普通 FrameLayout
+ */
+public class AspectRatioFrameLayout extends FrameLayout {
+
+    private float aspectRatio;
+    private boolean childLayoutPending;
+    private final Runnable layoutChildren = this::measureAndLayoutChildren;
+
+    public AspectRatioFrameLayout(@NonNull Context context) {
+        super(context);
+    }
+
+    public AspectRatioFrameLayout(@NonNull Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    /**
+     * @param aspectRatio 宽 / 高；比例变化时才会重新布局（只在绑定时发生）
+     */
+    public void setAspectRatio(float aspectRatio) {
+        if (this.aspectRatio != aspectRatio) {
+            this.aspectRatio = aspectRatio;
+            super.requestLayout();
+        }
+    }
+
+    public float getAspectRatio() {
+        return aspectRatio;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        if (aspectRatio <= 0f || MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.UNSPECIFIED) {
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+            return;
+        }
+        int height = Math.round(width / aspectRatio);
+        super.onMeasure(
+                MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(height, MeasureSpec.EXACTLY));
+    }
+
+    @Override
+    public void requestLayout() {
+        if (aspectRatio > 0f && getWidth() > 0 && isAttachedToWindow() && !isInLayout()) {
+            // 自己的尺寸只由父布局给的宽度和比例决定，子 View 的变化影响不到它
+            if (!childLayoutPending) {
+                childLayoutPending = true;
+                post(layoutChildren);
+            }
+            return;
+        }
+        super.requestLayout();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (childLayoutPending) {
+            childLayoutPending = false;
+            removeCallbacks(layoutChildren);
+            // 重新 attach 时按正常流程布局
+            super.requestLayout();
+        }
+    }
+
+    private void measureAndLayoutChildren() {
+        childLayoutPending = false;
+        if (getWidth() <= 0) {
+            return;
+        }
+        forceLayout();
+        measure(MeasureSpec.makeMeasureSpec(getWidth(), MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(getHeight(), MeasureSpec.EXACTLY));
+        layout(getLeft(), getTop(), getRight(), getBottom());
+    }
+}
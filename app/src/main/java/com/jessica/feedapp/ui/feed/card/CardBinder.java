@@ -5,27 +5,28 @@ import android.view.ViewGroup;
 
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.model.FeedStore;
 
 /**
  * 卡片样式插件接口：
  * - 一个 Binder 对应一种卡片 viewType
  * - 负责创建 ViewHolder、绑定数据、spanSize 等
+ * - 数据通过 FeedStore.Row 游标传入，Row 由 Adapter 复用，只在调用期间有效，不要保存或在回调里捕获
  */
 public interface CardBinder<VH extends RecyclerView.ViewHolder> {
 
     /** 用于 RecyclerView 的 viewType，通常与 FeedItem.cardType 对应 */
     int getViewType();
 
-    /** 是否处理这个 FeedItem（一般根据 cardType 判断） */
-    boolean isForViewType(FeedItem item);
+    /** 是否处理这种 cardType 的卡片 */
+    boolean isForCardType(int cardType);
 
     /** 创建 ViewHolder */
     VH onCreateViewHolder(LayoutInflater inflater, ViewGroup parent);
 
     /** 绑定数据 */
-    void onBindViewHolder(VH holder, FeedItem item, int position);
+    void onBindViewHolder(VH holder, FeedStore.Row row, int position);
 
     /** 返回该卡片所占列数（用于 GridLayoutManager.spanSizeLookup） */
-    int getSpanSize(FeedItem item);
+    int getSpanSize(FeedStore.Row row);
 }
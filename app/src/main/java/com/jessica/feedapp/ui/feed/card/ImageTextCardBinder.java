@@ -6,13 +6,17 @@ import android.view.ViewGroup;
 
 import com.jessica.feedapp.R;
 import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.model.FeedStore;
 import com.jessica.feedapp.ui.feed.FeedAdapter;
 
 /**
- * 图文卡片 Binder（IMAGE_TEXT）
+ * 图文卡片 Binder（IMAGE_TEXT）：图片容器按 MediaInfo 的宽高比占位
  */
 public class ImageTextCardBinder implements CardBinder<FeedAdapter.ImageTextViewHolder> {
 
+    // 没有宽高（旧数据）时的默认比例
+    private static final float DEFAULT_ASPECT_RATIO = 4f / 3f;
+
     private final FeedAdapter adapter;
 
     public ImageTextCardBinder(FeedAdapter adapter) {
@@ -25,8 +29,8 @@ public class ImageTextCardBinder implements CardBinder<FeedAdapter.ImageTextView
     }
 
     @Override
-    public boolean isForViewType(FeedItem item) {
-        return item.getCardType() == FeedItem.CARD_TYPE_IMAGE_TEXT;
+    public boolean isForCardType(int cardType) {
+        return cardType == FeedItem.CARD_TYPE_IMAGE_TEXT;
     }
 
     @Override
@@ -36,15 +40,18 @@ public class ImageTextCardBinder implements CardBinder<FeedAdapter.ImageTextView
     }
 
     @Override
-    public void onBindViewHolder(FeedAdapter.ImageTextViewHolder holder, FeedItem item, int position) {
-        holder.tvTitle.setText(item.getTitle());
-        holder.tvContent.setText(item.getContent());
-        // 这里你可以根据 imageUrl 加载图片（Glide/Picasso），当前 Demo 先不加载真实图
-        adapter.setupItemClicks(holder.itemView, item, position);
+    public void onBindViewHolder(FeedAdapter.ImageTextViewHolder holder, FeedStore.Row row, int position) {
+        holder.tvTitle.setText(row.textArena(), row.titleStart(), row.titleLength());
+        holder.tvContent.setText(row.textArena(), row.contentStart(), row.contentLength());
+        float ratio = row.getMediaAspectRatio();
+        holder.imageContainer.setAspectRatio(ratio > 0f ? ratio : DEFAULT_ASPECT_RATIO);
+        // 这里你可以根据 getMediaUrl 加载图片（Glide/Picasso），当前 Demo 先不加载真实图；
+        // 容器尺寸已经固定，图片加载完成也不会改变卡片高度
+        adapter.setupItemClicks(holder);
     }
 
     @Override
-    public int getSpanSize(FeedItem item) {
-        return item.getSpanSize();
+    public int getSpanSize(FeedStore.Row row) {
+        return row.getSpanSize();
     }
 }
@@ -6,6 +6,7 @@ import android.view.ViewGroup;
 
 import com.jessica.feedapp.R;
 import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.model.FeedStore;
 import com.jessica.feedapp.ui.feed.FeedAdapter;
 
 /**
@@ -25,8 +26,8 @@ public class TextCardBinder implements CardBinder<FeedAdapter.TextViewHolder> {
     }
 
     @Override
-    public boolean isForViewType(FeedItem item) {
-        return item.getCardType() == FeedItem.CARD_TYPE_TEXT;
+    public boolean isForCardType(int cardType) {
+        return cardType == FeedItem.CARD_TYPE_TEXT;
     }
 
     @Override
@@ -36,14 +37,14 @@ public class TextCardBinder implements CardBinder<FeedAdapter.TextViewHolder> {
     }
 
     @Override
-    public void onBindViewHolder(FeedAdapter.TextViewHolder holder, FeedItem item, int position) {
-        holder.tvTitle.setText(item.getTitle());
-        holder.tvContent.setText(item.getContent());
-        adapter.setupItemClicks(holder.itemView, item, position);
+    public void onBindViewHolder(FeedAdapter.TextViewHolder holder, FeedStore.Row row, int position) {
+        holder.tvTitle.setText(row.textArena(), row.titleStart(), row.titleLength());
+        holder.tvContent.setText(row.textArena(), row.contentStart(), row.contentLength());
+        adapter.setupItemClicks(holder);
     }
 
     @Override
-    public int getSpanSize(FeedItem item) {
-        return item.getSpanSize();
+    public int getSpanSize(FeedStore.Row row) {
+        return row.getSpanSize();
     }
 }
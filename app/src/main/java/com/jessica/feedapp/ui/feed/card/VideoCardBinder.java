@@ -6,20 +6,31 @@ import android.view.ViewGroup;
 
 import com.jessica.feedapp.R;
 import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.model.FeedStore;
 import com.jessica.feedapp.player.FeedVideoManager;
+import com.jessica.feedapp.player.VideoPosterLoader;
 import com.jessica.feedapp.ui.feed.FeedAdapter;
 
+import java.util.Locale;
+
 /**
- * 视频卡片 Binder（ExoPlayer）
+ * 视频卡片 Binder（ExoPlayer）：视频容器按 MediaInfo 的宽高比占位
  */
 public class VideoCardBinder implements CardBinder<FeedAdapter.VideoViewHolder> {
 
+    // 没有宽高（旧数据）时的默认比例
+    private static final float DEFAULT_ASPECT_RATIO = 16f / 9f;
+
     private final FeedAdapter adapter;
     private final FeedVideoManager videoManager;
+    private final VideoPosterLoader posterLoader;
 
-    public VideoCardBinder(FeedAdapter adapter, FeedVideoManager videoManager) {
+    public VideoCardBinder(FeedAdapter adapter,
+                           FeedVideoManager videoManager,
+                           VideoPosterLoader posterLoader) {
         this.adapter = adapter;
         this.videoManager = videoManager;
+        this.posterLoader = posterLoader;
     }
 
     @Override
@@ -28,8 +39,8 @@ public class VideoCardBinder implements CardBinder<FeedAdapter.VideoViewHolder>
     }
 
     @Override
-    public boolean isForViewType(FeedItem item) {
-        return item.getCardType() == FeedItem.CARD_TYPE_VIDEO;
+    public boolean isForCardType(int cardType) {
+        return cardType == FeedItem.CARD_TYPE_VIDEO;
     }
 
     @Override
@@ -39,21 +50,43 @@ public class VideoCardBinder implements CardBinder<FeedAdapter.VideoViewHolder>
     }
 
     @Override
-    public void onBindViewHolder(FeedAdapter.VideoViewHolder holder, FeedItem item, int position) {
-        holder.tvTitle.setText("[视频] " + item.getTitle());
-        holder.tvContent.setText(item.getContent());
-        holder.tvCountdown.setText("点击视频区域可暂停/继续");
-
-        // 点击视频区域：手动播放/暂停
-        holder.playerView.setOnClickListener(v ->
-                videoManager.togglePlay(holder.playerView, item)
+    public void onBindViewHolder(FeedAdapter.VideoViewHolder holder, FeedStore.Row row, int position) {
+        holder.tvTitle.setText("[视频] " + row.getTitle());
+        holder.tvContent.setText(row.textArena(), row.contentStart(), row.contentLength());
+        long durationMs = row.getMediaDurationMs();
+        holder.tvCountdown.setText(durationMs > 0
+                ? formatDuration(durationMs) + " · 点击视频区域可暂停/继续"
+                : "点击视频区域可暂停/继续");
+
+        float ratio = row.getMediaAspectRatio();
+        if (ratio <= 0f) {
+            ratio = DEFAULT_ASPECT_RATIO;
+        }
+        holder.videoContainer.setAspectRatio(ratio);
+
+        // 先展示封面：视频卡片占满整行，宽度按屏幕宽、高度按视频宽高比降采样
+        int posterWidth = holder.itemView.getResources().getDisplayMetrics().widthPixels;
+        int posterHeight = Math.round(posterWidth / ratio);
+        String videoUrl = row.getMediaUrl();
+        posterLoader.load(holder.ivPoster, videoUrl, posterWidth, posterHeight);
+
+        // 点击视频区域：手动播放/暂停（Row 会被复用，这里只捕获 id 和池化的 URL）
+        long itemId = row.getId();
+        holder.videoContainer.setOnClickListener(v ->
+                videoManager.togglePlay(holder.videoContainer, itemId, videoUrl)
         );
 
-        adapter.setupItemClicks(holder.itemView, item, position);
+        adapter.setupItemClicks(holder);
     }
 
     @Override
-    public int getSpanSize(FeedItem item) {
-        return item.getSpanSize();
+    public int getSpanSize(FeedStore.Row row) {
+        return row.getSpanSize();
+    }
+
+    // mm:ss
+    private static String formatDuration(long durationMs) {
+        long seconds = durationMs / 1000;
+        return String.format(Locale.US, "%02d:%02d", seconds / 60, seconds % 60);
     }
 }
@@ -0,0 +1,19 @@
+package com.jessica.feedapp.work;
+
+/**
+ * 任务取消标记：一个 token 可以挂在多个任务上（比如同一个页面 / 组件提交的所有任务）。
+ * - 还在排队的任务被 worker 取出时发现已取消，直接丢弃（计入 cancelled）
+ * - 已经在执行的长任务可以自己轮询 isCancelled 提前退出
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
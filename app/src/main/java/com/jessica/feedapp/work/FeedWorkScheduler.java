@@ -0,0 +1,455 @@
+package com.jessica.feedapp.work;
+
+import com.jessica.feedapp.perf.LatencyHistogram;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * App 级的后台任务调度器，仓库 / 缓存 / 封面 / 曝光落盘共用一组 worker，不再各自起线程：
+ * - 每个 WorkLane 一条 FIFO 队列，空闲 worker 总是先取优先级高的通道
+ * - worker 数固定（2~4 个，按 CPU 核数），每个通道还有并发上限；
+ *   PREFETCH 及以下的通道合计最多占 worker 数 - 1，总留一个给可见内容
+ * - 任务可以挂 CancellationToken，排队中被取消的任务出队时直接丢弃
+ * - 延时任务由一个 timer 线程计时，到点后才进入对应通道排队，不占 worker
+ * - 通道可以暂停（WorkGovernor 在滑动时用）：暂停期间任务照常入队但不会被取出，恢复后按原顺序执行
+ * - 每个通道统计队列深度（当前 / 最大）、提交 / 完成 / 取消 / 失败数、排队等待耗时，
+ *   以及因暂停而推迟的任务数和累计暂停时长
+ *
+ * 纯 Java 实现（benchmarks 模块也会编译），worker 用 Thread 优先级 NORM_PRIORITY - 1，
+ * 在 Android 上对应 THREAD_PRIORITY_BACKGROUND。
+ */
+public final class FeedWorkScheduler {
+
+    private static final WorkLane[] LANES = WorkLane.values();
+    private static final int LANE_COUNT = LANES.length;
+    private static final int FIRST_BACKGROUND_LANE = WorkLane.PREFETCH.ordinal();
+
+    private static volatile FeedWorkScheduler defaultInstance;
+
+    /**
+     * 进程内共享的调度器
+     */
+    public static FeedWorkScheduler getDefault() {
+        FeedWorkScheduler instance = defaultInstance;
+        if (instance == null) {
+            synchronized (FeedWorkScheduler.class) {
+                instance = defaultInstance;
+                if (instance == null) {
+                    int cpus = Runtime.getRuntime().availableProcessors();
+                    instance = new FeedWorkScheduler(Math.max(2, Math.min(4, cpus - 1)));
+                    defaultInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static final class Task {
+        final WorkLane lane;
+        final CancellationToken token;
+        final Runnable runnable;
+        final long enqueueNanos;
+        // 是否已经计入 deferred（lock 保护）：同一个任务经历几次暂停也只算一次
+        boolean deferred;
+
+        Task(WorkLane lane, CancellationToken token, Runnable runnable) {
+            this.lane = lane;
+            this.token = token;
+            this.runnable = runnable;
+            this.enqueueNanos = System.nanoTime();
+        }
+    }
+
+    private final Object lock = new Object();
+    private final int workerCount;
+    private final int backgroundLimit;
+    private final ScheduledThreadPoolExecutor timer;
+
+    // ===== 以下字段都由 lock 保护 =====
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final ArrayDeque<Task>[] queues = new ArrayDeque[LANE_COUNT];
+    private final int[] laneLimits = new int[LANE_COUNT];
+    private final int[] running = new int[LANE_COUNT];
+    private int backgroundRunning;
+    private final boolean[] paused = new boolean[LANE_COUNT];
+    private final long[] pausedSinceNanos = new long[LANE_COUNT];
+    private boolean shutdown;
+
+    // ===== 统计（lock 保护） =====
+    private final int[] maxDepth = new int[LANE_COUNT];
+    private final long[] submitted = new long[LANE_COUNT];
+    private final long[] completed = new long[LANE_COUNT];
+    private final long[] cancelled = new long[LANE_COUNT];
+    private final long[] failed = new long[LANE_COUNT];
+    private final LatencyHistogram[] waitTimes = new LatencyHistogram[LANE_COUNT];
+    private final long[] deferred = new long[LANE_COUNT];
+    private final long[] pausedNanosTotal = new long[LANE_COUNT];
+
+    public FeedWorkScheduler(int workerCount) {
+        if (workerCount < 2) {
+            throw new IllegalArgumentException("workerCount must be >= 2: " + workerCount);
+        }
+        this.workerCount = workerCount;
+        this.backgroundLimit = workerCount - 1;
+        for (int i = 0; i < LANE_COUNT; i++) {
+            queues[i] = new ArrayDeque<>();
+            waitTimes[i] = new LatencyHistogram();
+        }
+        laneLimits[WorkLane.VISIBLE_FETCH.ordinal()] = workerCount;
+        laneLimits[WorkLane.VISIBLE_IMAGE.ordinal()] = workerCount - 1;
+        laneLimits[WorkLane.PREFETCH.ordinal()] = 1;
+        laneLimits[WorkLane.CACHE_PERSIST.ordinal()] = 1;
+        laneLimits[WorkLane.ANALYTICS.ordinal()] = 1;
+
+        this.timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "feed-work-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+
+        for (int i = 0; i < workerCount; i++) {
+            Thread t = new Thread(this::workerLoop, "feed-work-" + i);
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            t.start();
+        }
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * 提交任务到指定通道
+     *
+     * @param token 可为 null（不可取消）
+     * @return 调度器已关闭或 token 已取消时返回 false
+     */
+    public boolean submit(WorkLane lane, CancellationToken token, Runnable task) {
+        if (token != null && token.isCancelled()) {
+            return false;
+        }
+        synchronized (lock) {
+            if (shutdown) {
+                return false;
+            }
+            int index = lane.ordinal();
+            ArrayDeque<Task> queue = queues[index];
+            Task entry = new Task(lane, token, task);
+            queue.addLast(entry);
+            submitted[index]++;
+            if (paused[index]) {
+                entry.deferred = true;
+                deferred[index]++;
+            }
+            if (queue.size() > maxDepth[index]) {
+                maxDepth[index] = queue.size();
+            }
+            lock.notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * delayMs 后把任务放进通道排队（计时期间不占 worker）
+     */
+    public void schedule(WorkLane lane, CancellationToken token, Runnable task, long delayMs) {
+        if (delayMs <= 0) {
+            submit(lane, token, task);
+            return;
+        }
+        if (token != null && token.isCancelled()) {
+            return;
+        }
+        startTimer(() -> submit(lane, token, task), delayMs);
+    }
+
+    /**
+     * 创建一个串行队列：任务按提交顺序在 lane 上一个接一个执行，适合只允许单线程访问状态的组件
+     */
+    public SerialQueue newSerialQueue(WorkLane lane, CancellationToken token) {
+        return new SerialQueue(lane, token);
+    }
+
+    /**
+     * 暂停 / 恢复一个通道：暂停时已在执行的任务不受影响，排队中和新提交的任务等到恢复后再执行
+     */
+    public void setLanePaused(WorkLane lane, boolean pause) {
+        synchronized (lock) {
+            int index = lane.ordinal();
+            if (paused[index] == pause || shutdown) {
+                return;
+            }
+            paused[index] = pause;
+            long now = System.nanoTime();
+            if (pause) {
+                pausedSinceNanos[index] = now;
+                // 已经在排队的任务也算被推迟；之前暂停时已经算过的不再重复计数
+                for (Task task : queues[index]) {
+                    if (!task.deferred) {
+                        task.deferred = true;
+                        deferred[index]++;
+                    }
+                }
+            } else {
+                pausedNanosTotal[index] += now - pausedSinceNanos[index];
+                lock.notifyAll();
+            }
+        }
+    }
+
+    public boolean isLanePaused(WorkLane lane) {
+        synchronized (lock) {
+            return paused[lane.ordinal()];
+        }
+    }
+
+    /**
+     * 因通道暂停而推迟执行的任务数（累计，每个任务最多算一次）
+     */
+    public long getDeferredCount(WorkLane lane) {
+        synchronized (lock) {
+            return deferred[lane.ordinal()];
+        }
+    }
+
+    /**
+     * 通道累计暂停时长（毫秒，包含当前这次还没结束的暂停）
+     */
+    public long getPausedMillis(WorkLane lane) {
+        synchronized (lock) {
+            int index = lane.ordinal();
+            long total = pausedNanosTotal[index];
+            if (paused[index]) {
+                total += System.nanoTime() - pausedSinceNanos[index];
+            }
+            return total / 1_000_000L;
+        }
+    }
+
+    public int getQueueDepth(WorkLane lane) {
+        synchronized (lock) {
+            return queues[lane.ordinal()].size();
+        }
+    }
+
+    public int getRunningCount(WorkLane lane) {
+        synchronized (lock) {
+            return running[lane.ordinal()];
+        }
+    }
+
+    /**
+     * 每个通道一行：当前 / 最大队列深度、执行中数量、提交 / 完成 / 取消 / 失败数、
+     * 推迟数和累计暂停时长、排队等待 p50 / p99 / max（微秒）
+     */
+    public String dumpStats() {
+        StringBuilder sb = new StringBuilder();
+        long now = System.nanoTime();
+        synchronized (lock) {
+            for (int i = 0; i < LANE_COUNT; i++) {
+                LatencyHistogram wait = waitTimes[i];
+                long pausedNanos = pausedNanosTotal[i] + (paused[i] ? now - pausedSinceNanos[i] : 0L);
+                sb.append(LANES[i].name())
+                        .append(paused[i] ? " [paused]" : "")
+                        .append(" depth=").append(queues[i].size())
+                        .append(" maxDepth=").append(maxDepth[i])
+                        .append(" running=").append(running[i])
+                        .append(" submitted=").append(submitted[i])
+                        .append(" completed=").append(completed[i])
+                        .append(" cancelled=").append(cancelled[i])
+                        .append(" failed=").append(failed[i])
+                        .append(" deferred=").append(deferred[i])
+                        .append(" pausedMs=").append(pausedNanos / 1_000_000L)
+                        .append(" waitP50=").append(wait.getPercentileMicros(50)).append("us")
+                        .append(" waitP99=").append(wait.getPercentileMicros(99)).append("us")
+                        .append(" waitMax=").append(wait.getMaxMicros()).append("us\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 停止接收新任务；已排队的任务（包括暂停通道里的）仍会执行完，之后 worker 退出
+     */
+    public void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+            Arrays.fill(paused, false);
+            lock.notifyAll();
+        }
+        timer.shutdownNow();
+    }
+
+    private void startTimer(Runnable action, long delayMs) {
+        try {
+            timer.schedule(action, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 已 shutdown：和 submit 一样直接丢弃
+        }
+    }
+
+    // ===== worker =====
+
+    private void workerLoop() {
+        while (true) {
+            Task task;
+            synchronized (lock) {
+                while ((task = pollRunnableLocked()) == null) {
+                    if (shutdown && isEmptyLocked()) {
+                        return;
+                    }
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+            run(task);
+        }
+    }
+
+    private void run(Task task) {
+        int index = task.lane.ordinal();
+        boolean ok = false;
+        try {
+            task.runnable.run();
+            ok = true;
+        } catch (Throwable e) {
+            // 包括 Error（比如 OOM、StackOverflow）：交给默认的未捕获异常处理（Android 上会照常崩溃暴露问题），
+            // worker 本身继续工作，不会因为一个任务少一个 worker
+            Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+            if (handler != null) {
+                handler.uncaughtException(Thread.currentThread(), e);
+            }
+        } finally {
+            synchronized (lock) {
+                running[index]--;
+                if (index >= FIRST_BACKGROUND_LANE) {
+                    backgroundRunning--;
+                }
+                if (ok) {
+                    completed[index]++;
+                } else {
+                    failed[index]++;
+                }
+                // 并发名额空出来了，被上限挡住的任务可能可以执行了
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 按优先级找第一个有名额的通道取任务；顺带丢弃已取消的任务
+     */
+    private Task pollRunnableLocked() {
+        for (int i = 0; i < LANE_COUNT; i++) {
+            ArrayDeque<Task> queue = queues[i];
+            Task task;
+            while ((task = queue.peekFirst()) != null
+                    && task.token != null && task.token.isCancelled()) {
+                queue.pollFirst();
+                cancelled[i]++;
+            }
+            if (task == null || paused[i] || running[i] >= laneLimits[i]) {
+                continue;
+            }
+            boolean background = i >= FIRST_BACKGROUND_LANE;
+            if (background && backgroundRunning >= backgroundLimit) {
+                continue;
+            }
+            queue.pollFirst();
+            running[i]++;
+            if (background) {
+                backgroundRunning++;
+            }
+            waitTimes[i].recordNanos(System.nanoTime() - task.enqueueNanos);
+            return task;
+        }
+        return null;
+    }
+
+    private boolean isEmptyLocked() {
+        for (int i = 0; i < LANE_COUNT; i++) {
+            if (!queues[i].isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 通道上的串行队列：同一时间最多一个任务在执行，前后任务之间有 happens-before；
+     * 每执行完一个任务就重新排队，不会长期霸占 worker、挡住更高优先级的任务
+     */
+    public final class SerialQueue implements Executor {
+
+        private final WorkLane lane;
+        private final CancellationToken token;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private final Runnable drainOne = this::drainOne;
+        private boolean active;
+
+        SerialQueue(WorkLane lane, CancellationToken token) {
+            this.lane = lane;
+            this.token = token;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            synchronized (this) {
+                tasks.addLast(task);
+                if (active) {
+                    return;
+                }
+                active = true;
+            }
+            if (!submit(lane, token, drainOne)) {
+                synchronized (this) {
+                    active = false;
+                }
+            }
+        }
+
+        /**
+         * delayMs 后再排进这个串行队列
+         */
+        public void executeDelayed(Runnable task, long delayMs) {
+            if (token != null && token.isCancelled()) {
+                return;
+            }
+            startTimer(() -> execute(task), delayMs);
+        }
+
+        private void drainOne() {
+            Runnable task;
+            synchronized (this) {
+                task = tasks.pollFirst();
+            }
+            try {
+                if (task != null) {
+                    task.run();
+                }
+            } finally {
+                boolean more;
+                synchronized (this) {
+                    more = !tasks.isEmpty();
+                    active = more;
+                }
+                if (more && !submit(lane, token, drainOne)) {
+                    synchronized (this) {
+                        active = false;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.jessica.feedapp.work;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 按列表滑动状态调节后台任务，滑动期间低优先级任务不和 UI 线程抢 CPU：
+ * - DRAGGING（手指拖动）：暂停 CACHE_PERSIST、ANALYTICS（缓存写盘、曝光落盘 / 上报）
+ * - SETTLING（fling 惯性滑动）：再暂停 VISIBLE_IMAGE（封面抽帧）；保留 VISIBLE_FETCH 和 PREFETCH，
+ *   fling 往往一路滑到列表底部，加载更多停下来会让分页卡住
+ * - IDLE：全部恢复，推迟的任务按原顺序执行
+ * 被暂停的任务只是留在队列里，不丢弃；已经在执行的任务不受影响。
+ * 手指按住不动时 DRAGGING 可能持续很久，单次暂停超过 MAX_PAUSE_MS 就强制恢复，避免任务一直积压；
+ * 拖动 → fling → 再拖动这样连着的几段算同一次暂停，计时不因状态切换重新开始。
+ * 不暂停 PREFETCH：除了加载更多，FeedPageStore 的换出写盘也在这个通道，停下来换出的页就释放不了。
+ * 推迟的任务数 / 暂停时长见 FeedWorkScheduler.dumpStats，滑动次数等见 dumpStats。
+ *
+ * 只在主线程使用。
+ */
+public class WorkGovernor {
+
+    private static final WorkLane[] LANES = WorkLane.values();
+    private static final long MAX_PAUSE_MS = 5_000L;
+
+    private final FeedWorkScheduler scheduler;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable forceResume = this::onPauseTimeout;
+
+    private int scrollState = RecyclerView.SCROLL_STATE_IDLE;
+    private static final int PAUSE_NONE = 0;
+    private static final int PAUSE_DRAGGING = laneBit(WorkLane.CACHE_PERSIST) | laneBit(WorkLane.ANALYTICS);
+    private static final int PAUSE_SETTLING = PAUSE_DRAGGING | laneBit(WorkLane.VISIBLE_IMAGE);
+
+    // 当前暂停的通道，按 ordinal 的位掩码
+    private int pausedLanes = PAUSE_NONE;
+    private long pauseStartMs;
+
+    // ===== 统计 =====
+    private int dragCount;
+    private int flingCount;
+    private int forcedResumeCount;
+    private long throttledMs;
+
+    public WorkGovernor(@NonNull FeedWorkScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public void onScrollStateChanged(int newState) {
+        if (newState == scrollState) {
+            return;
+        }
+        scrollState = newState;
+        switch (newState) {
+            case RecyclerView.SCROLL_STATE_DRAGGING:
+                dragCount++;
+                applyPaused(PAUSE_DRAGGING);
+                break;
+            case RecyclerView.SCROLL_STATE_SETTLING:
+                flingCount++;
+                applyPaused(PAUSE_SETTLING);
+                break;
+            case RecyclerView.SCROLL_STATE_IDLE:
+            default:
+                applyPaused(PAUSE_NONE);
+                break;
+        }
+    }
+
+    /**
+     * 页面销毁时调用：恢复所有通道（调度器是进程共享的，不能停在暂停状态）
+     */
+    public void release() {
+        applyPaused(PAUSE_NONE);
+        scrollState = RecyclerView.SCROLL_STATE_IDLE;
+    }
+
+    /**
+     * 拖动 / fling 次数、强制恢复次数、累计限流时长
+     */
+    @NonNull
+    public String dumpStats() {
+        long total = throttledMs;
+        if (pausedLanes != PAUSE_NONE) {
+            total += SystemClock.uptimeMillis() - pauseStartMs;
+        }
+        return "drags=" + dragCount
+                + " flings=" + flingCount
+                + " forcedResumes=" + forcedResumeCount
+                + " throttledMs=" + total;
+    }
+
+    private void applyPaused(int lanes) {
+        if (lanes == pausedLanes) {
+            return;
+        }
+        boolean wasPaused = pausedLanes != PAUSE_NONE;
+        for (WorkLane lane : LANES) {
+            scheduler.setLanePaused(lane, (lanes & laneBit(lane)) != 0);
+        }
+        pausedLanes = lanes;
+
+        if (lanes == PAUSE_NONE) {
+            throttledMs += SystemClock.uptimeMillis() - pauseStartMs;
+            handler.removeCallbacks(forceResume);
+        } else if (!wasPaused) {
+            // 只在从不暂停进入暂停时开始计时，暂停状态之间切换不重置
+            pauseStartMs = SystemClock.uptimeMillis();
+            handler.postDelayed(forceResume, MAX_PAUSE_MS);
+        }
+    }
+
+    private static int laneBit(WorkLane lane) {
+        return 1 << lane.ordinal();
+    }
+
+    private void onPauseTimeout() {
+        forcedResumeCount++;
+        // 状态不变，只解除暂停；下一次滑动状态变化时重新按策略暂停
+        applyPaused(PAUSE_NONE);
+    }
+}
@@ -0,0 +1,13 @@
+package com.jessica.feedapp.work;
+
+/**
+ * 后台任务的优先级通道，按声明顺序从高到低：
+ * 空闲的 worker 总是先取排在前面的通道里的任务
+ */
+public enum WorkLane {
+    VISIBLE_FETCH,   // 当前屏幕要展示的数据（首屏、下拉刷新）
+    VISIBLE_IMAGE,   // 已绑定卡片的图片 / 封面解码
+    PREFETCH,        // 预取（加载更多、屏幕外的数据）、文本页换出写盘
+    CACHE_PERSIST,   // 本地缓存写盘
+    ANALYTICS        // 曝光落盘 / 发起上报（阻塞的网络请求在曝光管道自己的上传线程）
+}
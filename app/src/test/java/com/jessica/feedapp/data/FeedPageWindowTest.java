@@ -0,0 +1,205 @@
+package com.jessica.feedapp.data;
+
+import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.model.FeedStore;
+import com.jessica.feedapp.work.FeedWorkScheduler;
+import com.jessica.feedapp.work.WorkLane;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * FeedPageWindow + FeedPageStore：窗口外的页换出到磁盘，滑回来时换入，写盘失败时放回内存。
+ * 回调先排进 mainQueue，由测试线程执行，模拟主线程；换出重试用假时钟 nowMs，不碰 SystemClock。
+ */
+public class FeedPageWindowTest {
+
+    private static final int ROWS = 200;
+
+    private final LinkedBlockingQueue<Runnable> mainQueue = new LinkedBlockingQueue<>();
+    private final List<int[]> restoredRanges = new ArrayList<>();
+    private FeedWorkScheduler scheduler;
+    private File dir;
+    private FeedStore store;
+    private long nowMs = 1_000L;
+
+    @Before
+    public void setUp() throws IOException {
+        scheduler = new FeedWorkScheduler(2);
+        dir = Files.createTempDirectory("feed-pages").toFile();
+        store = new FeedStore();
+        for (int i = 0; i < ROWS; i++) {
+            store.append(new FeedItem(i, "title " + i, "content " + i, null, FeedItem.CARD_TYPE_TEXT, 1));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+        deleteRecursively(dir);
+    }
+
+    @Test
+    public void pagesOutsideWindow_evictedAndRestoredWhenScrolledBack() throws InterruptedException {
+        FeedPageStore pageStore = new FeedPageStore(new File(dir, "pages"), scheduler, mainQueue::add);
+        FeedPageWindow window = newWindow(pageStore);
+
+        // 窗口是 0..25 行，也就是第 0、1 页；最后一页还在追加，不回收
+        window.onViewportChanged(0, 5);
+        int lastPage = store.getPageCount() - 1;
+        assertEquals(3, store.getResidentPageCount());
+        assertTrue(store.isPageResident(lastPage));
+        assertNull(store.getItem(150));
+        assertEquals("", store.getTitle(150));
+
+        // 滑到 140..145：第 6、7、8 页换入，窗口内对应的行收到刷新通知
+        window.onViewportChanged(140, 145);
+        int page = store.getPageOf(150);
+        drainUntil(() -> store.isPageResident(page));
+        assertEquals("title 150", store.getTitle(150));
+        assertEquals("content 150", store.getItem(150).getContent());
+        assertFalse(restoredRanges.isEmpty());
+        assertFalse(store.isPageResident(store.getPageOf(0)));
+
+        // 再滑回顶部：刚才换出的第 0、1 页从磁盘读回来
+        window.onViewportChanged(0, 5);
+        drainUntil(() -> store.isPageResident(store.getPageOf(0)) && store.isPageResident(store.getPageOf(25)));
+        for (int i = 0; i < 25; i++) {
+            assertEquals("title " + i, store.getTitle(i));
+        }
+        pageStore.release();
+    }
+
+    @Test
+    public void evictWhileFlinging_writesWithoutWaitingForIdle() throws InterruptedException {
+        File pagesDir = new File(dir, "pages");
+        FeedPageStore pageStore = new FeedPageStore(pagesDir, scheduler, mainQueue::add);
+        FeedPageWindow window = newWindow(pageStore);
+        // 和 WorkGovernor 在 SETTLING 时暂停的通道一样
+        scheduler.setLanePaused(WorkLane.CACHE_PERSIST, true);
+        scheduler.setLanePaused(WorkLane.ANALYTICS, true);
+        scheduler.setLanePaused(WorkLane.VISIBLE_IMAGE, true);
+
+        window.onViewportChanged(0, 5);
+        int evicted = store.getPageCount() - store.getResidentPageCount();
+        assertTrue(evicted > 0);
+
+        // 暂停期间换出的页照样落盘（pending 里的文本块随之释放）
+        drainUntil(() -> {
+            String[] files = pagesDir.list();
+            return files != null && files.length == evicted;
+        });
+        window.onViewportChanged(140, 145);
+        int page = store.getPageOf(150);
+        drainUntil(() -> store.isPageResident(page));
+        assertEquals("title 150", store.getTitle(150));
+        pageStore.release();
+    }
+
+    @Test
+    public void writeFailure_keepsPagesInMemory() throws IOException, InterruptedException {
+        // 目录位置被一个普通文件占着，所有写盘都会失败
+        File blocker = new File(dir, "blocker");
+        assertTrue(blocker.createNewFile());
+        FeedPageStore pageStore = new FeedPageStore(new File(blocker, "pages"), scheduler, mainQueue::add);
+        FeedPageWindow window = newWindow(pageStore);
+
+        window.onViewportChanged(0, 5);
+        assertTrue(store.getResidentPageCount() < store.getPageCount());
+        drainUntil(() -> store.getResidentPageCount() == store.getPageCount());
+
+        for (int i = 0; i < ROWS; i += 13) {
+            assertEquals("title " + i, store.getTitle(i));
+        }
+        int failed = store.getPageCount() - 3;
+        assertTrue(window.dumpStats().contains("writeFailed=" + failed));
+        assertTrue(window.dumpStats().contains("lastWriteError="));
+
+        // 重试间隔内窗口移动也不再换出
+        nowMs += 9_999L;
+        window.onViewportChanged(100, 105);
+        assertEquals(store.getPageCount(), store.getResidentPageCount());
+
+        // 过了重试间隔再换出一次（仍然失败，又放回内存）
+        nowMs += 1L;
+        window.onViewportChanged(0, 5);
+        assertTrue(store.getResidentPageCount() < store.getPageCount());
+        drainUntil(() -> store.getResidentPageCount() == store.getPageCount());
+        assertTrue(window.dumpStats().contains("writeFailed=" + 2 * failed));
+        pageStore.release();
+    }
+
+    @Test
+    public void clearedStore_dropsOldGeneration() throws InterruptedException {
+        FeedPageStore pageStore = new FeedPageStore(new File(dir, "pages"), scheduler, mainQueue::add);
+        FeedPageWindow window = newWindow(pageStore);
+        window.onViewportChanged(0, 5);
+
+        store.clear();
+        store.append(new FeedItem(1, "new", "row", null, FeedItem.CARD_TYPE_TEXT, 1));
+        window.onViewportChanged(0, 0);
+        drainFor(200);
+
+        // 旧 generation 的换入结果不会写进新内容
+        assertEquals(1, store.size());
+        assertEquals("new", store.getTitle(0));
+        assertEquals(1, store.getResidentPageCount());
+        pageStore.release();
+    }
+
+    private FeedPageWindow newWindow(FeedPageStore pageStore) {
+        FeedPageWindow window = new FeedPageWindow(store, pageStore, 1, () -> nowMs);
+        window.setListener((start, count) -> restoredRanges.add(new int[]{start, count}));
+        return window;
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    private void drainUntil(Condition condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.isMet()) {
+            long remaining = deadline - System.nanoTime();
+            assertTrue("timed out", remaining > 0);
+            // 条件也可能由后台线程满足（比如写盘），不能一直等回调
+            Runnable task = mainQueue.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(10)), TimeUnit.NANOSECONDS);
+            if (task != null) {
+                task.run();
+            }
+        }
+    }
+
+    private void drainFor(long millis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            Runnable task = mainQueue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (task != null) {
+                task.run();
+            }
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+}
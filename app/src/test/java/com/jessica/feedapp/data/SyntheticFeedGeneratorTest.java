@@ -0,0 +1,132 @@
+package com.jessica.feedapp.data;
+
+import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.model.MediaInfo;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * SyntheticFeedGenerator：第 id 条卡片只由 (seed, id) 决定，和访问顺序、生成器实例无关
+ */
+public class SyntheticFeedGeneratorTest {
+
+    private static final long SEED = 42L;
+
+    @Test
+    public void sameSeedAndId_sameItem() {
+        SyntheticFeedGenerator first = new SyntheticFeedGenerator(FeedProfile.benchmark(SEED));
+        SyntheticFeedGenerator second = new SyntheticFeedGenerator(FeedProfile.benchmark(SEED));
+
+        for (long id = 0; id < 500; id++) {
+            assertSameItem(first.itemAt(id), second.itemAt(id));
+            assertSameItem(first.itemAt(id), first.itemAt(id));
+        }
+    }
+
+    @Test
+    public void accessOrder_doesNotChangeItems() {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(FeedProfile.benchmark(SEED));
+        List<FeedItem> forward = generator.page(0, 300);
+
+        // 另一个实例倒着取、跳着取，结果和顺序生成的一样
+        SyntheticFeedGenerator other = new SyntheticFeedGenerator(FeedProfile.benchmark(SEED));
+        for (int i = 299; i >= 0; i -= 7) {
+            assertSameItem(forward.get(i), other.itemAt(i));
+        }
+        List<FeedItem> middle = other.page(150, 20);
+        for (int i = 0; i < middle.size(); i++) {
+            assertSameItem(forward.get(150 + i), middle.get(i));
+        }
+        List<FeedItem> lazy = other.asList(300);
+        assertSameItem(forward.get(299), lazy.get(299));
+        assertSameItem(forward.get(0), lazy.get(0));
+    }
+
+    @Test
+    public void differentSeed_differentContent() {
+        SyntheticFeedGenerator a = new SyntheticFeedGenerator(FeedProfile.benchmark(1L));
+        SyntheticFeedGenerator b = new SyntheticFeedGenerator(FeedProfile.benchmark(2L));
+
+        int differences = 0;
+        for (long id = 0; id < 100; id++) {
+            FeedItem x = a.itemAt(id);
+            FeedItem y = b.itemAt(id);
+            assertEquals(id, x.getId());
+            assertEquals(id, y.getId());
+            if (!x.getContent().equals(y.getContent()) || x.getCardType() != y.getCardType()) {
+                differences++;
+            }
+        }
+        assertTrue(differences > 50);
+    }
+
+    @Test
+    public void items_followProfileRanges() {
+        FeedProfile profile = FeedProfile.soak(SEED);
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(profile);
+        int[] typeCounts = new int[FeedItem.CARD_TYPE_VIDEO + 1];
+
+        for (long id = 0; id < 2000; id++) {
+            FeedItem item = generator.itemAt(id);
+            typeCounts[item.getCardType()]++;
+            assertTrue(item.getTitle().startsWith("标题 " + id));
+            assertTrue(item.getContent().length() <= profile.contentMaxLength);
+            MediaInfo media = item.getMedia();
+            if (item.getCardType() == FeedItem.CARD_TYPE_TEXT) {
+                assertNull(media);
+            } else {
+                assertNotNull(media);
+                assertTrue(media.getWidth() > 0 && media.getHeight() > 0);
+            }
+            if (item.getCardType() == FeedItem.CARD_TYPE_VIDEO) {
+                assertEquals(FeedItem.SPAN_DOUBLE, item.getSpanSize());
+                assertTrue(media.getDurationMs() >= profile.videoMinDurationMs);
+                assertTrue(media.getDurationMs() <= profile.videoMaxDurationMs);
+            }
+        }
+        // 30 : 50 : 20
+        assertTrue(typeCounts[FeedItem.CARD_TYPE_IMAGE_TEXT] > typeCounts[FeedItem.CARD_TYPE_TEXT]);
+        assertTrue(typeCounts[FeedItem.CARD_TYPE_TEXT] > typeCounts[FeedItem.CARD_TYPE_VIDEO]);
+    }
+
+    @Test
+    public void networkSequence_isReproducible() {
+        SyntheticFeedGenerator a = new SyntheticFeedGenerator(FeedProfile.soak(SEED));
+        SyntheticFeedGenerator b = new SyntheticFeedGenerator(FeedProfile.soak(SEED));
+
+        for (long request = 50; request >= 0; request--) {
+            assertEquals(a.requestLatencyMs(request), b.requestLatencyMs(request));
+            assertEquals(a.requestFails(request, 0.3f), b.requestFails(request, 0.3f));
+            assertTrue(a.requestLatencyMs(request) >= 200L);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void lazyList_rejectsOutOfRange() {
+        new SyntheticFeedGenerator(FeedProfile.benchmark(SEED)).asList(10).get(10);
+    }
+
+    private static void assertSameItem(FeedItem expected, FeedItem actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getContent(), actual.getContent());
+        assertEquals(expected.getCardType(), actual.getCardType());
+        assertEquals(expected.getSpanSize(), actual.getSpanSize());
+        MediaInfo a = expected.getMedia();
+        MediaInfo b = actual.getMedia();
+        if (a == null || b == null) {
+            assertNull(a);
+            assertNull(b);
+            return;
+        }
+        assertEquals(a.getUrl(), b.getUrl());
+        assertEquals(a.getKind(), b.getKind());
+        assertEquals(a.getWidth(), b.getWidth());
+        assertEquals(a.getHeight(), b.getHeight());
+        assertEquals(a.getDurationMs(), b.getDurationMs());
+    }
+}
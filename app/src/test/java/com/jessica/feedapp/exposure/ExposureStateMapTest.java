@@ -0,0 +1,128 @@
+package com.jessica.feedapp.exposure;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * ExposureStateMap：开放寻址表的插入 / 查找 / backward-shift 删除 / 扩容，以及附带的时间戳列
+ */
+public class ExposureStateMapTest {
+
+    @Test
+    public void slotFor_insertsOnceWithDefaults() {
+        ExposureStateMap map = new ExposureStateMap(4);
+
+        int slot = map.slotFor(42L, (byte) 3);
+
+        assertEquals(1, map.size());
+        assertEquals(slot, map.find(42L));
+        assertEquals(42L, map.keyAt(slot));
+        assertEquals(3, map.stateAt(slot));
+        assertEquals(-1L, map.enterNanosAt(slot));
+        assertEquals(-1L, map.halfNanosAt(slot));
+        assertEquals(0, map.flagsAt(slot));
+
+        map.setAt(slot, (byte) 5, 9);
+        assertEquals(slot, map.slotFor(42L, (byte) 3));
+        assertEquals(5, map.stateAt(slot));
+        assertEquals(9, map.stampAt(slot));
+        assertEquals(1, map.size());
+        assertEquals(-1, map.find(43L));
+    }
+
+    @Test
+    public void randomInsertRemove_matchesHashMap() {
+        ExposureStateMap map = new ExposureStateMap(4);
+        Map<Long, Byte> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int step = 0; step < 20_000; step++) {
+            // 连续 id 加少量大跨度 id，制造探测链
+            long key = random.nextBoolean() ? random.nextInt(200) : random.nextInt(50) * 1_000_003L;
+            int slot = map.find(key);
+            if (random.nextInt(3) == 0) {
+                if (slot >= 0) {
+                    map.removeAt(slot);
+                }
+                expected.remove(key);
+            } else {
+                byte state = (byte) random.nextInt(4);
+                slot = map.slotFor(key, state);
+                map.setAt(slot, state, step);
+                expected.put(key, state);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Long, Byte> entry : expected.entrySet()) {
+            int slot = map.find(entry.getKey());
+            assertTrue(slot >= 0);
+            assertEquals((byte) entry.getValue(), map.stateAt(slot));
+        }
+    }
+
+    @Test
+    public void removeWhileIterating_visitsEveryRemainingKey() {
+        ExposureStateMap map = new ExposureStateMap(4);
+        for (long id = 0; id < 100; id++) {
+            int slot = map.slotFor(id, (byte) 0);
+            map.setAt(slot, (byte) 0, (int) (id % 2));
+        }
+
+        // 和 ExposureTracker 一样：删除后重新检查同一个槽位
+        for (int slot = 0; slot < map.capacity(); ) {
+            if (map.isUsedAt(slot) && map.stampAt(slot) == 0) {
+                map.removeAt(slot);
+            } else {
+                slot++;
+            }
+        }
+
+        assertEquals(50, map.size());
+        for (long id = 0; id < 100; id++) {
+            assertEquals(id % 2 == 1, map.find(id) >= 0);
+        }
+    }
+
+    @Test
+    public void shiftTimes_onlyMovesRunningTimers() {
+        ExposureStateMap map = new ExposureStateMap(4);
+        int running = map.slotFor(1L, (byte) 0);
+        map.setEnterNanosAt(running, 100L);
+        map.setHalfNanosAt(running, 200L);
+        int idle = map.slotFor(2L, (byte) 0);
+
+        map.shiftTimes(1_000L);
+
+        running = map.find(1L);
+        idle = map.find(2L);
+        assertEquals(1_100L, map.enterNanosAt(running));
+        assertEquals(1_200L, map.halfNanosAt(running));
+        assertEquals(-1L, map.enterNanosAt(idle));
+        assertEquals(-1L, map.halfNanosAt(idle));
+    }
+
+    @Test
+    public void clear_resetsEverySlot() {
+        ExposureStateMap map = new ExposureStateMap(4);
+        for (long id = 0; id < 30; id++) {
+            int slot = map.slotFor(id, (byte) 1);
+            map.setFlagsAt(slot, (byte) 1);
+        }
+        int capacity = map.capacity();
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertEquals(capacity, map.capacity());
+        for (int slot = 0; slot < capacity; slot++) {
+            assertFalse(map.isUsedAt(slot));
+        }
+        int slot = map.slotFor(5L, (byte) 2);
+        assertEquals(0, map.flagsAt(slot));
+    }
+}
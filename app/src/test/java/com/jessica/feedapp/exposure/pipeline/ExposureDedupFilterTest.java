@@ -0,0 +1,138 @@
+package com.jessica.feedapp.exposure.pipeline;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * ExposureDedupFilter：窗口内去重、窗口轮换、持久化后跨会话生效
+ */
+public class ExposureDedupFilterTest {
+
+    private static final long WINDOW_MS = 60_000L;
+    private static final long T0 = 1_000_000L;
+
+    private File dir;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("exposure-dedup").toFile();
+        file = new File(dir, "dedup.bin");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                //noinspection ResultOfMethodCallIgnored
+                f.delete();
+            }
+        }
+        //noinspection ResultOfMethodCallIgnored
+        dir.delete();
+    }
+
+    @Test
+    public void sameKeyWithinWindow_reportedOnce() {
+        ExposureDedupFilter filter = newFilter();
+        filter.load(T0);
+
+        assertTrue(filter.addIfAbsent(1L, T0));
+        assertFalse(filter.addIfAbsent(1L, T0 + 1));
+        assertTrue(filter.addIfAbsent(2L, T0 + 2));
+        assertFalse(filter.addIfAbsent(2L, T0 + WINDOW_MS - 1));
+    }
+
+    @Test
+    public void keyStaysDeduplicatedForOneMoreWindow() {
+        ExposureDedupFilter filter = newFilter();
+        filter.load(T0);
+        filter.addIfAbsent(7L, T0);
+
+        // 第一次轮换后还在 previous 里
+        assertFalse(filter.addIfAbsent(7L, T0 + WINDOW_MS + 10));
+        // current 从 T0 + WINDOW_MS + 10 开始，再过一个窗口后 7 只剩在被丢弃的 previous 里
+        assertTrue(filter.addIfAbsent(7L, T0 + 2 * WINDOW_MS + 20));
+    }
+
+    @Test
+    public void bothWindowsExpired_clearsEverything() {
+        ExposureDedupFilter filter = newFilter();
+        filter.load(T0);
+        filter.addIfAbsent(7L, T0);
+
+        assertTrue(filter.addIfAbsent(7L, T0 + 2 * WINDOW_MS));
+    }
+
+    @Test
+    public void clockMovedBackwards_startsOver() {
+        ExposureDedupFilter filter = newFilter();
+        filter.load(T0);
+        filter.addIfAbsent(7L, T0);
+
+        assertTrue(filter.addIfAbsent(7L, T0 - 1));
+    }
+
+    @Test
+    public void savedFilter_dedupsAcrossSessions() throws IOException {
+        ExposureDedupFilter first = newFilter();
+        first.load(T0);
+        for (long id = 0; id < 500; id++) {
+            first.addIfAbsent(id, T0);
+        }
+        first.saveIfDirty();
+        assertTrue(file.isFile());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        ExposureDedupFilter second = newFilter();
+        second.load(T0 + 1_000L);
+        for (long id = 0; id < 500; id++) {
+            assertFalse(second.addIfAbsent(id, T0 + 1_000L));
+        }
+    }
+
+    @Test
+    public void corruptFile_startsEmpty() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[]{1, 2, 3});
+        }
+
+        ExposureDedupFilter filter = newFilter();
+        filter.load(T0);
+
+        assertTrue(filter.addIfAbsent(1L, T0));
+    }
+
+    @Test
+    public void falsePositiveRate_closeToTarget() {
+        ExposureDedupFilter filter = new ExposureDedupFilter(file, WINDOW_MS, 10_000, 0.01);
+        filter.load(T0);
+        for (long id = 0; id < 10_000; id++) {
+            filter.addIfAbsent(id, T0);
+        }
+
+        // addIfAbsent 查询的同时也会写入，只探测一千个新 key，装载量基本还是设计值
+        int falsePositives = 0;
+        for (long id = 1_000_000; id < 1_001_000; id++) {
+            if (!filter.addIfAbsent(id, T0)) {
+                falsePositives++;
+            }
+        }
+        // 目标 1%，留出随机波动的余量
+        assertTrue("falsePositives=" + falsePositives, falsePositives < 30);
+        assertTrue(filter.sizeInBytes() < 64 * 1024);
+    }
+
+    private ExposureDedupFilter newFilter() {
+        return new ExposureDedupFilter(file, WINDOW_MS, 1_000, 0.01);
+    }
+}
@@ -0,0 +1,163 @@
+package com.jessica.feedapp.exposure.pipeline;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * ExposureDiskQueue：先进先出、超限丢最旧、离线积压时文件大小有上界、重开后数据不变、
+ * 上传中的批次按偏移确认
+ */
+public class ExposureDiskQueueTest {
+
+    private static final int BATCH = 50;
+    private static final long MAX_BYTES = 100L * ExposureDiskQueue.RECORD_BYTES * BATCH;
+
+    private File dir;
+    private ExposureDiskQueue queue;
+    private long nextId = 0;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("exposure-queue").toFile();
+        queue = new ExposureDiskQueue(dir, MAX_BYTES);
+        queue.open();
+    }
+
+    @After
+    public void tearDown() {
+        queue.close();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                //noinspection ResultOfMethodCallIgnored
+                f.delete();
+            }
+        }
+        //noinspection ResultOfMethodCallIgnored
+        dir.delete();
+    }
+
+    @Test
+    public void peekAndRemove_inOrder() throws IOException {
+        appendBatch();
+        appendBatch();
+
+        ExposureBatch out = new ExposureBatch(BATCH);
+        assertEquals(BATCH, queue.peek(out));
+        assertEquals(0L, out.itemIdAt(0));
+        queue.removePeeked();
+
+        out.clear();
+        assertEquals(BATCH, queue.peek(out));
+        assertEquals(BATCH, out.itemIdAt(0));
+        queue.removePeeked();
+
+        assertEquals(0L, queue.pendingCount());
+        assertEquals(0L, dataFile().length());
+    }
+
+    @Test
+    public void offline_fileStaysBounded() throws IOException {
+        for (int i = 0; i < 2_000; i++) {
+            appendBatch();
+            assertTrue("length=" + dataFile().length(),
+                    dataFile().length() <= 2 * MAX_BYTES + BATCH * ExposureDiskQueue.RECORD_BYTES);
+        }
+
+        // 只剩最新的 maxBytes，顺序不变
+        long pending = queue.pendingCount();
+        assertEquals(MAX_BYTES / ExposureDiskQueue.RECORD_BYTES, pending);
+        assertOldestIs(nextId - pending);
+    }
+
+    @Test
+    public void reopenAfterCompaction_keepsPendingRecords() throws IOException {
+        for (int i = 0; i < 500; i++) {
+            appendBatch();
+        }
+        long pending = queue.pendingCount();
+
+        queue.close();
+        queue = new ExposureDiskQueue(dir, MAX_BYTES);
+        queue.open();
+
+        assertEquals(pending, queue.pendingCount());
+        assertOldestIs(nextId - pending);
+    }
+
+    @Test
+    public void overflowWhileUploading_keepsUnsentRecords() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            appendBatch();
+        }
+        ExposureBatch out = new ExposureBatch(BATCH);
+        queue.peek(out);
+        assertEquals(0L, out.itemIdAt(0));
+
+        // 上传期间又来了 10 批，最旧的 10 批（包括正在上传的这批）被超限丢掉
+        for (int i = 0; i < 10; i++) {
+            appendBatch();
+        }
+        assertEquals(100L * BATCH, queue.pendingCount());
+
+        queue.removePeeked();
+
+        assertEquals(100L * BATCH, queue.pendingCount());
+        assertOldestIs(10L * BATCH);
+    }
+
+    @Test
+    public void compactionWhileUploading_removesOnlyThatBatch() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            appendBatch();
+        }
+        ExposureBatch out = new ExposureBatch(BATCH);
+        queue.peek(out);
+        queue.removePeeked();
+        out.clear();
+        queue.peek(out);
+        long uploading = out.itemIdAt(0);
+
+        // 一直追加到发生过压缩（记录被挪到了文件开头）
+        long lengthBefore = dataFile().length();
+        while (dataFile().length() >= lengthBefore) {
+            lengthBefore = dataFile().length();
+            appendBatch();
+        }
+        long oldest = nextId - queue.pendingCount();
+        assertTrue(oldest > uploading);
+
+        queue.removePeeked();
+
+        assertOldestIs(oldest);
+    }
+
+    private void assertOldestIs(long firstId) throws IOException {
+        ExposureBatch out = new ExposureBatch(BATCH);
+        queue.peek(out);
+        for (int i = 0; i < out.size(); i++) {
+            assertEquals(firstId + i, out.itemIdAt(i));
+            assertEquals(firstId + i, out.timestampAt(i));
+        }
+    }
+
+    private void appendBatch() throws IOException {
+        ExposureBatch batch = new ExposureBatch(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            long id = nextId++;
+            batch.add(id, (byte) 0, 0.5f, id, 0L, -1L);
+        }
+        queue.append(batch);
+    }
+
+    private File dataFile() {
+        return new File(dir, "exposure_queue_v2.bin");
+    }
+}
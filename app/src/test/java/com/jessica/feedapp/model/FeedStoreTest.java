@@ -0,0 +1,271 @@
+package com.jessica.feedapp.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * FeedStore 的读写：行游标、增删改、id 索引、URL 池、文本页的回收 / 恢复
+ */
+public class FeedStoreTest {
+
+    @Test
+    public void append_roundTripsEveryColumn() {
+        FeedStore store = new FeedStore();
+        FeedItem video = new FeedItem(7L, "标题", "正文", MediaInfo.video("https://v/1.mp4", 1280, 720, 15_000L),
+                FeedItem.CARD_TYPE_VIDEO, 2);
+        store.append(video);
+
+        FeedStore.Row row = store.moveTo(store.newRow(), 0);
+        assertEquals(7L, row.getId());
+        assertEquals(FeedItem.CARD_TYPE_VIDEO, row.getCardType());
+        assertEquals(2, row.getSpanSize());
+        assertEquals("标题", row.getTitle());
+        assertEquals("正文", row.getContent());
+        assertEquals("https://v/1.mp4", row.getMediaUrl());
+        assertEquals(MediaInfo.KIND_VIDEO, row.getMediaKind());
+        assertEquals(1280, row.getMediaWidth());
+        assertEquals(720, row.getMediaHeight());
+        assertEquals(15_000L, row.getMediaDurationMs());
+
+        FeedItem copy = store.getItem(0);
+        assertEquals(7L, copy.getId());
+        assertEquals("正文", copy.getContent());
+        assertEquals("https://v/1.mp4", copy.getMedia().getUrl());
+    }
+
+    @Test
+    public void insertRemoveSet_keepOrderAndIdIndex() {
+        FeedStore store = new FeedStore();
+        List<Long> expected = new ArrayList<>();
+        store.appendAll(items(0, 100));
+        addIds(expected, 0, 0, 100);
+        store.insertAll(0, items(1000, 5));
+        addIds(expected, 0, 1000, 5);
+        store.insertAll(50, items(2000, 3));
+        addIds(expected, 50, 2000, 3);
+        store.remove(10);
+        expected.remove(10);
+        store.remove(store.size() - 1);
+        expected.remove(expected.size() - 1);
+        store.set(0, item(3000));
+        expected.set(0, 3000L);
+
+        assertEquals(expected.size(), store.size());
+        for (int i = 0; i < expected.size(); i++) {
+            long id = expected.get(i);
+            assertEquals(id, store.getId(i));
+            assertEquals("title " + id, store.getTitle(i));
+            assertEquals(i, store.positionOf(id));
+        }
+        // 被删 / 被替换掉的 id 不在索引里
+        assertEquals(-1, store.positionOf(1000L));
+        assertEquals(-1, store.positionOf(5L));
+        assertEquals(-1, store.positionOf(99L));
+    }
+
+    private static void addIds(List<Long> ids, int position, long firstId, int count) {
+        for (int i = 0; i < count; i++) {
+            ids.add(position + i, firstId + i);
+        }
+    }
+
+    @Test
+    public void manyPrepends_keepIdIndex() {
+        FeedStore store = new FeedStore();
+        store.appendAll(items(0, 10));
+        for (int round = 0; round < 50; round++) {
+            store.insertAll(0, items(1000 + round * 10, 10));
+        }
+
+        assertEquals(510, store.size());
+        assertEquals(1490L, store.getId(0));
+        assertEquals(0L, store.getId(500));
+        assertEquals(500, store.positionOf(0L));
+        assertEquals(0, store.positionOf(1490L));
+        assertEquals(9, store.positionOf(1499L));
+    }
+
+    @Test
+    public void positionsOf_missingIdsAreMinusOne() {
+        FeedStore store = new FeedStore();
+        store.appendAll(items(0, 30));
+
+        assertArrayEquals(new int[]{29, -1, 0}, store.positionsOf(new long[]{29L, 77L, 0L}));
+    }
+
+    @Test
+    public void excludeExisting_dropsKnownAndRepeatedIds() {
+        FeedStore store = new FeedStore();
+        store.appendAll(items(0, 10));
+
+        List<FeedItem> incoming = Arrays.asList(item(3), item(100), item(101), item(100), item(9));
+        List<FeedItem> fresh = store.excludeExisting(incoming);
+
+        assertEquals(2, fresh.size());
+        assertEquals(100L, fresh.get(0).getId());
+        assertEquals(101L, fresh.get(1).getId());
+    }
+
+    @Test
+    public void clear_dropsRowsAndIndex() {
+        FeedStore store = new FeedStore();
+        store.appendAll(items(0, 50));
+        int generation = store.getGeneration();
+
+        store.clear();
+
+        assertTrue(store.isEmpty());
+        assertEquals(-1, store.positionOf(0L));
+        assertEquals(generation + 1, store.getGeneration());
+        store.append(item(0));
+        assertEquals(0, store.positionOf(0L));
+        assertEquals("title 0", store.getTitle(0));
+    }
+
+    @Test
+    public void urlPoolFull_urlsStillRoundTrip() {
+        FeedStore store = new FeedStore();
+        // 超过池容量的每行唯一图片地址会写进文本页
+        for (int i = 0; i < 3000; i++) {
+            store.append(new FeedItem(i, "t" + i, "c" + i, MediaInfo.image("https://img/" + i, 100, 50),
+                    FeedItem.CARD_TYPE_IMAGE_TEXT, 1));
+        }
+        for (int i = 0; i < 3000; i += 7) {
+            assertEquals("https://img/" + i, store.getMediaUrl(i));
+            assertEquals("c" + i, store.getItem(i).getContent());
+        }
+    }
+
+    @Test
+    public void evictRestore_roundTripsText() {
+        FeedStore store = new FeedStore();
+        store.appendAll(items(0, FeedStore.PAGE_ROWS * 3));
+        FeedStore.Row row = store.moveTo(store.newRow(), 5);
+        int page = store.getPageOf(5);
+
+        char[] text = store.evictPage(page);
+
+        assertNotNull(text);
+        assertFalse(store.isPageResident(page));
+        assertFalse(row.isTextResident());
+        assertEquals("", row.getTitle());
+        assertEquals(0, row.contentLength());
+        assertNull(store.getItem(5));
+        // 行本身和非文本列都还在
+        assertEquals(FeedStore.PAGE_ROWS * 3, store.size());
+        assertEquals(5L, row.getId());
+        assertEquals(5, store.positionOf(5L));
+
+        assertTrue(store.restorePage(page, text));
+        assertFalse(store.restorePage(page, text));
+        assertEquals("title 5", row.getTitle());
+        assertEquals("content 5", store.getItem(5).getContent());
+    }
+
+    @Test
+    public void evictPage_lastPageAndRepeatsRefused() {
+        FeedStore store = new FeedStore();
+        store.appendAll(items(0, FeedStore.PAGE_ROWS * 2));
+        int lastPage = store.getPageCount() - 1;
+
+        assertNull(store.evictPage(lastPage));
+        assertNotNull(store.evictPage(0));
+        assertNull(store.evictPage(0));
+        assertEquals(lastPage, store.nextResidentPage(0));
+    }
+
+    @Test
+    public void evictRestore_inPageUrlFollowsText() {
+        FeedStore store = new FeedStore();
+        int rows = 1100;
+        for (int i = 0; i < rows; i++) {
+            store.append(new FeedItem(i, "t" + i, "c" + i, MediaInfo.image("https://img/" + i, 100, 50),
+                    FeedItem.CARD_TYPE_IMAGE_TEXT, 1));
+        }
+        // 第 1050 行的地址在池外，跟着文本页一起换出 / 换回
+        int position = 1050;
+        int page = store.getPageOf(position);
+        char[] text = store.evictPage(page);
+
+        assertEquals("", store.getMediaUrl(position));
+        assertEquals(100, store.moveTo(store.newRow(), position).getMediaWidth());
+
+        store.restorePage(page, text);
+        assertEquals("https://img/" + position, store.getMediaUrl(position));
+    }
+
+    @Test
+    public void pageOffsetBoundary_rowsStayAddressable() {
+        FeedStore store = new FeedStore();
+        // 前两行加起来差一个字符写满 32768，空行仍然落在这一页最后一个偏移上
+        store.append(textRow(0, 16383, 1));
+        store.append(textRow(1, 16382, 1));
+        store.append(textRow(2, 0, 0));
+        // 再写一个字符就会正好写满，必须换新页
+        store.append(textRow(3, 1, 0));
+        store.append(textRow(4, 0, 0));
+        // 超长的一行单独占一页
+        store.append(textRow(5, 40000, 0));
+        store.append(textRow(6, 0, 0));
+        store.appendAll(items(100, FeedStore.PAGE_ROWS));
+
+        assertEquals(store.getPageOf(0), store.getPageOf(2));
+        assertNotEquals(store.getPageOf(2), store.getPageOf(3));
+        assertNotEquals(store.getPageOf(5), store.getPageOf(6));
+        assertTextRows(store);
+
+        for (int i = 0; i <= 6; i++) {
+            int page = store.getPageOf(i);
+            char[] text = store.evictPage(page);
+            if (text != null) {
+                assertTrue(store.restorePage(page, text));
+            }
+        }
+        assertTextRows(store);
+    }
+
+    private static FeedItem textRow(long id, int titleLength, int contentLength) {
+        return new FeedItem(id, repeat('a', titleLength), repeat('b', contentLength), null, FeedItem.CARD_TYPE_TEXT, 1);
+    }
+
+    private static void assertTextRows(FeedStore store) {
+        int[][] lengths = {{16383, 1}, {16382, 1}, {0, 0}, {1, 0}, {0, 0}, {40000, 0}, {0, 0}};
+        for (int i = 0; i < lengths.length; i++) {
+            FeedItem item = store.getItem(i);
+            assertEquals(i, item.getId());
+            assertEquals(repeat('a', lengths[i][0]), item.getTitle());
+            assertEquals(repeat('b', lengths[i][1]), item.getContent());
+        }
+        assertEquals("title 100", store.getTitle(lengths.length));
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfRange_throws() {
+        FeedStore store = new FeedStore();
+        store.appendAll(items(0, 3));
+        store.getId(3);
+    }
+
+    static FeedItem item(long id) {
+        return new FeedItem(id, "title " + id, "content " + id, null, FeedItem.CARD_TYPE_TEXT, 1);
+    }
+
+    static List<FeedItem> items(long firstId, int count) {
+        List<FeedItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(item(firstId + i));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,82 @@
+package com.jessica.feedapp.model;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * LongIntMap：FeedStore 的 id 索引
+ */
+public class LongIntMapTest {
+
+    @Test
+    public void randomPutRemove_matchesHashMap() {
+        LongIntMap map = new LongIntMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(11);
+
+        for (int step = 0; step < 50_000; step++) {
+            long key = random.nextBoolean() ? random.nextInt(500) : random.nextInt(100) * 4_294_967_311L;
+            if (random.nextInt(3) == 0) {
+                Integer value = expected.get(key);
+                if (value != null) {
+                    assertTrue(map.remove(key, value));
+                    expected.remove(key);
+                } else {
+                    assertFalse(map.remove(key, 0));
+                }
+            } else {
+                map.put(key, step);
+                expected.put(key, step);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals((int) entry.getValue(), map.get(entry.getKey(), -1));
+        }
+    }
+
+    @Test
+    public void remove_onlyWhenValueMatches() {
+        LongIntMap map = new LongIntMap(4);
+        map.put(5L, 1);
+
+        // 同一个 id 已经指向别的行时不删
+        assertFalse(map.remove(5L, 2));
+        assertEquals(1, map.get(5L, -1));
+        assertTrue(map.remove(5L, 1));
+        assertFalse(map.containsKey(5L));
+    }
+
+    @Test
+    public void minValueKey_storedSeparately() {
+        LongIntMap map = new LongIntMap(4);
+        map.put(Long.MIN_VALUE, 7);
+        map.put(0L, 8);
+
+        assertEquals(2, map.size());
+        assertEquals(7, map.get(Long.MIN_VALUE, -1));
+        assertTrue(map.remove(Long.MIN_VALUE, 7));
+        assertEquals(-1, map.get(Long.MIN_VALUE, -1));
+        assertEquals(8, map.get(0L, -1));
+    }
+
+    @Test
+    public void clear_keepsWorking() {
+        LongIntMap map = new LongIntMap(4);
+        for (long key = 0; key < 1_000; key++) {
+            map.put(key, (int) key);
+        }
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(10L));
+        map.put(10L, 3);
+        assertEquals(3, map.get(10L, -1));
+    }
+}
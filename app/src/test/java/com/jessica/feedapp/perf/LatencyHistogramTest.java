@@ -0,0 +1,103 @@
+package com.jessica.feedapp.perf;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * LatencyHistogram：分位数误差在分桶精度内，合并 / 重置 / 边界值
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void empty_reportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getMeanMicros());
+        assertEquals(0L, histogram.getPercentileMicros(99));
+    }
+
+    @Test
+    public void smallValues_areExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 60; micros++) {
+            histogram.recordMicros(micros);
+        }
+
+        assertEquals(30L, histogram.getPercentileMicros(50));
+        assertEquals(60L, histogram.getPercentileMicros(100));
+        assertEquals(1L, histogram.getPercentileMicros(0));
+        assertEquals(30L, histogram.getMeanMicros());
+    }
+
+    @Test
+    public void percentiles_withinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(3);
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            // 帧耗时大多在 8~20ms，少量上百毫秒的长帧
+            values[i] = random.nextInt(10) == 0 ? 50_000 + random.nextInt(200_000) : 8_000 + random.nextInt(12_000);
+            histogram.recordNanos(values[i] * 1_000L);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(values.length * percentile / 100d) - 1];
+            long reported = histogram.getPercentileMicros(percentile);
+            // 返回的是桶上界：不小于真实值，相对误差在 1/32 以内
+            assertTrue("p" + percentile + " " + reported + " < " + exact, reported >= exact);
+            assertTrue("p" + percentile + " " + reported + " vs " + exact, reported <= exact + exact / 32 + 1);
+        }
+        assertEquals(values[values.length - 1], histogram.getMaxMicros());
+        assertEquals(values.length, histogram.getCount());
+    }
+
+    @Test
+    public void outOfRange_clamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordMicros(-5);
+        histogram.recordMicros(Long.MAX_VALUE);
+
+        assertEquals(2L, histogram.getCount());
+        assertEquals(0L, histogram.getPercentileMicros(50));
+        assertEquals(histogram.getMaxMicros(), histogram.getPercentileMicros(100));
+        assertTrue(histogram.getMaxMicros() > 60_000_000L);
+    }
+
+    @Test
+    public void add_mergesCountsAndMax() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            a.recordMicros(10);
+        }
+        for (int i = 0; i < 10; i++) {
+            b.recordMicros(40_000);
+        }
+
+        a.add(b);
+
+        assertEquals(100L, a.getCount());
+        assertEquals(40_000L, a.getMaxMicros());
+        assertEquals(10L, a.getPercentileMicros(90));
+        assertTrue(a.getPercentileMicros(91) >= 40_000L);
+        assertEquals((90 * 10 + 10 * 40_000) / 100, a.getMeanMicros());
+    }
+
+    @Test
+    public void reset_clearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordMicros(123);
+
+        histogram.reset();
+
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getMaxMicros());
+        assertEquals(0L, histogram.getPercentileMicros(50));
+    }
+}
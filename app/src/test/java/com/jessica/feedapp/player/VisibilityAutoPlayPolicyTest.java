@@ -0,0 +1,97 @@
+package com.jessica.feedapp.player;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * VisibilityAutoPlayPolicy：可见比例阈值、防抖等待、切换迟滞
+ */
+public class VisibilityAutoPlayPolicyTest {
+
+    private static final long NO_ITEM = AutoPlayPolicy.NO_ITEM;
+
+    private VisibilityAutoPlayPolicy policy;
+
+    @Before
+    public void setUp() {
+        // 阈值 0.6，防抖 300ms，迟滞 0.2
+        policy = new VisibilityAutoPlayPolicy();
+    }
+
+    @Test
+    public void belowThreshold_neverPlays() {
+        assertEquals(NO_ITEM, choose(NO_ITEM, 0L, 1L, 0.59f));
+        assertEquals(NO_ITEM, choose(NO_ITEM, 1_000L, 1L, 0.59f));
+        assertEquals(-1L, policy.nextEvaluationDelayMs(1_000L));
+    }
+
+    @Test
+    public void candidate_waitsForDwell() {
+        assertEquals(NO_ITEM, choose(NO_ITEM, 0L, 1L, 0.8f));
+        assertEquals(300L, policy.nextEvaluationDelayMs(0L));
+        assertEquals(NO_ITEM, choose(NO_ITEM, 299L, 1L, 0.8f));
+        assertEquals(1L, policy.nextEvaluationDelayMs(299L));
+
+        assertEquals(1L, choose(NO_ITEM, 300L, 1L, 0.8f));
+        assertEquals(-1L, policy.nextEvaluationDelayMs(300L));
+    }
+
+    @Test
+    public void quickFling_restartsDwellForNewCandidate() {
+        choose(NO_ITEM, 0L, 1L, 0.9f);
+        // 200ms 后换成了另一个视频，计时从头开始
+        assertEquals(NO_ITEM, choose(NO_ITEM, 200L, 2L, 0.9f));
+        assertEquals(NO_ITEM, choose(NO_ITEM, 400L, 2L, 0.9f));
+        assertEquals(2L, choose(NO_ITEM, 500L, 2L, 0.9f));
+    }
+
+    @Test
+    public void hysteresis_keepsPlayingUnlessClearlyBetter() {
+        // 在播的 1 还合格，2 只高出 0.1，不切换
+        assertEquals(1L, choose(1L, 0L, 1L, 0.7f, 2L, 0.8f));
+        assertEquals(1L, choose(1L, 1_000L, 1L, 0.7f, 2L, 0.8f));
+
+        // 2 高出 0.2 以上，防抖结束后切换，等待期间继续播 1
+        assertEquals(1L, choose(1L, 2_000L, 1L, 0.7f, 2L, 0.95f));
+        assertEquals(2L, choose(1L, 2_300L, 1L, 0.7f, 2L, 0.95f));
+    }
+
+    @Test
+    public void hysteresisCappedAtFullyVisible() {
+        // 在播的 1 可见 0.9，门槛封顶 1.0：完全可见的 2 仍然能换上来
+        assertEquals(1L, choose(1L, 0L, 1L, 0.9f, 2L, 1f));
+        assertEquals(2L, choose(1L, 300L, 1L, 0.9f, 2L, 1f));
+    }
+
+    @Test
+    public void playingScrolledOut_stopsWhileWaiting() {
+        // 在播的 1 已经低于阈值：等待 2 的期间不播
+        assertEquals(NO_ITEM, choose(1L, 0L, 1L, 0.3f, 2L, 0.7f));
+        assertEquals(2L, choose(1L, 300L, 1L, 0.3f, 2L, 0.7f));
+    }
+
+    @Test
+    public void reset_dropsPendingCandidate() {
+        choose(NO_ITEM, 0L, 1L, 0.8f);
+
+        policy.reset();
+
+        assertEquals(-1L, policy.nextEvaluationDelayMs(100L));
+        assertEquals(NO_ITEM, choose(NO_ITEM, 300L, 1L, 0.8f));
+        assertEquals(1L, choose(NO_ITEM, 600L, 1L, 0.8f));
+    }
+
+    /** idsAndRatios：id1, ratio1, id2, ratio2 … */
+    private long choose(long playingId, long nowMs, Object... idsAndRatios) {
+        int count = idsAndRatios.length / 2;
+        long[] ids = new long[count];
+        float[] ratios = new float[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = (Long) idsAndRatios[2 * i];
+            ratios[i] = (Float) idsAndRatios[2 * i + 1];
+        }
+        return policy.choose(ids, ratios, count, playingId, nowMs);
+    }
+}
@@ -0,0 +1,118 @@
+package com.jessica.feedapp.ui.feed;
+
+import com.jessica.feedapp.model.FeedItem;
+import com.jessica.feedapp.model.FeedStore;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 增量刷新（先删、再改、最后插到顶部）前后按 id 保持滚动锚点
+ */
+public class DeltaScrollAnchorTest {
+
+    private FeedStore store;
+    private DeltaScrollAnchor anchor;
+
+    @Before
+    public void setUp() {
+        store = new FeedStore();
+        store.appendAll(items(0, 100));
+        anchor = new DeltaScrollAnchor();
+    }
+
+    @Test
+    public void deletesAboveAnchorAndPrepend_keepFirstVisibleItem() {
+        // 可见的是 40、41、42，偏移 -30 / 0 / 30
+        captureVisible(40, 3);
+
+        // 删掉锚点上方的 5、10、39，再插 4 条新的到顶部
+        store.remove(39);
+        store.remove(10);
+        store.remove(5);
+        store.insertAll(0, items(1000, 4));
+
+        assertTrue(anchor.resolve(store));
+        assertEquals(40 - 3 + 4, anchor.getResolvedPosition());
+        assertEquals(40L, store.getId(anchor.getResolvedPosition()));
+        assertEquals(-30, anchor.getResolvedOffset());
+    }
+
+    @Test
+    public void firstVisibleDeleted_fallsBackToNextVisible() {
+        captureVisible(40, 3);
+
+        store.remove(40);
+        store.insertAll(0, items(1000, 2));
+
+        assertTrue(anchor.resolve(store));
+        assertEquals(41L, store.getId(anchor.getResolvedPosition()));
+        assertEquals(0, anchor.getResolvedOffset());
+    }
+
+    @Test
+    public void allVisibleDeleted_clampsToOldFirstPosition() {
+        captureVisible(97, 3);
+
+        store.remove(99);
+        store.remove(98);
+        store.remove(97);
+
+        assertTrue(anchor.resolve(store));
+        assertEquals(96, anchor.getResolvedPosition());
+        assertEquals(0, anchor.getResolvedOffset());
+    }
+
+    @Test
+    public void emptyStore_notResolved() {
+        captureVisible(0, 2);
+        store.clear();
+
+        assertFalse(anchor.resolve(store));
+    }
+
+    @Test
+    public void reset_forgetsPreviousCapture() {
+        captureVisible(40, 3);
+        anchor.reset();
+
+        assertTrue(anchor.isEmpty());
+        assertFalse(anchor.resolve(store));
+    }
+
+    @Test
+    public void manyVisibleItems_growsBuffer() {
+        captureVisible(10, 20);
+        for (int i = 0; i < 19; i++) {
+            store.remove(10);
+        }
+
+        assertTrue(anchor.resolve(store));
+        assertEquals(10, anchor.getResolvedPosition());
+        assertEquals(29L, store.getId(10));
+        assertEquals((19 - 1) * 30, anchor.getResolvedOffset());
+    }
+
+    /** 从 first 开始 count 个卡片可见，偏移依次是 -30、0、30… */
+    private void captureVisible(int first, int count) {
+        anchor.reset();
+        for (int i = 0; i < count; i++) {
+            int position = first + i;
+            anchor.add(position, store.getId(position), (i - 1) * 30);
+        }
+    }
+
+    private static List<FeedItem> items(long firstId, int count) {
+        List<FeedItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            items.add(new FeedItem(id, "title " + id, "content " + id, null, 0, 1));
+        }
+        return items;
+    }
+}
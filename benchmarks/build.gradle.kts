@@ -0,0 +1,53 @@
+// 纯 JVM 的 JMH 基准测试模块：直接编译 :app 里不依赖 Android 的源码，压测 Feed 核心热点
+// 运行：./gradlew :benchmarks:jmh（结果在 build/results/jmh/results.json）
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// 只挑 :app 中纯 Java 的文件，新增依赖 Android 的代码不会被带进来
+val feedCore by sourceSets.creating {
+    java {
+        srcDir("../app/src/main/java")
+        include(
+            "com/jessica/feedapp/model/FeedItem.java",
+            "com/jessica/feedapp/model/FeedStore.java",
+            "com/jessica/feedapp/model/LongIntMap.java",
+            "com/jessica/feedapp/model/MediaInfo.java",
+            "com/jessica/feedapp/model/FeedDelta.java",
+            "com/jessica/feedapp/data/FeedCacheCodec.java",
+            "com/jessica/feedapp/data/FeedRepository.java",
+            "com/jessica/feedapp/data/FeedProfile.java",
+            "com/jessica/feedapp/data/SyntheticFeedGenerator.java",
+            "com/jessica/feedapp/work/WorkLane.java",
+            "com/jessica/feedapp/work/CancellationToken.java",
+            "com/jessica/feedapp/work/FeedWorkScheduler.java",
+            "com/jessica/feedapp/perf/LatencyHistogram.java",
+            "com/jessica/feedapp/exposure/ExposureState.java",
+            "com/jessica/feedapp/exposure/ExposureEventType.java",
+            "com/jessica/feedapp/exposure/ExposureStateMachine.java",
+            "com/jessica/feedapp/exposure/ExposureStateMap.java"
+        )
+    }
+}
+
+dependencies {
+    "feedCoreImplementation"(libs.gson)
+    jmh(feedCore.output)
+    jmh(libs.gson)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    // 同时输出每次操作的分配字节数（gc.alloc.rate.norm）
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+}
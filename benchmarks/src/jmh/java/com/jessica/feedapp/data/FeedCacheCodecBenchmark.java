@@ -0,0 +1,48 @@
+package com.jessica.feedapp.data;
+
+import com.jessica.feedapp.model.FeedItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FeedCacheManager 缓存快照的序列化 / 反序列化开销（Gson）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FeedCacheCodecBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int itemCount;
+
+    private final FeedCacheCodec codec = new FeedCacheCodec();
+    private List<FeedItem> items;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = new FeedRepository().generateItems(0, itemCount);
+        json = codec.encode(items);
+    }
+
+    @Benchmark
+    public String encode() {
+        return codec.encode(items);
+    }
+
+    @Benchmark
+    public List<FeedItem> decode() {
+        return codec.decode(json);
+    }
+}
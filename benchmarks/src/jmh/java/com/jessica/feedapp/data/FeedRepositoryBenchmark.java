@@ -0,0 +1,36 @@
+package com.jessica.feedapp.data;
+
+import com.jessica.feedapp.model.FeedItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FeedRepository.generateItems 的吞吐（一页 10 / 20 条，以及一次造 1000 条）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FeedRepositoryBenchmark {
+
+    @Param({"10", "20", "1000"})
+    public int pageSize;
+
+    private final FeedRepository repository = new FeedRepository();
+    private int nextId = 0;
+
+    @Benchmark
+    public List<FeedItem> generateItems() {
+        List<FeedItem> items = repository.generateItems(nextId, pageSize);
+        nextId += pageSize;
+        return items;
+    }
+}
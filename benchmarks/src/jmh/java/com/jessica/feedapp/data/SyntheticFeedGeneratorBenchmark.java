@@ -0,0 +1,59 @@
+package com.jessica.feedapp.data;
+
+import com.jessica.feedapp.model.FeedItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SyntheticFeedGenerator 的单条生成开销（随机访问第 N 条）和按需视图顺序扫完 10 万条（不落地）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SyntheticFeedGeneratorBenchmark {
+
+    private static final int LAZY_SIZE = 100_000;
+
+    @Param({"demo", "soak"})
+    public String profileName;
+
+    private SyntheticFeedGenerator generator;
+    private List<FeedItem> lazy;
+    private long nextId;
+
+    @Setup
+    public void setUp() {
+        FeedProfile profile = "soak".equals(profileName)
+                ? FeedProfile.soak(FeedProfile.DEFAULT_SEED)
+                : FeedProfile.benchmark(FeedProfile.DEFAULT_SEED);
+        generator = new SyntheticFeedGenerator(profile);
+        lazy = generator.asList(LAZY_SIZE);
+    }
+
+    @Benchmark
+    public FeedItem itemAt() {
+        // 跳着取，模拟快速滑动 / 随机跳页
+        nextId = (nextId + 7919) % 1_000_000L;
+        return generator.itemAt(nextId);
+    }
+
+    @Benchmark
+    public long scanLazyList() {
+        long checksum = 0;
+        for (int i = 0, n = lazy.size(); i < n; i++) {
+            FeedItem item = lazy.get(i);
+            checksum += item.getCardType() + item.getSpanSize() + item.getContent().length();
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,114 @@
+package com.jessica.feedapp.exposure;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExposureTracker 每帧的状态机逻辑（不含 View 遍历）：
+ * 用合成的滑动序列驱动 ExposureStateMap + ExposureStateMachine，和 checkExposure 的处理顺序一致
+ * - 每次操作 = 播放完整个序列（FRAMES 帧），结果里除以 FRAMES 即为每帧开销
+ * - 配合 gc profiler 看 gc.alloc.rate.norm，稳态下应接近 0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExposureStateMachineBenchmark {
+
+    private static final int FRAMES = 600;
+    private static final int VIEWPORT_PX = 1800;
+    private static final int ITEM_PX = 300;
+
+    private static final ExposureState[] STATES = ExposureState.values();
+    private static final byte STATE_NONE = (byte) ExposureState.NONE.ordinal();
+
+    /** 每帧滑动的像素数：慢速拖动 / 常规 / 快速 fling */
+    @Param({"8", "40", "160"})
+    public int scrollPxPerFrame;
+
+    // 合成序列：第 f 帧的可见 item 为 [frameStart[f], frameStart[f + 1])
+    private int[] frameStart;
+    private long[] itemIds;
+    private float[] ratios;
+
+    private ExposureStateMap stateMap;
+    private int passStamp;
+
+    @Setup(Level.Trial)
+    public void buildSequence() {
+        int perFrame = VIEWPORT_PX / ITEM_PX + 3;
+        frameStart = new int[FRAMES + 1];
+        itemIds = new long[FRAMES * perFrame];
+        ratios = new float[FRAMES * perFrame];
+        int n = 0;
+        for (int f = 0; f < FRAMES; f++) {
+            frameStart[f] = n;
+            int offset = f * scrollPxPerFrame;
+            // 和 RecyclerView 一样，视口上下各多留一个刚好不可见的 child
+            int first = Math.max(0, offset / ITEM_PX - 1);
+            int last = (offset + VIEWPORT_PX) / ITEM_PX + 1;
+            for (int i = first; i <= last && n - frameStart[f] < perFrame; i++) {
+                int top = i * ITEM_PX - offset;
+                int visible = Math.max(0, Math.min(top + ITEM_PX, VIEWPORT_PX) - Math.max(top, 0));
+                itemIds[n] = i;
+                ratios[n] = visible * 1f / ITEM_PX;
+                n++;
+            }
+        }
+        frameStart[FRAMES] = n;
+    }
+
+    @Setup(Level.Iteration)
+    public void resetState() {
+        stateMap = new ExposureStateMap(32);
+        passStamp = 0;
+    }
+
+    @Benchmark
+    public void replayScroll(Blackhole bh) {
+        for (int f = 0; f < FRAMES; f++) {
+            int stamp = ++passStamp;
+            for (int k = frameStart[f]; k < frameStart[f + 1]; k++) {
+                long itemId = itemIds[k];
+                int slot = stateMap.slotFor(itemId, STATE_NONE);
+                ExposureState prev = STATES[stateMap.stateAt(slot)];
+                ExposureState now = ExposureStateMachine.stateForRatio(ratios[k]);
+                bh.consume(ExposureStateMachine.transitionEvents(prev, now));
+                stateMap.setAt(slot, (byte) now.ordinal(), stamp);
+            }
+            // 本帧没见到的 item：发 DISAPPEAR 并移出表
+            int slot = 0;
+            while (slot < stateMap.capacity()) {
+                if (!stateMap.isUsedAt(slot) || stateMap.stampAt(slot) == stamp) {
+                    slot++;
+                    continue;
+                }
+                byte prev = stateMap.stateAt(slot);
+                stateMap.removeAt(slot);
+                if (prev != STATE_NONE) {
+                    bh.consume(ExposureStateMachine.EVENT_DISAPPEAR);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int transitionAllPairs() {
+        int acc = 0;
+        for (ExposureState prev : STATES) {
+            for (ExposureState now : STATES) {
+                acc += ExposureStateMachine.transitionEvents(prev, now);
+            }
+        }
+        return acc;
+    }
+}
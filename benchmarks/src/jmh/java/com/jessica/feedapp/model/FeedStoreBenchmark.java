@@ -0,0 +1,59 @@
+package com.jessica.feedapp.model;
+
+import com.jessica.feedapp.data.FeedRepository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FeedStore 的写入（整页 appendAll）和按行游标顺序读取（模拟 onBind，不生成 String）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FeedStoreBenchmark {
+
+    @Param({"1000", "50000"})
+    public int rows;
+
+    private List<FeedItem> items;
+    private FeedStore filled;
+    private FeedStore.Row row;
+
+    @Setup
+    public void setUp() {
+        items = new FeedRepository().generateItems(0, rows);
+        filled = new FeedStore();
+        filled.appendAll(items);
+        row = filled.newRow();
+    }
+
+    @Benchmark
+    public FeedStore appendAll() {
+        FeedStore store = new FeedStore();
+        store.appendAll(items);
+        return store;
+    }
+
+    @Benchmark
+    public long scanRows() {
+        long checksum = 0;
+        for (int i = 0, n = filled.size(); i < n; i++) {
+            filled.moveTo(row, i);
+            char[] text = row.textArena();
+            checksum += row.getId() + row.getCardType() + row.getSpanSize()
+                    + text[row.titleStart()] + row.contentLength()
+                    + row.getMediaUrl().length() + row.getMediaWidth();
+        }
+        return checksum;
+    }
+}